@@ -0,0 +1,23 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+
+// Katalog sintetis deterministik yang dipakai bersama oleh semua benchmark
+final class DataKatalog {
+    private static final String[] KATEGORI = {"Elektronik", "Makanan", "Minuman", "Pakaian", "Otomotif",
+            "Kesehatan", "Olahraga", "Mainan"};
+    private static final String[] NAMA = {"Laptop", "Mouse", "Kopi", "Teh", "Kaos", "Oli", "Vitamin",
+            "Bola", "Boneka", "Monitor", "Keyboard", "Beras"};
+
+    private DataKatalog() {}
+
+    static String kode(int i) {
+        return "P" + Integer.toString(i, 36).toUpperCase();
+    }
+
+    static Produk produk(int i) {
+        int stok = (i % 17 == 0) ? 0 : 50 + (i % 950);
+        return new Produk(kode(i), NAMA[i % NAMA.length] + " Seri " + (i % 1000),
+                KATEGORI[i % KATEGORI.length], 1000 + (i % 500) * 250, stok, 20 + (i % 80));
+    }
+}
@@ -0,0 +1,113 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukWal;
+import com.praktikum.whitebox.service.ServiceImporKatalog;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Impor berkas CSV ke repository kosong: pipeline massal vs tambahProduk per baris. Dengan WAL,
+// tambahProduk menunggu satu fsync per baris sedangkan simpanBanyak satu fsync per batch
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ImporKatalogBenchmark {
+    @Param({"100000", "1000000"})
+    private int jumlahBaris;
+
+    @Param({"MEMORI", "WAL"})
+    private String jenis;
+
+    private Path berkas;
+    private Path direktoriWal;
+    private RepositoryProduk repository;
+
+    @Setup(Level.Trial)
+    public void tulisBerkas() throws IOException {
+        berkas = Files.createTempFile("katalog", ".csv");
+        try (BufferedWriter penulis = Files.newBufferedWriter(berkas)) {
+            penulis.write("kode,nama,kategori,harga,stok,stokMinimum\n");
+            for (int i = 0; i < jumlahBaris; i++) {
+                Produk p = DataKatalog.produk(i);
+                penulis.write(p.getKode() + "," + p.getNama() + "," + p.getKategori() + "," + p.getHarga()
+                        + "," + p.getStok() + "," + p.getStokMinimum() + "\n");
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void repositoryKosong() throws IOException {
+        if (jenis.equals("WAL")) {
+            direktoriWal = Files.createTempDirectory("wal");
+            repository = RepositoryProdukWal.buka(direktoriWal, new RepositoryProdukInMemory());
+        } else {
+            repository = new RepositoryProdukInMemory();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tutupRepository() throws IOException {
+        if (repository instanceof RepositoryProdukWal wal) {
+            wal.close();
+            try (Stream<Path> isi = Files.list(direktoriWal)) {
+                for (Path p : isi.toList()) {
+                    Files.delete(p);
+                }
+            }
+            Files.delete(direktoriWal);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void hapusBerkas() throws IOException {
+        Files.deleteIfExists(berkas);
+    }
+
+    @Benchmark
+    public ServiceImporKatalog.HasilImpor imporMassal() throws IOException {
+        return new ServiceImporKatalog(repository).impor(berkas, ServiceImporKatalog.Format.CSV);
+    }
+
+    @Benchmark
+    public int tambahProdukPerBaris() throws IOException {
+        ServiceInventaris service = new ServiceInventaris(repository);
+        int tersimpan = 0;
+        try (BufferedReader pembaca = Files.newBufferedReader(berkas)) {
+            pembaca.readLine();
+            String baris;
+            while ((baris = pembaca.readLine()) != null) {
+                String[] f = baris.split(",");
+                if (service.tambahProduk(new Produk(f[0], f[1], f[2], Double.parseDouble(f[3]),
+                        Integer.parseInt(f[4]), Integer.parseInt(f[5])))) {
+                    tersimpan++;
+                }
+            }
+        }
+        return tersimpan;
+    }
+}
@@ -0,0 +1,76 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukWal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Throughput mutasi stok yang tahan crash. Dengan group commit throughput naik seiring jumlah
+// penulis bersamaan (ubah dengan -t) karena satu fsync melayani seluruh batch
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class JurnalMutasiBenchmark {
+    private static final int JUMLAH_PRODUK = 10_000;
+
+    @Param({"0", "1000"})
+    private int jedaFlushMikro;
+
+    private Path direktori;
+    private RepositoryProdukWal repository;
+    private String[] kode;
+
+    @Setup(Level.Trial)
+    public void bukaJurnal() throws IOException {
+        direktori = Files.createTempDirectory("jurnal-bench");
+        repository = RepositoryProdukWal.buka(direktori, new RepositoryProdukInMemory(),
+                RepositoryProdukWal.UKURAN_BATCH_BAWAAN, Duration.ofNanos(jedaFlushMikro * 1000L),
+                RepositoryProdukWal.UKURAN_SEGMEN_BAWAAN);
+        kode = new String[JUMLAH_PRODUK];
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            Produk produk = DataKatalog.produk(i);
+            produk.setStok(1_000_000);
+            repository.simpan(produk);
+            kode[i] = produk.getKode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tutupJurnal() throws IOException {
+        repository.close();
+        try (Stream<Path> isi = Files.walk(direktori)) {
+            isi.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int tambahStok() {
+        return repository.tambahStok(kode[ThreadLocalRandom.current().nextInt(JUMLAH_PRODUK)], 1);
+    }
+}
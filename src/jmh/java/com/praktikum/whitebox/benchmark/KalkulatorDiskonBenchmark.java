@@ -0,0 +1,91 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.service.KalkulatorDiskon;
+import com.praktikum.whitebox.service.TipePelanggan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KalkulatorDiskonBenchmark {
+    private static final int JUMLAH_BARIS = 1024;
+    private static final String[] TIPE = {"PREMIUM", "REGULER", "BARU", "premium", "UMUM"};
+
+    private final KalkulatorDiskon kalkulator = new KalkulatorDiskon();
+    private double[] harga;
+    private int[] kuantitas;
+    private String[] tipe;
+    private TipePelanggan[] tipeEnum;
+    private byte[] tipeOrdinal;
+    private double[] keluaran;
+
+    @Setup
+    public void siapkanData() {
+        Random acak = new Random(42);
+        harga = new double[JUMLAH_BARIS];
+        kuantitas = new int[JUMLAH_BARIS];
+        tipe = new String[JUMLAH_BARIS];
+        tipeEnum = new TipePelanggan[JUMLAH_BARIS];
+        tipeOrdinal = new byte[JUMLAH_BARIS];
+        keluaran = new double[JUMLAH_BARIS];
+        for (int i = 0; i < JUMLAH_BARIS; i++) {
+            harga[i] = 1000 + acak.nextInt(1_000_000);
+            kuantitas[i] = 1 + acak.nextInt(150);
+            tipe[i] = TIPE[acak.nextInt(TIPE.length)];
+            tipeEnum[i] = TipePelanggan.dari(tipe[i]);
+            tipeOrdinal[i] = (byte) (tipeEnum[i] == null ? -1 : tipeEnum[i].ordinal());
+        }
+    }
+
+    // Skor per operasi mencakup JUMLAH_BARIS baris
+    @Benchmark
+    public void hitungDiskon(Blackhole bh) {
+        for (int i = 0; i < JUMLAH_BARIS; i++) {
+            bh.consume(kalkulator.hitungDiskon(harga[i], kuantitas[i], tipe[i]));
+        }
+    }
+
+    @Benchmark
+    public void hitungDiskonTipeEnum(Blackhole bh) {
+        for (int i = 0; i < JUMLAH_BARIS; i++) {
+            bh.consume(kalkulator.hitungDiskon(harga[i], kuantitas[i], tipeEnum[i]));
+        }
+    }
+
+    @Benchmark
+    public void hitungHargaSetelahDiskon(Blackhole bh) {
+        for (int i = 0; i < JUMLAH_BARIS; i++) {
+            bh.consume(kalkulator.hitungHargaSetelahDiskon(harga[i], kuantitas[i], tipe[i]));
+        }
+    }
+
+    // Pembanding untuk API massal: jalur vektor jika modul inkubator dimuat (profil benchmark
+    // menambahkan --add-modules jdk.incubator.vector), selain itu jalur skalar tanpa alokasi
+    @Benchmark
+    public double[] hitungDiskonMassal() {
+        kalkulator.hitungDiskonMassal(harga, kuantitas, tipeOrdinal, keluaran);
+        return keluaran;
+    }
+
+    @Benchmark
+    public double[] hitungHargaSetelahDiskonMassal() {
+        kalkulator.hitungHargaSetelahDiskonMassal(harga, kuantitas, tipeOrdinal, keluaran);
+        return keluaran;
+    }
+}
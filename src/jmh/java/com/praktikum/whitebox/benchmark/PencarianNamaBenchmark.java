@@ -0,0 +1,74 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.IndeksNamaProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Autocomplete nama: indeks nama vs pemindaian katalog bawaan. SampleTime agar p99 terlihat
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PencarianNamaBenchmark {
+    @Param({"100000", "1000000"})
+    private int jumlahProduk;
+
+    private RepositoryProdukInMemory berindeks;
+    private RepositoryProdukKolom tanpaIndeks;
+
+    @Setup(Level.Trial)
+    public void siapkanKatalog() {
+        berindeks = new RepositoryProdukInMemory();
+        tanpaIndeks = new RepositoryProdukKolom(jumlahProduk);
+        for (int i = 0; i < jumlahProduk; i++) {
+            Produk produk = DataKatalog.produk(i);
+            berindeks.simpan(produk);
+            tanpaIndeks.simpan(produk);
+        }
+    }
+
+    @Benchmark
+    public List<Produk> awalanBerindeks() {
+        return berindeks.cariByNama("mon seri 12", IndeksNamaProduk.Mode.AWALAN, 10);
+    }
+
+    @Benchmark
+    public List<Produk> substringBerindeks() {
+        return berindeks.cariByNama("rd seri 99", IndeksNamaProduk.Mode.SUBSTRING, 10);
+    }
+
+    // Ketikan pertama autocomplete: awalan satu huruf yang sangat umum, dan substring dua huruf yang
+    // tidak cocok dengan nama mana pun (kasus terburuk pemindaian seluruh nama)
+    @Benchmark
+    public List<Produk> awalanPendekBerindeks() {
+        return berindeks.cariByNama("m", IndeksNamaProduk.Mode.AWALAN, 10);
+    }
+
+    @Benchmark
+    public List<Produk> substringPendekBerindeks() {
+        return berindeks.cariByNama("zq", IndeksNamaProduk.Mode.SUBSTRING, 10);
+    }
+
+    @Benchmark
+    public List<Produk> awalanPemindaian() {
+        return tanpaIndeks.cariByNama("mon seri 12", IndeksNamaProduk.Mode.AWALAN, 10);
+    }
+}
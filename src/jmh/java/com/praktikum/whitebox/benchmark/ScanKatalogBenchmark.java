@@ -0,0 +1,69 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import com.praktikum.whitebox.model.Produk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Scan seluruh katalog untuk total nilai/stok: aliran objek Produk vs array kolom primitif
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ScanKatalogBenchmark {
+    @Param({"100000", "1000000"})
+    private int jumlahProduk;
+
+    private RepositoryProduk objek;
+    private RepositoryProdukKolom kolom;
+
+    @Setup(Level.Trial)
+    public void siapkanKatalog() {
+        objek = new RepositoryProdukInMemory();
+        kolom = new RepositoryProdukKolom(jumlahProduk);
+        for (int i = 0; i < jumlahProduk; i++) {
+            Produk produk = DataKatalog.produk(i);
+            objek.simpan(produk);
+            kolom.simpan(produk);
+        }
+    }
+
+    @Benchmark
+    public double totalNilaiAliranObjek() {
+        try (Stream<Produk> semua = objek.alirSemua()) {
+            return semua.filter(Produk::isAktif).mapToDouble(p -> p.getHarga() * p.getStok()).sum();
+        }
+    }
+
+    @Benchmark
+    public double totalNilaiKolom() {
+        return kolom.hitungTotalNilaiAktif();
+    }
+
+    @Benchmark
+    public long totalStokKolom() {
+        return kolom.hitungTotalStokAktif();
+    }
+
+    @Benchmark
+    public int stokHabisKolom() {
+        return kolom.cariProdukStokHabis().size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Jalur utama ServiceInventaris di atas RepositoryProdukInMemory untuk berbagai ukuran katalog.
+// Katalog 10 juta produk butuh heap besar: -p jumlahProduk=10000000 -jvmArgsAppend -Xmx32g
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ServiceInventarisBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int jumlahProduk;
+
+    private ServiceInventaris serviceInventaris;
+    private String[] kode;
+    private int posisi;
+
+    @Setup(Level.Trial)
+    public void siapkanKatalog() {
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory();
+        kode = new String[jumlahProduk];
+        for (int i = 0; i < jumlahProduk; i++) {
+            kode[i] = DataKatalog.kode(i);
+            repository.simpan(DataKatalog.produk(i));
+        }
+        serviceInventaris = new ServiceInventaris(repository);
+    }
+
+    private String kodeBerikutnya() {
+        posisi = posisi + 1 == kode.length ? 0 : posisi + 1;
+        return kode[posisi];
+    }
+
+    @Benchmark
+    public boolean keluarMasukStok() {
+        String k = kodeBerikutnya();
+        return serviceInventaris.keluarStok(k, 1) & serviceInventaris.masukStok(k, 1);
+    }
+
+    @Benchmark
+    public boolean tambahLaluHapusProduk() {
+        // Produk baru berstok 0 agar bisa langsung dihapus dan ukuran katalog tetap
+        Produk baru = new Produk("BARU001", "Produk Benchmark", "Umum", 1000, 0, 1);
+        return serviceInventaris.tambahProduk(baru) & serviceInventaris.hapusProduk("BARU001");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double hitungTotalNilaiInventaris() {
+        return serviceInventaris.hitungTotalNilaiInventaris();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int hitungTotalStok() {
+        return serviceInventaris.hitungTotalStok();
+    }
+}
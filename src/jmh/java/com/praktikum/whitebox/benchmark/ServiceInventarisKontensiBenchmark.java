@@ -0,0 +1,80 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukShard;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput keluar/masuk stok dari banyak thread: satu SKU panas vs SKU tersebar.
+// Ubah jumlah thread dengan -t, misalnya -t 1,4,16 untuk melihat skalabilitas
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ServiceInventarisKontensiBenchmark {
+    private static final int JUMLAH_PRODUK = 100_000;
+
+    @Param({"1", "100000"})
+    private int jumlahSkuAktif;
+
+    // 0 berarti satu RepositoryProdukInMemory tanpa lapisan shard
+    @Param({"0", "8"})
+    private int jumlahShard;
+
+    private ServiceInventaris serviceInventaris;
+    private String[] kode;
+
+    @Setup(Level.Trial)
+    public void siapkanKatalog() {
+        RepositoryProduk repository = new RepositoryProdukInMemory();
+        if (jumlahShard > 0) {
+            List<RepositoryProdukShard.Shard> shard = new ArrayList<>();
+            for (int i = 0; i < jumlahShard; i++) {
+                shard.add(new RepositoryProdukShard.Shard("shard-" + i, new RepositoryProdukInMemory()));
+            }
+            repository = new RepositoryProdukShard(shard);
+        }
+        kode = new String[JUMLAH_PRODUK];
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            Produk produk = DataKatalog.produk(i);
+            produk.setStok(1_000_000);
+            repository.simpan(produk);
+            kode[i] = produk.getKode();
+        }
+        serviceInventaris = new ServiceInventaris(repository);
+    }
+
+    @Benchmark
+    public boolean keluarMasukStok() {
+        String k = kode[ThreadLocalRandom.current().nextInt(jumlahSkuAktif)];
+        return serviceInventaris.keluarStok(k, 1) & serviceInventaris.masukStok(k, 1);
+    }
+
+    @Benchmark
+    public boolean cariProdukByKode() {
+        String k = kode[ThreadLocalRandom.current().nextInt(jumlahSkuAktif)];
+        return serviceInventaris.cariProdukByKode(k).isPresent();
+    }
+}
@@ -0,0 +1,76 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.SnapshotKatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+// Ekspor, dekode dan muat ulang snapshot katalog biner. dekode mengukur format saja tanpa biaya
+// indeks repository tujuan; ukuran berkas dicetak saat setup untuk membandingkan byte per produk
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotKatalogBenchmark {
+    @Param({"1000000"})
+    private int jumlahProduk;
+
+    private RepositoryProdukInMemory repository;
+    private Path berkas;
+
+    @Setup
+    public void siapkan() throws IOException {
+        repository = new RepositoryProdukInMemory();
+        for (int i = 0; i < jumlahProduk; i++) {
+            repository.simpan(DataKatalog.produk(i));
+        }
+        berkas = Files.createTempFile("katalog", ".snap");
+        SnapshotKatalog.ekspor(repository, berkas);
+        System.out.printf("%nukuran snapshot %d byte, %.1f byte per produk%n",
+                Files.size(berkas), (double) Files.size(berkas) / jumlahProduk);
+    }
+
+    @TearDown
+    public void hapusBerkas() throws IOException {
+        Files.deleteIfExists(berkas);
+    }
+
+    @Benchmark
+    public SnapshotKatalog.Ringkasan ekspor() throws IOException {
+        return SnapshotKatalog.ekspor(repository, berkas);
+    }
+
+    @Benchmark
+    public SnapshotKatalog.Ringkasan dekode(Blackhole bh) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.READ)) {
+            return SnapshotKatalog.baca(channel, bh::consume, bh::consume);
+        }
+    }
+
+    @Benchmark
+    public int imporKeRepositoryKosong() throws IOException {
+        RepositoryProdukInMemory tujuan = new RepositoryProdukInMemory();
+        SnapshotKatalog.impor(berkas, tujuan);
+        return tujuan.jumlahProduk();
+    }
+}
@@ -0,0 +1,48 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Bandingkan validasi kode tanpa alokasi dengan semantik regex lama; jalankan dengan -prof gc
+// untuk melihat gc.alloc.rate.norm per operasi
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationUtilsBenchmark {
+    private final String[] kode = {"PROD001", " A01 ", "AB", "PROD123456789", "PROD-01", "x9Y8z7W6v5"};
+    private final Produk produk = new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5);
+
+    @Benchmark
+    public void isValidKodeProduk(Blackhole bh) {
+        for (String k : kode) {
+            bh.consume(ValidationUtils.isValidKodeProduk(k));
+        }
+    }
+
+    @Benchmark
+    public void regexLama(Blackhole bh) {
+        for (String k : kode) {
+            bh.consume(k != null && !k.trim().isEmpty() && k.trim().matches("^[A-Za-z0-9]{3,10}$"));
+        }
+    }
+
+    @Benchmark
+    public boolean isValidProduk() {
+        return ValidationUtils.isValidProduk(produk);
+    }
+}
@@ -6,11 +6,17 @@ public class Kategori {
     private String nama;
     private String deskripsi;
     private boolean aktif;
+    // Kode kategori induk; null untuk kategori akar
+    private String kodeInduk;
     public Kategori() {}
     public Kategori(String kode, String nama, String deskripsi) {
+        this(kode, nama, deskripsi, null);
+    }
+    public Kategori(String kode, String nama, String deskripsi, String kodeInduk) {
         this.kode = kode;
         this.nama = nama;
         this.deskripsi = deskripsi;
+        this.kodeInduk = kodeInduk;
         this.aktif = true;
     }
     // Getters and Setters
@@ -23,6 +29,8 @@ public class Kategori {
             deskripsi; }
     public boolean isAktif() { return aktif; }
     public void setAktif(boolean aktif) { this.aktif = aktif; }
+    public String getKodeInduk() { return kodeInduk; }
+    public void setKodeInduk(String kodeInduk) { this.kodeInduk = kodeInduk; }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -40,6 +48,7 @@ public class Kategori {
                 "kode='" + kode + '\'' +
                 ", nama='" + nama + '\'' +
                 ", deskripsi='" + deskripsi + '\'' +
+                ", kodeInduk='" + kodeInduk + '\'' +
                 ", aktif=" + aktif +
                 '}';
     }
@@ -0,0 +1,15 @@
+package com.praktikum.whitebox.model;
+
+public record MutasiStok(String kode, int jumlah, Jenis jenis) {
+    public enum Jenis { MASUK, KELUAR }
+    public static MutasiStok masuk(String kode, int jumlah) {
+        return new MutasiStok(kode, jumlah, Jenis.MASUK);
+    }
+    public static MutasiStok keluar(String kode, int jumlah) {
+        return new MutasiStok(kode, jumlah, Jenis.KELUAR);
+    }
+    // Perubahan stok bertanda: positif untuk masuk, negatif untuk keluar
+    public int delta() {
+        return jenis == Jenis.KELUAR ? -jumlah : jumlah;
+    }
+}
@@ -0,0 +1,8 @@
+package com.praktikum.whitebox.model;
+
+// Perpindahan produk dari satu StatusStok ke status lain, dengan stok setelah perpindahan
+public record PeristiwaStok(String kode, StatusStok statusLama, StatusStok statusBaru, int stok) {
+    public boolean isBerubah() {
+        return statusLama != statusBaru;
+    }
+}
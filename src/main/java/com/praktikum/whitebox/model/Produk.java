@@ -1,11 +1,14 @@
 package com.praktikum.whitebox.model;
 
+import com.praktikum.whitebox.util.UangUtils;
 import java.util.Objects;
 public class Produk {
     private String kode;
     private String nama;
     private String kategori;
     private double harga;
+    // Harga dalam satuan terkecil (sen), selalu sinkron dengan harga
+    private long hargaMinor;
     private int stok;
     private int stokMinimum;
     private boolean aktif;
@@ -16,10 +19,21 @@ public class Produk {
         this.nama = nama;
         this.kategori = kategori;
         this.harga = harga;
+        this.hargaMinor = UangUtils.keMinor(harga);
         this.stok = stok;
         this.stokMinimum = stokMinimum;
         this.aktif = true;
     }
+    public Produk(Produk sumber) {
+        this.kode = sumber.kode;
+        this.nama = sumber.nama;
+        this.kategori = sumber.kategori;
+        this.harga = sumber.harga;
+        this.hargaMinor = sumber.hargaMinor;
+        this.stok = sumber.stok;
+        this.stokMinimum = sumber.stokMinimum;
+        this.aktif = sumber.aktif;
+    }
     // Getters and Setters
     public String getKode() { return kode; }
     public void setKode(String kode) { this.kode = kode; }
@@ -29,7 +43,15 @@ public class Produk {
     public void setKategori(String kategori) { this.kategori = kategori;
     }
     public double getHarga() { return harga; }
-    public void setHarga(double harga) { this.harga = harga; }
+    public void setHarga(double harga) {
+        this.harga = harga;
+        this.hargaMinor = UangUtils.keMinor(harga);
+    }
+    public long getHargaMinor() { return hargaMinor; }
+    public void setHargaMinor(long hargaMinor) {
+        this.hargaMinor = hargaMinor;
+        this.harga = UangUtils.keDouble(hargaMinor);
+    }
     public int getStok() { return stok; }
     public void setStok(int stok) { this.stok = stok; }
     public int getStokMinimum() { return stokMinimum; }
@@ -47,6 +69,9 @@ public class Produk {
     public boolean isStokAman() {
         return stok > stokMinimum;
     }
+    public StatusStok getStatusStok() {
+        return StatusStok.dari(stok, stokMinimum);
+    }
     public void kurangiStok(int jumlah) {
         if (jumlah <= 0) {
             throw new IllegalArgumentException("Jumlah harus positif");
@@ -68,6 +93,13 @@ public class Produk {
         }
         return harga * jumlah;
     }
+    // Total tepat dalam satuan terkecil; ArithmeticException jika melampaui long
+    public long hitungTotalHargaMinor(int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return Math.multiplyExact(hargaMinor, jumlah);
+    }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
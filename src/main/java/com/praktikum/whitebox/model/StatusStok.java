@@ -0,0 +1,14 @@
+package com.praktikum.whitebox.model;
+
+// Kelompok stok yang sama dengan isStokHabis, isStokMenipis dan isStokAman di Produk
+public enum StatusStok {
+    HABIS,
+    MENIPIS,
+    AMAN;
+    public static StatusStok dari(int stok, int stokMinimum) {
+        if (stok <= 0) {
+            return HABIS;
+        }
+        return stok > stokMinimum ? AMAN : MENIPIS;
+    }
+}
@@ -0,0 +1,7 @@
+package com.praktikum.whitebox.repository;
+
+// Total inventaris produk aktif yang dipelihara repository sehingga bisa dibaca tanpa scan
+public interface AgregatInventaris {
+    double totalNilai();
+    long totalStok();
+}
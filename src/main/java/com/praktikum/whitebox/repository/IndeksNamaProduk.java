@@ -0,0 +1,408 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+// Indeks nama produk untuk pencarian tanpa membedakan huruf besar/kecil: trigram untuk substring,
+// dan kamus token terurut untuk token utuh serta awalan token (autocomplete). Setiap kode diberi id
+// int sehingga daftar posting berupa int[] padat. Penulisan diserialkan satu lock; pembacaan tanpa
+// lock karena setiap posting adalah potret tak berubah yang diganti utuh. Hasil selalu diverifikasi
+// ulang terhadap nama, lalu diurutkan: nama sama persis, awalan nama, token utuh, awalan token, substring
+public final class IndeksNamaProduk {
+    public enum Mode {
+        // Setiap token kueri adalah awalan salah satu token nama ("lap gam" cocok "Laptop Gaming")
+        AWALAN,
+        // Setiap token kueri sama dengan salah satu token nama
+        TOKEN,
+        // Kueri utuh muncul di dalam nama
+        SUBSTRING
+    }
+    private static final int PANJANG_GRAM = 3;
+    // Dengan batas hasil, peringkat dihitung atas paling banyak batas * FAKTOR_KANDIDAT kandidat
+    // pertama agar kueri yang sangat umum tetap berbiaya tetap
+    private static final int FAKTOR_KANDIDAT = 16;
+    private static final int KANDIDAT_MINIMUM = 1024;
+    // Potret daftar posting. Penambahan boleh memakai ulang array selama kapasitas cukup karena
+    // pembaca potret lama tidak pernah melihat melewati ukurannya; penghapusan selalu menyalin
+    private static final class Posting {
+        final int[] id;
+        final int ukuran;
+        Posting(int[] id, int ukuran) {
+            this.id = id;
+            this.ukuran = ukuran;
+        }
+    }
+    private static final PrimitiveIterator.OfInt KOSONG = IntStream.empty().iterator();
+    private record Kandidat(String kode, String nama, int peringkat) {}
+    private static final Comparator<Kandidat> URUTAN = Comparator.comparingInt(Kandidat::peringkat)
+            .thenComparingInt(k -> k.nama().length())
+            .thenComparing(Kandidat::kode);
+    private final ReentrantLock lockTulis = new ReentrantLock();
+    private final ConcurrentHashMap<String, Integer> idByKode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Posting> indeksGram = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Posting> indeksToken = new ConcurrentSkipListMap<>();
+    private final ArrayDeque<Integer> idBebas = new ArrayDeque<>();
+    // Diganti utuh saat tumbuh; elemen ditulis sebelum id-nya dipublikasikan lewat posting
+    private volatile String[] kodeById = new String[1024];
+    private volatile String[] namaById = new String[1024];
+    private int idBerikutnya;
+    // Tambah atau ganti nama untuk kode ini
+    public void tambah(String kode, String nama) {
+        lockTulis.lock();
+        try {
+            hapusTanpaLock(kode);
+            if (nama == null) {
+                return;
+            }
+            String normal = normalisasi(nama);
+            int id = ambilId();
+            kodeById[id] = kode;
+            namaById[id] = normal;
+            for (String gram : gram(normal)) {
+                indeksGram.put(gram, tambahId(indeksGram.get(gram), id));
+            }
+            for (String token : new HashSet<>(token(normal))) {
+                indeksToken.put(token, tambahId(indeksToken.get(token), id));
+            }
+            idByKode.put(kode, id);
+        } finally {
+            lockTulis.unlock();
+        }
+    }
+    public void hapus(String kode) {
+        lockTulis.lock();
+        try {
+            hapusTanpaLock(kode);
+        } finally {
+            lockTulis.unlock();
+        }
+    }
+    public int jumlah() {
+        return idByKode.size();
+    }
+    // Kode produk yang cocok, paling relevan lebih dulu, paling banyak batas
+    public List<String> cari(String kueri, Mode mode, int batas) {
+        if (kueri == null || mode == null || batas <= 0) {
+            return Collections.emptyList();
+        }
+        String q = normalisasi(kueri);
+        List<String> tokenKueri = token(q);
+        if (mode != Mode.SUBSTRING && tokenKueri.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int maksKandidat = batas >= Integer.MAX_VALUE / FAKTOR_KANDIDAT
+                ? Integer.MAX_VALUE : Math.max(batas * FAKTOR_KANDIDAT, KANDIDAT_MINIMUM);
+        String[] kode = kodeById;
+        String[] nama = namaById;
+        List<Kandidat> kandidat = new ArrayList<>();
+        PrimitiveIterator.OfInt sumber = sumberKandidat(q, tokenKueri, mode, nama, maksKandidat);
+        while (sumber.hasNext() && kandidat.size() < maksKandidat) {
+            int id = sumber.nextInt();
+            if (id >= kode.length) {
+                // Posting dibaca setelah array tumbuh; kodeById ditulis terakhir sehingga dibaca pertama
+                kode = kodeById;
+                nama = namaById;
+            }
+            String n = nama[id];
+            String k = kode[id];
+            if (n != null && k != null && cocokNormal(n, q, tokenKueri, mode)) {
+                kandidat.add(new Kandidat(k, n, peringkat(n, q, tokenKueri)));
+            }
+        }
+        kandidat.sort(URUTAN);
+        List<String> hasil = new ArrayList<>(Math.min(batas, kandidat.size()));
+        for (int i = 0; i < kandidat.size() && hasil.size() < batas; i++) {
+            hasil.add(kandidat.get(i).kode());
+        }
+        return hasil;
+    }
+    public static boolean cocok(String nama, String kueri, Mode mode) {
+        if (nama == null || kueri == null) {
+            return false;
+        }
+        String q = normalisasi(kueri);
+        List<String> tokenKueri = token(q);
+        return (mode == Mode.SUBSTRING || !tokenKueri.isEmpty())
+                && cocokNormal(normalisasi(nama), q, tokenKueri, mode);
+    }
+    // Penyaringan dan pengurutan yang sama dengan indeks untuk repository tanpa indeks nama
+    public static List<Produk> saringDanUrutkan(Stream<Produk> produk, String kueri, Mode mode, int batas) {
+        if (kueri == null || mode == null || batas <= 0) {
+            return Collections.emptyList();
+        }
+        String q = normalisasi(kueri);
+        List<String> tokenKueri = token(q);
+        if (mode != Mode.SUBSTRING && tokenKueri.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Produk> byKode = new HashMap<>();
+        List<Kandidat> kandidat = new ArrayList<>();
+        produk.forEach(p -> {
+            if (p.getNama() != null) {
+                String n = normalisasi(p.getNama());
+                if (cocokNormal(n, q, tokenKueri, mode)) {
+                    byKode.put(p.getKode(), p);
+                    kandidat.add(new Kandidat(p.getKode(), n, peringkat(n, q, tokenKueri)));
+                }
+            }
+        });
+        kandidat.sort(URUTAN);
+        List<Produk> hasil = new ArrayList<>(Math.min(batas, kandidat.size()));
+        for (int i = 0; i < kandidat.size() && hasil.size() < batas; i++) {
+            hasil.add(byKode.get(kandidat.get(i).kode()));
+        }
+        return hasil;
+    }
+    private PrimitiveIterator.OfInt sumberKandidat(String q, List<String> tokenKueri, Mode mode, String[] nama,
+                                                   int maksKandidat) {
+        switch (mode) {
+            case SUBSTRING -> {
+                if (q.length() < PANJANG_GRAM) {
+                    if (tokenKueri.size() == 1 && tokenKueri.get(0).equals(q)) {
+                        // Kueri alfanumerik pendek selalu berada di dalam satu token, jadi cukup kamus
+                        // token: yang berawalan kueri lebih dulu, lalu yang memuatnya di tengah
+                        return gabungan(Stream.concat(rentangAwalan(q).values().stream(),
+                                indeksToken.entrySet().stream()
+                                        .filter(e -> e.getKey().indexOf(q) > 0)
+                                        .map(Map.Entry::getValue)).iterator());
+                    }
+                    // Kueri kosong atau memuat pemisah token: pindai nama sampai kandidat cukup
+                    return IntStream.range(0, nama.length).iterator();
+                }
+                // Posting terkecil dari semua trigram kueri sudah memuat semua kandidat
+                Posting terkecil = null;
+                for (String gram : gram(q)) {
+                    Posting posting = indeksGram.get(gram);
+                    if (posting == null) {
+                        return KOSONG;
+                    }
+                    if (terkecil == null || posting.ukuran < terkecil.ukuran) {
+                        terkecil = posting;
+                    }
+                }
+                return iterasi(terkecil);
+            }
+            case TOKEN -> {
+                Posting terkecil = null;
+                for (String t : tokenKueri) {
+                    Posting posting = indeksToken.get(t);
+                    if (posting == null) {
+                        return KOSONG;
+                    }
+                    if (terkecil == null || posting.ukuran < terkecil.ukuran) {
+                        terkecil = posting;
+                    }
+                }
+                return iterasi(terkecil);
+            }
+            default -> {
+                // Pakai token kueri yang gabungan postingnya paling kecil, lalu iterasi gabungan posting
+                // semua token berawalan itu dalam urutan kamus (token yang sama persis datang lebih dulu).
+                // Ukuran cukup dihitung sampai maksKandidat karena iterasi kandidat berhenti di sana, sehingga
+                // awalan satu-dua huruf tidak menelusuri seluruh rentangnya di kamus
+                Collection<Posting> terkecil = null;
+                long ukuranTerkecil = Long.MAX_VALUE;
+                for (String t : tokenKueri) {
+                    Collection<Posting> posting = rentangAwalan(t).values();
+                    long batasHitung = Math.min(ukuranTerkecil, maksKandidat);
+                    long ukuran = 0;
+                    for (Iterator<Posting> it = posting.iterator(); it.hasNext() && ukuran < batasHitung; ) {
+                        ukuran += it.next().ukuran;
+                    }
+                    if (terkecil == null || ukuran < ukuranTerkecil) {
+                        terkecil = posting;
+                        ukuranTerkecil = ukuran;
+                    }
+                }
+                return ukuranTerkecil == 0 ? KOSONG : gabungan(terkecil.iterator());
+            }
+        }
+    }
+    private NavigableMap<String, Posting> rentangAwalan(String awalan) {
+        return indeksToken.subMap(awalan, true, awalan + Character.MAX_VALUE, false);
+    }
+    private static PrimitiveIterator.OfInt iterasi(Posting posting) {
+        return Arrays.stream(posting.id, 0, posting.ukuran).iterator();
+    }
+    // Satu nama bisa punya beberapa token berawalan sama, jadi id yang sudah keluar dilewati
+    private static PrimitiveIterator.OfInt gabungan(Iterator<Posting> daftar) {
+        return new PrimitiveIterator.OfInt() {
+            private final Set<Integer> sudah = new HashSet<>();
+            private Posting sekarang;
+            private int i;
+            private int berikut = -1;
+            @Override
+            public boolean hasNext() {
+                while (berikut < 0) {
+                    if (sekarang == null || i >= sekarang.ukuran) {
+                        if (!daftar.hasNext()) {
+                            return false;
+                        }
+                        sekarang = daftar.next();
+                        i = 0;
+                        continue;
+                    }
+                    int id = sekarang.id[i++];
+                    if (sudah.add(id)) {
+                        berikut = id;
+                    }
+                }
+                return true;
+            }
+            @Override
+            public int nextInt() {
+                hasNext();
+                int id = berikut;
+                berikut = -1;
+                return id;
+            }
+        };
+    }
+    private void hapusTanpaLock(String kode) {
+        Integer id = idByKode.remove(kode);
+        if (id == null) {
+            return;
+        }
+        String nama = namaById[id];
+        for (String gram : gram(nama)) {
+            hapusId(indeksGram, gram, id);
+        }
+        for (String token : new HashSet<>(token(nama))) {
+            hapusId(indeksToken, token, id);
+        }
+        kodeById[id] = null;
+        namaById[id] = null;
+        idBebas.push(id);
+    }
+    private int ambilId() {
+        Integer bebas = idBebas.poll();
+        if (bebas != null) {
+            return bebas;
+        }
+        int id = idBerikutnya++;
+        if (id == kodeById.length) {
+            // Tulis array nama lebih dulu; pembaca membaca kodeById lalu namaById
+            namaById = Arrays.copyOf(namaById, id * 2);
+            kodeById = Arrays.copyOf(kodeById, id * 2);
+        }
+        return id;
+    }
+    private static Posting tambahId(Posting posting, int id) {
+        if (posting == null) {
+            int[] baru = new int[4];
+            baru[0] = id;
+            return new Posting(baru, 1);
+        }
+        int[] array = posting.id;
+        if (posting.ukuran == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[posting.ukuran] = id;
+        return new Posting(array, posting.ukuran + 1);
+    }
+    private static void hapusId(Map<String, Posting> indeks, String kunci, int id) {
+        Posting posting = indeks.get(kunci);
+        if (posting == null) {
+            return;
+        }
+        int[] baru = new int[posting.id.length];
+        int ukuran = 0;
+        for (int i = 0; i < posting.ukuran; i++) {
+            if (posting.id[i] != id) {
+                baru[ukuran++] = posting.id[i];
+            }
+        }
+        if (ukuran == 0) {
+            indeks.remove(kunci);
+        } else {
+            indeks.put(kunci, new Posting(ukuran < baru.length / 4 ? Arrays.copyOf(baru, ukuran * 2) : baru, ukuran));
+        }
+    }
+    private static boolean cocokNormal(String nama, String q, List<String> tokenKueri, Mode mode) {
+        if (mode == Mode.SUBSTRING) {
+            return nama.contains(q);
+        }
+        boolean utuh = mode == Mode.TOKEN;
+        for (String t : tokenKueri) {
+            if (!adaToken(nama, t, utuh)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    private static int peringkat(String nama, String q, List<String> tokenKueri) {
+        if (nama.equals(q)) {
+            return 0;
+        }
+        if (!q.isEmpty() && nama.startsWith(q)) {
+            return 1;
+        }
+        if (tokenKueri.isEmpty()) {
+            return 4;
+        }
+        boolean semuaUtuh = true;
+        for (String t : tokenKueri) {
+            if (!adaToken(nama, t, false)) {
+                return 4;
+            }
+            semuaUtuh &= adaToken(nama, t, true);
+        }
+        return semuaUtuh ? 2 : 3;
+    }
+    // Apakah t muncul di awal salah satu token nama (utuh: juga berakhir di batas token), tanpa
+    // memecah nama menjadi daftar token
+    private static boolean adaToken(String nama, String t, boolean utuh) {
+        for (int i = nama.indexOf(t); i >= 0; i = nama.indexOf(t, i + 1)) {
+            boolean awalToken = i == 0 || !Character.isLetterOrDigit(nama.charAt(i - 1));
+            int akhir = i + t.length();
+            if (awalToken && (!utuh || akhir == nama.length() || !Character.isLetterOrDigit(nama.charAt(akhir)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    private static Set<String> gram(String teks) {
+        Set<String> hasil = new LinkedHashSet<>();
+        for (int i = 0; i + PANJANG_GRAM <= teks.length(); i++) {
+            hasil.add(teks.substring(i, i + PANJANG_GRAM));
+        }
+        return hasil;
+    }
+    // Token dipisah oleh karakter selain huruf dan angka
+    private static List<String> token(String teks) {
+        List<String> hasil = new ArrayList<>();
+        int awal = -1;
+        for (int i = 0; i <= teks.length(); i++) {
+            boolean bagianToken = i < teks.length() && Character.isLetterOrDigit(teks.charAt(i));
+            if (bagianToken && awal < 0) {
+                awal = i;
+            } else if (!bagianToken && awal >= 0) {
+                hasil.add(teks.substring(awal, i));
+                awal = -1;
+            }
+        }
+        return hasil;
+    }
+    static String normalisasi(String teks) {
+        return teks.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,260 @@
+package com.praktikum.whitebox.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+// Jurnal tambah-saja dengan group commit. Penulis menaruh bingkai di buffer memori dan menunggu
+// LSN-nya tahan; satu thread flusher menulis seluruh buffer dan memanggil fsync sekali per batch.
+// Batch dikirim saat ukurannya mencapai ukuranBatch atau jedaFlush sejak rekaman pertama lewat
+final class JurnalMutasi implements AutoCloseable {
+    private static final String AWALAN_SEGMEN = "jurnal-";
+    private static final String AKHIRAN_SEGMEN = ".log";
+    private final Path direktori;
+    private final int ukuranBatch;
+    private final long jedaFlushNanos;
+    private final long ukuranSegmenMaks;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition adaData = lock.newCondition();
+    private final Condition sudahTahan = lock.newCondition();
+    // Dipegang flusher maupun rotasi selama menulis ke segmen agar urutan batch di berkas terjaga
+    private final ReentrantLock lockTulis = new ReentrantLock();
+    private final AtomicLong jumlahFsync = new AtomicLong();
+    private final Thread flusher;
+    private ByteBuffer aktif;
+    private ByteBuffer cadangan;
+    private long lsnTerakhir;
+    private long lsnTahan;
+    private boolean ditutup;
+    private IOException gagal;
+    private FileChannel segmen;
+    private long nomorSegmen;
+    private long ukuranSegmen;
+    JurnalMutasi(Path direktori, long nomorSegmenAwal, int ukuranBatch, long jedaFlushNanos, long ukuranSegmenMaks)
+            throws IOException {
+        this.direktori = direktori;
+        this.ukuranBatch = ukuranBatch;
+        this.jedaFlushNanos = jedaFlushNanos;
+        this.ukuranSegmenMaks = ukuranSegmenMaks;
+        this.aktif = ByteBuffer.allocateDirect(Math.max(ukuranBatch * 2, 4096));
+        this.cadangan = ByteBuffer.allocateDirect(aktif.capacity());
+        bukaSegmen(nomorSegmenAwal);
+        flusher = new Thread(this::jalankanFlusher, "jurnal-mutasi-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    // Tambahkan rekaman ke batch berjalan dan kembalikan LSN-nya; belum tentu sudah tahan
+    long tambah(byte[] isi) {
+        lock.lock();
+        try {
+            periksaStatus();
+            if (ditutup) {
+                throw new IllegalStateException("Jurnal sudah ditutup");
+            }
+            int ukuran = RekamanJurnal.ukuranBingkai(isi);
+            if (aktif.remaining() < ukuran) {
+                ByteBuffer lebihBesar = ByteBuffer.allocateDirect(Math.max(aktif.capacity() * 2, aktif.position() + ukuran));
+                aktif.flip();
+                lebihBesar.put(aktif);
+                aktif = lebihBesar;
+            }
+            boolean pertama = aktif.position() == 0;
+            RekamanJurnal.tulisBingkai(aktif, isi);
+            if (pertama || aktif.position() >= ukuranBatch) {
+                adaData.signal();
+            }
+            return ++lsnTerakhir;
+        } finally {
+            lock.unlock();
+        }
+    }
+    // Blokir sampai rekaman dengan LSN ini sudah di-fsync
+    void tunggu(long lsn) {
+        lock.lock();
+        try {
+            while (lsnTahan < lsn) {
+                periksaStatus();
+                sudahTahan.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    // Tutup segmen berjalan setelah isinya tahan dan mulai segmen baru. Semua rekaman yang
+    // ditambahkan sebelum pemanggilan ini berada di segmen lama atau sebelumnya
+    long rotasi() {
+        lockTulis.lock();
+        try {
+            tulisBatch();
+            segmen.close();
+            bukaSegmen(nomorSegmen + 1);
+            return nomorSegmen;
+        } catch (IOException e) {
+            tandaiGagal(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lockTulis.unlock();
+        }
+    }
+    void hapusSegmenSebelum(long nomor) throws IOException {
+        for (Path berkas : daftarSegmen(direktori)) {
+            if (nomorSegmen(berkas) < nomor) {
+                Files.deleteIfExists(berkas);
+            }
+        }
+    }
+    long jumlahFsync() {
+        return jumlahFsync.get();
+    }
+    long jumlahRekaman() {
+        lock.lock();
+        try {
+            return lsnTerakhir;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            ditutup = true;
+            adaData.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lockTulis.lock();
+        try {
+            tulisBatch();
+            segmen.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lockTulis.unlock();
+        }
+    }
+    static List<Path> daftarSegmen(Path direktori) throws IOException {
+        try (Stream<Path> isi = Files.list(direktori)) {
+            List<Path> hasil = new ArrayList<>();
+            isi.filter(p -> {
+                String nama = p.getFileName().toString();
+                return nama.startsWith(AWALAN_SEGMEN) && nama.endsWith(AKHIRAN_SEGMEN);
+            }).forEach(hasil::add);
+            hasil.sort(Comparator.comparingLong(JurnalMutasi::nomorSegmen));
+            return hasil;
+        }
+    }
+    static long nomorSegmen(Path berkas) {
+        String nama = berkas.getFileName().toString();
+        return Long.parseLong(nama.substring(AWALAN_SEGMEN.length(), nama.length() - AKHIRAN_SEGMEN.length()));
+    }
+    private void jalankanFlusher() {
+        try {
+            while (tungguBatch()) {
+                lockTulis.lock();
+                try {
+                    tulisBatch();
+                    if (ukuranSegmen >= ukuranSegmenMaks) {
+                        segmen.close();
+                        bukaSegmen(nomorSegmen + 1);
+                    }
+                } finally {
+                    lockTulis.unlock();
+                }
+            }
+        } catch (IOException e) {
+            tandaiGagal(e);
+        }
+    }
+    // Tunggu sampai ada data, lalu beri waktu paling lama jedaFlush agar batch terisi
+    private boolean tungguBatch() {
+        lock.lock();
+        try {
+            while (aktif.position() == 0 && !ditutup) {
+                adaData.awaitUninterruptibly();
+            }
+            if (aktif.position() == 0) {
+                return false;
+            }
+            long batas = System.nanoTime() + jedaFlushNanos;
+            long sisa;
+            while (aktif.position() < ukuranBatch && !ditutup && (sisa = batas - System.nanoTime()) > 0) {
+                try {
+                    adaData.awaitNanos(sisa);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    // Dipanggil dengan lockTulis dipegang
+    private void tulisBatch() throws IOException {
+        ByteBuffer batch;
+        long lsnBatch;
+        lock.lock();
+        try {
+            batch = aktif;
+            aktif = cadangan;
+            cadangan = batch;
+            lsnBatch = lsnTerakhir;
+        } finally {
+            lock.unlock();
+        }
+        batch.flip();
+        if (batch.hasRemaining()) {
+            ukuranSegmen += batch.remaining();
+            while (batch.hasRemaining()) {
+                segmen.write(batch);
+            }
+            segmen.force(false);
+            jumlahFsync.incrementAndGet();
+        }
+        batch.clear();
+        lock.lock();
+        try {
+            lsnTahan = lsnBatch;
+            sudahTahan.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    private void bukaSegmen(long nomor) throws IOException {
+        Path berkas = direktori.resolve(String.format("%s%020d%s", AWALAN_SEGMEN, nomor, AKHIRAN_SEGMEN));
+        segmen = FileChannel.open(berkas, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        nomorSegmen = nomor;
+        ukuranSegmen = segmen.size();
+    }
+    private void tandaiGagal(IOException e) {
+        lock.lock();
+        try {
+            gagal = e;
+            sudahTahan.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    private void periksaStatus() {
+        if (gagal != null) {
+            throw new UncheckedIOException("Jurnal gagal ditulis", gagal);
+        }
+    }
+}
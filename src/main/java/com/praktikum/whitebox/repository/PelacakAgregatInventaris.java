@@ -0,0 +1,55 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+// Total berjalan di sel bergaris (LongAdder/DoubleAdder) sehingga banyak thread bisa mencatat
+// tanpa saling menunggu. Pembacaan O(1) terhadap jumlah sel, bukan terhadap jumlah produk
+public class PelacakAgregatInventaris implements AgregatInventaris {
+    private final DoubleAdder totalNilai = new DoubleAdder();
+    private final LongAdder totalStok = new LongAdder();
+    public record Selisih(double nilai, long stok) {
+        public boolean isAdaSelisih(double toleransiNilai) {
+            return stok != 0 || Math.abs(nilai) > toleransiNilai;
+        }
+    }
+    @Override
+    public double totalNilai() {
+        return totalNilai.sum();
+    }
+    @Override
+    public long totalStok() {
+        return totalStok.sum();
+    }
+    public void catatMasuk(Produk produk, int stok) {
+        catatPerubahanStok(produk, stok);
+    }
+    public void catatKeluar(Produk produk, int stok) {
+        catatPerubahanStok(produk, -stok);
+    }
+    // Produk nonaktif tidak ikut dihitung, sesuai filter isAktif pada ServiceInventaris
+    public void catatPerubahanStok(Produk produk, int deltaStok) {
+        if (deltaStok == 0 || !produk.isAktif()) {
+            return;
+        }
+        totalStok.add(deltaStok);
+        totalNilai.add(produk.getHarga() * deltaStok);
+    }
+    // Hitung ulang total dari data sumber, koreksi total berjalan, dan kembalikan selisih yang
+    // ditemukan (nilai terhitung dikurangi nilai berjalan). Hasil pasti hanya jika tidak ada
+    // penulisan bersamaan selama pemindaian
+    public Selisih rekonsiliasi(Iterable<Produk> semuaProduk) {
+        double nilai = 0;
+        long stok = 0;
+        for (Produk produk : semuaProduk) {
+            if (produk.isAktif()) {
+                nilai += produk.getHarga() * produk.getStok();
+                stok += produk.getStok();
+            }
+        }
+        Selisih selisih = new Selisih(nilai - totalNilai.sum(), stok - totalStok.sum());
+        totalNilai.add(selisih.nilai());
+        totalStok.add(selisih.stok());
+        return selisih;
+    }
+}
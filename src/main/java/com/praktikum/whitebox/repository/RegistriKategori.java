@@ -0,0 +1,359 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+// Registri kategori: kode kategori (tanpa membedakan huruf besar/kecil) diinternir menjadi id int
+// padat yang tidak pernah berubah, sehingga produk cukup menyimpan id. Kategori boleh punya induk.
+// Stok dan nilai produk aktif dicatat di kategorinya dan di setiap leluhurnya, jadi total sebuah
+// kategori beserta subkategorinya dibaca O(1) dan setiap pencatatan berbiaya O(kedalaman).
+// Kode yang belum didaftarkan otomatis menjadi kategori akar saat pertama dipakai produk.
+// Status aktif efektif (nonaktif jika kategori itu atau salah satu leluhurnya nonaktif) disimpan
+// di bitset per id yang diganti utuh saat status berubah, sehingga menonaktifkan kategori
+// berapa pun besarnya tidak menyentuh produknya dan pemeriksaan per produk O(1)
+public final class RegistriKategori {
+    public static final int TANPA_KATEGORI = -1;
+    public record Rollup(long totalStok, double totalNilai) {
+        public static final Rollup KOSONG = new Rollup(0, 0);
+    }
+    private static final class Simpul {
+        final int id;
+        final String kode;
+        volatile Simpul induk;
+        volatile Kategori data;
+        // Hanya diubah di dalam lockTulis
+        final List<Simpul> anak = new ArrayList<>();
+        boolean nonaktifSendiri;
+        final LongAdder stokSendiri = new LongAdder();
+        final DoubleAdder nilaiSendiri = new DoubleAdder();
+        final LongAdder stokTotal = new LongAdder();
+        final DoubleAdder nilaiTotal = new DoubleAdder();
+        Simpul(int id, String kode) {
+            this.id = id;
+            this.kode = kode;
+        }
+    }
+    private final ConcurrentHashMap<String, Simpul> simpulByKode = new ConcurrentHashMap<>();
+    private final Object lockTulis = new Object();
+    private volatile Simpul[] simpulById = new Simpul[16];
+    // Bit per id yang nonaktif efektif, dan kategori nonaktif yang induknya aktif (akar subtree
+    // nonaktif); keduanya diterbitkan bersama sebagai satu objek
+    private record StatusNonaktif(long[] bit, Simpul[] akar) {}
+    private volatile StatusNonaktif status = new StatusNonaktif(new long[0], new Simpul[0]);
+    private int jumlah;
+    // Id kategori untuk dipakai produk; kategori baru dibuat sebagai akar. TANPA_KATEGORI untuk null
+    public int intern(String kategori) {
+        if (kategori == null) {
+            return TANPA_KATEGORI;
+        }
+        Simpul simpul = simpulByKode.get(normalisasi(kategori));
+        return simpul != null ? simpul.id : simpulAtauBaru(kategori).id;
+    }
+    public int cariId(String kategori) {
+        Simpul simpul = kategori == null ? null : simpulByKode.get(normalisasi(kategori));
+        return simpul == null ? TANPA_KATEGORI : simpul.id;
+    }
+    public String kodeById(int id) {
+        Simpul[] semua = simpulById;
+        return id < 0 || id >= semua.length || semua[id] == null ? null : semua[id].kode;
+    }
+    public int jumlah() {
+        return simpulByKode.size();
+    }
+    // Daftarkan atau perbarui kategori beserta induknya. Gagal jika kode null atau induk
+    // membentuk siklus; data kategori disalin sehingga perubahan objek asli tidak ikut
+    public boolean daftarkan(Kategori kategori) {
+        if (kategori == null || kategori.getKode() == null) {
+            return false;
+        }
+        synchronized (lockTulis) {
+            if (!setInduk(kategori.getKode(), kategori.getKodeInduk())) {
+                return false;
+            }
+            Kategori salinan = new Kategori(kategori.getKode(), kategori.getNama(),
+                    kategori.getDeskripsi(), kategori.getKodeInduk());
+            salinan.setAktif(kategori.isAktif());
+            Simpul simpul = simpulAtauBaru(kategori.getKode());
+            simpul.data = salinan;
+            if (simpul.nonaktifSendiri == kategori.isAktif()) {
+                simpul.nonaktifSendiri = !kategori.isAktif();
+                hitungUlangStatus();
+            }
+            return true;
+        }
+    }
+    // Pindahkan kategori ke induk baru (null menjadikannya akar). Total subtree dipindahkan dari
+    // leluhur lama ke leluhur baru; pencatatan stok yang berpacu dengan pemindahan bisa membuat
+    // total bergeser, dan rekonsiliasi mengoreksinya
+    public boolean setInduk(String kode, String kodeInduk) {
+        if (kode == null) {
+            return false;
+        }
+        synchronized (lockTulis) {
+            Simpul simpul = simpulAtauBaru(kode);
+            Simpul indukBaru = kodeInduk == null ? null : simpulAtauBaru(kodeInduk);
+            for (Simpul s = indukBaru; s != null; s = s.induk) {
+                if (s == simpul) {
+                    return false;
+                }
+            }
+            if (simpul.induk == indukBaru) {
+                return true;
+            }
+            long stok = simpul.stokTotal.sum();
+            double nilai = simpul.nilaiTotal.sum();
+            tambahKeLeluhur(simpul.induk, -stok, -nilai);
+            if (simpul.induk != null) {
+                simpul.induk.anak.remove(simpul);
+            }
+            simpul.induk = indukBaru;
+            if (indukBaru != null) {
+                indukBaru.anak.add(simpul);
+            }
+            Kategori data = simpul.data;
+            if (data != null) {
+                Kategori salinan = new Kategori(data.getKode(), data.getNama(), data.getDeskripsi(),
+                        indukBaru == null ? null : indukBaru.kode);
+                salinan.setAktif(data.isAktif());
+                simpul.data = salinan;
+            }
+            tambahKeLeluhur(indukBaru, stok, nilai);
+            hitungUlangStatus();
+            return true;
+        }
+    }
+    // Aktifkan atau nonaktifkan kategori beserta seluruh subkategorinya. Biayanya sebanding dengan
+    // jumlah kategori, bukan jumlah produk. Gagal jika kategori tidak dikenal
+    public boolean setAktif(String kode, boolean aktif) {
+        Simpul simpul = kode == null ? null : simpulByKode.get(normalisasi(kode));
+        if (simpul == null) {
+            return false;
+        }
+        synchronized (lockTulis) {
+            Kategori data = simpul.data;
+            if (data != null) {
+                Kategori salinan = new Kategori(data.getKode(), data.getNama(), data.getDeskripsi(), data.getKodeInduk());
+                salinan.setAktif(aktif);
+                simpul.data = salinan;
+            }
+            if (simpul.nonaktifSendiri == aktif) {
+                simpul.nonaktifSendiri = !aktif;
+                hitungUlangStatus();
+            }
+            return true;
+        }
+    }
+    // Status efektif; produk tanpa kategori dan kategori yang belum dikenal selalu aktif
+    public boolean isAktif(int id) {
+        return isAktif(status.bit(), id);
+    }
+    public boolean isAktif(String kategori) {
+        return kategori == null || !isAdaNonaktif() || isAktif(cariId(kategori));
+    }
+    // Status kategori itu sendiri tanpa memperhitungkan leluhur; kategori yang belum dikenal aktif
+    public boolean isAktifSendiri(String kode) {
+        Simpul simpul = kode == null ? null : simpulByKode.get(normalisasi(kode));
+        return simpul == null || !simpul.nonaktifSendiri;
+    }
+    public boolean isAdaNonaktif() {
+        return status.akar().length > 0;
+    }
+    // Total produk aktif yang berada di kategori nonaktif (termasuk lewat leluhur), untuk dikurangkan
+    // dari agregat inventaris. Biayanya sebanding dengan jumlah subtree nonaktif
+    public Rollup rollupNonaktif() {
+        long stok = 0;
+        double nilai = 0;
+        for (Simpul s : status.akar()) {
+            stok += s.stokTotal.sum();
+            nilai += s.nilaiTotal.sum();
+        }
+        return new Rollup(stok, nilai);
+    }
+    // Seperti rollup, tetapi tanpa produk di kategori nonaktif: kategori nonaktif bernilai nol dan
+    // subkategori nonaktif dikurangkan dari total subtree
+    public Optional<Rollup> rollupAktif(String kategori, boolean termasukSubKategori) {
+        Simpul simpul = kategori == null ? null : simpulByKode.get(normalisasi(kategori));
+        if (simpul == null) {
+            return Optional.empty();
+        }
+        StatusNonaktif sekarang = status;
+        if (!isAktif(sekarang.bit(), simpul.id)) {
+            return Optional.of(Rollup.KOSONG);
+        }
+        if (!termasukSubKategori) {
+            return Optional.of(new Rollup(simpul.stokSendiri.sum(), simpul.nilaiSendiri.sum()));
+        }
+        long stok = simpul.stokTotal.sum();
+        double nilai = simpul.nilaiTotal.sum();
+        for (Simpul akar : sekarang.akar()) {
+            for (Simpul s = akar.induk; s != null; s = s.induk) {
+                if (s == simpul) {
+                    stok -= akar.stokTotal.sum();
+                    nilai -= akar.nilaiTotal.sum();
+                    break;
+                }
+            }
+        }
+        return Optional.of(new Rollup(stok, nilai));
+    }
+    public Optional<Kategori> getKategori(String kode) {
+        Simpul simpul = kode == null ? null : simpulByKode.get(normalisasi(kode));
+        return simpul == null ? Optional.empty() : Optional.ofNullable(simpul.data);
+    }
+    public Optional<String> getInduk(String kode) {
+        Simpul simpul = kode == null ? null : simpulByKode.get(normalisasi(kode));
+        Simpul induk = simpul == null ? null : simpul.induk;
+        return induk == null ? Optional.empty() : Optional.of(induk.kode);
+    }
+    public List<String> getSubKategori(String kode) {
+        Simpul simpul = kode == null ? null : simpulByKode.get(normalisasi(kode));
+        if (simpul == null) {
+            return List.of();
+        }
+        synchronized (lockTulis) {
+            List<String> hasil = new ArrayList<>(simpul.anak.size());
+            for (Simpul anak : simpul.anak) {
+                hasil.add(anak.kode);
+            }
+            return hasil;
+        }
+    }
+    // Total kategori itu sendiri atau beserta seluruh subkategorinya; kosong jika kategori tidak dikenal
+    public Optional<Rollup> rollup(String kategori, boolean termasukSubKategori) {
+        Simpul simpul = kategori == null ? null : simpulByKode.get(normalisasi(kategori));
+        if (simpul == null) {
+            return Optional.empty();
+        }
+        return Optional.of(termasukSubKategori
+                ? new Rollup(simpul.stokTotal.sum(), simpul.nilaiTotal.sum())
+                : new Rollup(simpul.stokSendiri.sum(), simpul.nilaiSendiri.sum()));
+    }
+    // Produk nonaktif tidak ikut dihitung, sesuai PelacakAgregatInventaris
+    public void catatPerubahanStok(int id, Produk produk, int deltaStok) {
+        if (id < 0 || deltaStok == 0 || !produk.isAktif()) {
+            return;
+        }
+        Simpul simpul = simpulById[id];
+        double nilai = produk.getHarga() * deltaStok;
+        simpul.stokSendiri.add(deltaStok);
+        simpul.nilaiSendiri.add(nilai);
+        tambahKeLeluhur(simpul, deltaStok, nilai);
+    }
+    // Hitung ulang semua total dari data sumber dan koreksi total berjalan. Mengembalikan jumlah
+    // kategori yang totalnya bergeser (selisih nilai di bawah satu sen dianggap galat pembulatan).
+    // Jika registri dipakai bersama beberapa repository, berikan produk dari semuanya
+    public int rekonsiliasi(Iterable<Produk> semuaProduk) {
+        synchronized (lockTulis) {
+            long[] stok = new long[jumlah];
+            double[] nilai = new double[jumlah];
+            for (Produk produk : semuaProduk) {
+                if (produk.isAktif() && produk.getKategori() != null) {
+                    int id = intern(produk.getKategori());
+                    if (id >= stok.length) {
+                        stok = Arrays.copyOf(stok, jumlah);
+                        nilai = Arrays.copyOf(nilai, jumlah);
+                    }
+                    stok[id] += produk.getStok();
+                    nilai[id] += produk.getHarga() * produk.getStok();
+                }
+            }
+            long[] stokTotal = new long[stok.length];
+            double[] nilaiTotal = new double[stok.length];
+            Simpul[] semua = simpulById;
+            for (int id = 0; id < stok.length; id++) {
+                for (Simpul s = semua[id]; s != null; s = s.induk) {
+                    stokTotal[s.id] += stok[id];
+                    nilaiTotal[s.id] += nilai[id];
+                }
+            }
+            int bergeser = 0;
+            for (int id = 0; id < stok.length; id++) {
+                Simpul s = semua[id];
+                long selisihStok = stok[id] - s.stokSendiri.sum();
+                double selisihNilai = nilai[id] - s.nilaiSendiri.sum();
+                long selisihStokTotal = stokTotal[id] - s.stokTotal.sum();
+                double selisihNilaiTotal = nilaiTotal[id] - s.nilaiTotal.sum();
+                s.stokSendiri.add(selisihStok);
+                s.nilaiSendiri.add(selisihNilai);
+                s.stokTotal.add(selisihStokTotal);
+                s.nilaiTotal.add(selisihNilaiTotal);
+                if (selisihStok != 0 || selisihStokTotal != 0
+                        || Math.abs(selisihNilai) >= 0.01 || Math.abs(selisihNilaiTotal) >= 0.01) {
+                    bergeser++;
+                }
+            }
+            return bergeser;
+        }
+    }
+    // Dipanggil di dalam lockTulis
+    private void hitungUlangStatus() {
+        Simpul[] semua = simpulById;
+        long[] bit = new long[(jumlah + 63) >>> 6];
+        List<Simpul> akar = new ArrayList<>();
+        for (int id = 0; id < jumlah; id++) {
+            Simpul simpul = semua[id];
+            Simpul s = simpul;
+            while (s != null && !s.nonaktifSendiri) {
+                s = s.induk;
+            }
+            if (s == null) {
+                continue;
+            }
+            bit[id >>> 6] |= 1L << id;
+            if (simpul.nonaktifSendiri && !punyaLeluhurNonaktif(simpul)) {
+                akar.add(simpul);
+            }
+        }
+        status = new StatusNonaktif(bit, akar.toArray(new Simpul[0]));
+    }
+    private static boolean isAktif(long[] bit, int id) {
+        return id < 0 || (id >>> 6) >= bit.length || (bit[id >>> 6] & (1L << id)) == 0;
+    }
+    private static boolean punyaLeluhurNonaktif(Simpul simpul) {
+        for (Simpul s = simpul.induk; s != null; s = s.induk) {
+            if (s.nonaktifSendiri) {
+                return true;
+            }
+        }
+        return false;
+    }
+    private static void tambahKeLeluhur(Simpul mulai, long stok, double nilai) {
+        for (Simpul s = mulai; s != null; s = s.induk) {
+            s.stokTotal.add(stok);
+            s.nilaiTotal.add(nilai);
+        }
+    }
+    // Larik id diterbitkan sebelum peta kode, sehingga id yang terlihat lewat peta selalu ada di larik
+    private Simpul simpulAtauBaru(String kode) {
+        String kunci = normalisasi(kode);
+        Simpul simpul = simpulByKode.get(kunci);
+        if (simpul != null) {
+            return simpul;
+        }
+        synchronized (lockTulis) {
+            simpul = simpulByKode.get(kunci);
+            if (simpul != null) {
+                return simpul;
+            }
+            simpul = new Simpul(jumlah, kode);
+            Simpul[] semua = simpulById;
+            if (jumlah == semua.length) {
+                semua = Arrays.copyOf(semua, semua.length * 2);
+            }
+            semua[jumlah++] = simpul;
+            simpulById = semua;
+            simpulByKode.put(kunci, simpul);
+            return simpul;
+        }
+    }
+    private static String normalisasi(String teks) {
+        return teks.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,141 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+// Satu rekaman jurnal. Bingkai di berkas: [int panjang isi][int crc32c isi][isi], isi diawali
+// byte tipe. Rekaman menyimpan keadaan akhir (bukan selisih) sehingga pemutaran ulang idempoten
+final class RekamanJurnal {
+    static final byte SIMPAN = 1;
+    static final byte HAPUS = 2;
+    static final byte STOK = 3;
+    static final int UKURAN_KEPALA_BINGKAI = 8;
+    final byte tipe;
+    final String kode;
+    final Produk produk;
+    final int stok;
+    private RekamanJurnal(byte tipe, String kode, Produk produk, int stok) {
+        this.tipe = tipe;
+        this.kode = kode;
+        this.produk = produk;
+        this.stok = stok;
+    }
+    static byte[] simpan(Produk produk) {
+        byte[] kode = utf8(produk.getKode());
+        byte[] nama = utf8(produk.getNama());
+        byte[] kategori = utf8(produk.getKategori());
+        ByteBuffer isi = ByteBuffer.allocate(1 + panjangTeks(kode) + panjangTeks(nama) + panjangTeks(kategori) + 8 + 4 + 4 + 1);
+        isi.put(SIMPAN);
+        tulisTeks(isi, kode);
+        tulisTeks(isi, nama);
+        tulisTeks(isi, kategori);
+        isi.putDouble(produk.getHarga());
+        isi.putInt(produk.getStok());
+        isi.putInt(produk.getStokMinimum());
+        isi.put((byte) (produk.isAktif() ? 1 : 0));
+        return isi.array();
+    }
+    static byte[] hapus(String kode) {
+        byte[] k = utf8(kode);
+        ByteBuffer isi = ByteBuffer.allocate(1 + panjangTeks(k));
+        isi.put(HAPUS);
+        tulisTeks(isi, k);
+        return isi.array();
+    }
+    static byte[] stok(String kode, int stok) {
+        byte[] k = utf8(kode);
+        ByteBuffer isi = ByteBuffer.allocate(1 + panjangTeks(k) + 4);
+        isi.put(STOK);
+        tulisTeks(isi, k);
+        isi.putInt(stok);
+        return isi.array();
+    }
+    static int ukuranBingkai(byte[] isi) {
+        return UKURAN_KEPALA_BINGKAI + isi.length;
+    }
+    static void tulisBingkai(ByteBuffer tujuan, byte[] isi) {
+        CRC32C crc = new CRC32C();
+        crc.update(isi);
+        tujuan.putInt(isi.length);
+        tujuan.putInt((int) crc.getValue());
+        tujuan.put(isi);
+    }
+    // Baca satu bingkai dari posisi buffer saat ini. Mengembalikan null tanpa memajukan posisi
+    // jika bingkai terpotong atau checksum tidak cocok (ekor jurnal yang robek saat crash)
+    static RekamanJurnal bacaBingkai(ByteBuffer sumber) {
+        int awal = sumber.position();
+        if (sumber.remaining() < UKURAN_KEPALA_BINGKAI) {
+            return null;
+        }
+        int panjang = sumber.getInt();
+        int checksum = sumber.getInt();
+        if (panjang <= 0 || panjang > sumber.remaining()) {
+            sumber.position(awal);
+            return null;
+        }
+        byte[] isi = new byte[panjang];
+        sumber.get(isi);
+        CRC32C crc = new CRC32C();
+        crc.update(isi);
+        if ((int) crc.getValue() != checksum) {
+            sumber.position(awal);
+            return null;
+        }
+        return dekode(ByteBuffer.wrap(isi));
+    }
+    private static RekamanJurnal dekode(ByteBuffer isi) {
+        byte tipe = isi.get();
+        String kode = bacaTeks(isi);
+        switch (tipe) {
+            case SIMPAN:
+                Produk produk = new Produk(kode, bacaTeks(isi), bacaTeks(isi), isi.getDouble(), isi.getInt(), isi.getInt());
+                produk.setAktif(isi.get() != 0);
+                return new RekamanJurnal(tipe, kode, produk, produk.getStok());
+            case HAPUS:
+                return new RekamanJurnal(tipe, kode, null, 0);
+            case STOK:
+                return new RekamanJurnal(tipe, kode, null, isi.getInt());
+            default:
+                throw new IllegalStateException("Tipe rekaman jurnal tidak dikenal: " + tipe);
+        }
+    }
+    // Terapkan rekaman ke repository tanpa mencatatnya lagi
+    void terapkan(RepositoryProduk repository) {
+        switch (tipe) {
+            case SIMPAN -> repository.simpan(produk);
+            case HAPUS -> repository.hapus(kode);
+            default -> repository.updateStok(kode, stok);
+        }
+    }
+    private static byte[] utf8(String teks) {
+        if (teks == null) {
+            return null;
+        }
+        byte[] hasil = teks.getBytes(StandardCharsets.UTF_8);
+        if (hasil.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Teks terlalu panjang untuk jurnal");
+        }
+        return hasil;
+    }
+    private static int panjangTeks(byte[] teks) {
+        return 2 + (teks == null ? 0 : teks.length);
+    }
+    private static void tulisTeks(ByteBuffer tujuan, byte[] teks) {
+        if (teks == null) {
+            tujuan.putShort((short) -1);
+            return;
+        }
+        tujuan.putShort((short) teks.length);
+        tujuan.put(teks);
+    }
+    private static String bacaTeks(ByteBuffer sumber) {
+        short panjang = sumber.getShort();
+        if (panjang < 0) {
+            return null;
+        }
+        byte[] teks = new byte[panjang];
+        sumber.get(teks);
+        return new String(teks, StandardCharsets.UTF_8);
+    }
+}
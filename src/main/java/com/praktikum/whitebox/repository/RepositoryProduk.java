@@ -1,16 +1,85 @@
 package com.praktikum.whitebox.repository;
 
 import com.praktikum.whitebox.model.Produk;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 public interface RepositoryProduk {
+    // Nilai kembali operasi stok atomik jika kode tidak ditemukan
+    int PRODUK_TIDAK_ADA = Integer.MIN_VALUE;
     boolean simpan(Produk produk);
+    // Simpan banyak produk sebagai satu batch; mengembalikan jumlah yang berhasil disimpan.
+    // Repository dengan biaya tetap per penulisan (fsync, jaringan) sebaiknya menimpanya
+    default int simpanBanyak(List<Produk> daftar) {
+        int tersimpan = 0;
+        for (Produk produk : daftar) {
+            if (simpan(produk)) {
+                tersimpan++;
+            }
+        }
+        return tersimpan;
+    }
     Optional<Produk> cariByKode(String kode);
+    // Nama yang memuat nama sebagai substring, tanpa membedakan huruf besar/kecil
     List<Produk> cariByNama(String nama);
     List<Produk> cariByKategori(String kategori);
     List<Produk> cariProdukStokMenipis();
     List<Produk> cariProdukStokHabis();
     boolean hapus(String kode);
     boolean updateStok(String kode, int stokBaru);
+    // Kurangi stok hanya jika stok >= jumlah. Mengembalikan stok baru jika berhasil,
+    // -(stokSaatIni) - 1 jika stok tidak mencukupi, atau PRODUK_TIDAK_ADA
+    int kurangiStokJikaCukup(String kode, int jumlah);
+    // Tambah stok secara atomik. Mengembalikan stok baru, -(stokSaatIni) - 1 jika
+    // hasilnya melampaui Integer.MAX_VALUE, atau PRODUK_TIDAK_ADA
+    int tambahStok(String kode, int jumlah);
     List<Produk> cariSemua();
-}
\ No newline at end of file
+    // Alirkan seluruh katalog tanpa mematerialisasi daftar; implementasi sebaiknya memberikan
+    // spliterator yang bisa dipecah agar aliran bisa diproses paralel. Tutup aliran setelah dipakai
+    default Stream<Produk> alirSemua() {
+        return cariSemua().stream();
+    }
+    // Total inventaris yang dipelihara secara inkremental; kosong jika repository tidak mendukung
+    default Optional<AgregatInventaris> agregatInventaris() {
+        return Optional.empty();
+    }
+    // Registri kategori dengan rollup stok dan nilai per kategori; kosong jika tidak didukung
+    default Optional<RegistriKategori> registriKategori() {
+        return Optional.empty();
+    }
+    // Pencarian nama menurut mode, paling relevan lebih dulu dan paling banyak batas hasil.
+    // Bawaan memindai katalog; repository dengan indeks nama sebaiknya menimpanya
+    default List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        try (Stream<Produk> semua = alirSemua()) {
+            return IndeksNamaProduk.saringDanUrutkan(semua, nama, mode, batas);
+        }
+    }
+    // Ambil banyak produk sekaligus; kode yang tidak ditemukan tidak muncul di hasil
+    default Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        Map<String, Produk> hasil = new HashMap<>();
+        for (String k : kode) {
+            cariByKode(k).ifPresent(p -> hasil.put(k, p));
+        }
+        return hasil;
+    }
+    // Terapkan selisih stok bersih per kode, masing-masing atomik dan semua-atau-tidak sama sekali
+    // untuk kode tersebut. Nilai hasil per kode mengikuti konvensi kurangiStokJikaCukup
+    default Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = new HashMap<>();
+        deltaPerKode.forEach((kode, delta) -> {
+            int stok;
+            if (delta > 0) {
+                stok = tambahStok(kode, delta);
+            } else if (delta < 0) {
+                stok = kurangiStokJikaCukup(kode, -delta);
+            } else {
+                stok = cariByKode(kode).map(Produk::getStok).orElse(PRODUK_TIDAK_ADA);
+            }
+            hasil.put(kode, stok);
+        });
+        return hasil;
+    }
+}
@@ -0,0 +1,287 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+// Dekorator cache baca untuk cariByKode/cariByKodeBanyak. Tiap segmen adalah LRU berurutan akses
+// dengan batas ukuran; saat penuh, kandidat baru hanya diterima jika frekuensinya di sketsa TinyLFU
+// lebih tinggi dari korban LRU, sehingga pemindaian sekali lewat tidak mengusir produk yang sering
+// dibaca. Kode yang tidak ada ikut di-cache (negatif) dengan TTL tersendiri. Setiap penulisan
+// meneruskan ke delegate lalu membuang kunci terkait; nomor generasi per segmen mencegah hasil baca
+// yang sudah usang masuk ke cache setelah dibuang
+public class RepositoryProdukCache implements RepositoryProduk {
+    private final RepositoryProduk delegate;
+    private final Segmen[] segmen;
+    private final SketsaFrekuensi sketsa;
+    private final long ttlNanos;
+    private final long ttlNegatifNanos;
+    private final LongSupplier jam;
+    private final LongAdder hit = new LongAdder();
+    private final LongAdder miss = new LongAdder();
+    private final LongAdder eviksi = new LongAdder();
+    private final LongAdder ditolak = new LongAdder();
+    private final LongAdder kedaluwarsa = new LongAdder();
+    public record Statistik(long hit, long miss, long eviksi, long ditolak, long kedaluwarsa) {
+        public double rasioHit() {
+            long total = hit + miss;
+            return total == 0 ? 0 : (double) hit / total;
+        }
+    }
+    // Produk null berarti cache negatif: kode diketahui tidak ada
+    private record Entri(Produk produk, long kedaluwarsaPada) {}
+    private static final class Segmen {
+        final LinkedHashMap<String, Entri> peta = new LinkedHashMap<>(16, 0.75f, true);
+        final int kapasitas;
+        long generasi;
+        Segmen(int kapasitas) {
+            this.kapasitas = kapasitas;
+        }
+    }
+    public RepositoryProdukCache(RepositoryProduk delegate, int kapasitas, Duration ttl) {
+        this(delegate, kapasitas, ttl, ttl, System::nanoTime);
+    }
+    public RepositoryProdukCache(RepositoryProduk delegate, int kapasitas, Duration ttl, Duration ttlNegatif,
+                                 LongSupplier jamNanos) {
+        if (kapasitas <= 0 || ttl.isNegative() || ttl.isZero() || ttlNegatif.isNegative()) {
+            throw new IllegalArgumentException("Kapasitas dan TTL cache harus positif");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.ttlNegatifNanos = ttlNegatif.toNanos();
+        this.jam = jamNanos;
+        this.sketsa = new SketsaFrekuensi(kapasitas);
+        // Segmen mengurangi kontensi lock; cache kecil cukup satu segmen agar LRU-nya tepat
+        int jumlahSegmen = Math.max(1, Math.min(16, Integer.highestOneBit(kapasitas / 64)));
+        this.segmen = new Segmen[jumlahSegmen];
+        for (int i = 0; i < jumlahSegmen; i++) {
+            segmen[i] = new Segmen(Math.max(1, kapasitas / jumlahSegmen));
+        }
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return delegate.cariByKode(null);
+        }
+        Segmen s = segmenUntuk(kode);
+        long generasi;
+        synchronized (s) {
+            sketsa.catat(kode);
+            Entri entri = ambilMasihBerlaku(s, kode);
+            if (entri != null) {
+                hit.increment();
+                return entri.produk() == null ? Optional.empty() : Optional.of(new Produk(entri.produk()));
+            }
+            generasi = s.generasi;
+        }
+        miss.increment();
+        Optional<Produk> hasil = delegate.cariByKode(kode);
+        masukkan(s, kode, hasil.orElse(null), generasi);
+        return hasil;
+    }
+    @Override
+    public Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        Map<String, Produk> hasil = new HashMap<>(kode.size() * 2);
+        List<String> belumAda = new ArrayList<>();
+        Map<String, Long> generasiAwal = new HashMap<>();
+        for (String k : kode) {
+            if (k == null) {
+                continue;
+            }
+            Segmen s = segmenUntuk(k);
+            synchronized (s) {
+                sketsa.catat(k);
+                Entri entri = ambilMasihBerlaku(s, k);
+                if (entri != null) {
+                    hit.increment();
+                    if (entri.produk() != null) {
+                        hasil.put(k, new Produk(entri.produk()));
+                    }
+                    continue;
+                }
+                generasiAwal.put(k, s.generasi);
+            }
+            miss.increment();
+            belumAda.add(k);
+        }
+        if (!belumAda.isEmpty()) {
+            Map<String, Produk> dariDelegate = delegate.cariByKodeBanyak(belumAda);
+            for (String k : belumAda) {
+                Produk produk = dariDelegate.get(k);
+                masukkan(segmenUntuk(k), k, produk, generasiAwal.get(k));
+                if (produk != null) {
+                    hasil.put(k, produk);
+                }
+            }
+        }
+        return hasil;
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        boolean berhasil = delegate.simpan(produk);
+        if (produk != null && produk.getKode() != null) {
+            buang(produk.getKode());
+        }
+        return berhasil;
+    }
+    @Override
+    public int simpanBanyak(List<Produk> daftar) {
+        int tersimpan = delegate.simpanBanyak(daftar);
+        for (Produk produk : daftar) {
+            if (produk != null) {
+                buang(produk.getKode());
+            }
+        }
+        return tersimpan;
+    }
+    @Override
+    public boolean hapus(String kode) {
+        boolean berhasil = delegate.hapus(kode);
+        buang(kode);
+        return berhasil;
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        boolean berhasil = delegate.updateStok(kode, stokBaru);
+        buang(kode);
+        return berhasil;
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        int hasil = delegate.kurangiStokJikaCukup(kode, jumlah);
+        if (hasil >= 0) {
+            buang(kode);
+        }
+        return hasil;
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        int hasil = delegate.tambahStok(kode, jumlah);
+        if (hasil >= 0) {
+            buang(kode);
+        }
+        return hasil;
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = delegate.terapkanDeltaStok(deltaPerKode);
+        deltaPerKode.keySet().forEach(this::buang);
+        return hasil;
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        return delegate.cariByNama(nama);
+    }
+    @Override
+    public List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        return delegate.cariByNama(nama, mode, batas);
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        return delegate.cariByKategori(kategori);
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return delegate.cariProdukStokMenipis();
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return delegate.cariProdukStokHabis();
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return delegate.cariSemua();
+    }
+    @Override
+    public Stream<Produk> alirSemua() {
+        return delegate.alirSemua();
+    }
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return delegate.agregatInventaris();
+    }
+    @Override
+    public Optional<RegistriKategori> registriKategori() {
+        return delegate.registriKategori();
+    }
+    public Statistik statistik() {
+        return new Statistik(hit.sum(), miss.sum(), eviksi.sum(), ditolak.sum(), kedaluwarsa.sum());
+    }
+    public int jumlahEntri() {
+        int total = 0;
+        for (Segmen s : segmen) {
+            synchronized (s) {
+                total += s.peta.size();
+            }
+        }
+        return total;
+    }
+    public void kosongkan() {
+        for (Segmen s : segmen) {
+            synchronized (s) {
+                s.peta.clear();
+                s.generasi++;
+            }
+        }
+    }
+    private void buang(String kode) {
+        if (kode == null) {
+            return;
+        }
+        Segmen s = segmenUntuk(kode);
+        synchronized (s) {
+            s.peta.remove(kode);
+            s.generasi++;
+        }
+    }
+    // Dipanggil dengan lock segmen dipegang
+    private Entri ambilMasihBerlaku(Segmen s, String kode) {
+        Entri entri = s.peta.get(kode);
+        if (entri == null) {
+            return null;
+        }
+        if (jam.getAsLong() - entri.kedaluwarsaPada() < 0) {
+            return entri;
+        }
+        s.peta.remove(kode);
+        kedaluwarsa.increment();
+        return null;
+    }
+    private void masukkan(Segmen s, String kode, Produk produk, long generasi) {
+        if (produk == null && ttlNegatifNanos == 0) {
+            return;
+        }
+        long sekarang = jam.getAsLong();
+        synchronized (s) {
+            if (s.generasi != generasi) {
+                return;
+            }
+            if (!s.peta.containsKey(kode) && s.peta.size() >= s.kapasitas) {
+                Iterator<Map.Entry<String, Entri>> tertua = s.peta.entrySet().iterator();
+                Map.Entry<String, Entri> korban = tertua.next();
+                boolean korbanKedaluwarsa = sekarang - korban.getValue().kedaluwarsaPada() >= 0;
+                if (!korbanKedaluwarsa && sketsa.frekuensi(kode) <= sketsa.frekuensi(korban.getKey())) {
+                    ditolak.increment();
+                    return;
+                }
+                tertua.remove();
+                (korbanKedaluwarsa ? kedaluwarsa : eviksi).increment();
+            }
+            Produk salinan = produk == null ? null : new Produk(produk);
+            s.peta.put(kode, new Entri(salinan, sekarang + (produk == null ? ttlNegatifNanos : ttlNanos)));
+        }
+    }
+    private Segmen segmenUntuk(String kode) {
+        int h = kode.hashCode();
+        return segmen[(h ^ (h >>> 16)) & (segmen.length - 1)];
+    }
+}
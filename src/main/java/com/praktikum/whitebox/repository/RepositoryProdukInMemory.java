@@ -0,0 +1,338 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+public class RepositoryProdukInMemory implements RepositoryProduk {
+    private final ConcurrentHashMap<String, Entri> produkByKode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> indeksKategori = new ConcurrentHashMap<>();
+    private final IndeksNamaProduk indeksNama = new IndeksNamaProduk();
+    private final Set<String> stokHabis = ConcurrentHashMap.newKeySet();
+    private final Set<String> stokMenipis = ConcurrentHashMap.newKeySet();
+    private final Set<String> stokAman = ConcurrentHashMap.newKeySet();
+    private final PelacakAgregatInventaris agregat = new PelacakAgregatInventaris();
+    private final RegistriKategori registriKategori;
+    // Nilai sel stok entri yang sudah dihapus. CAS yang membaca entri sebelum hapus lalu mencoba
+    // menulis setelahnya pasti gagal dan melihat nilai ini, sehingga stok entri mati tidak pernah
+    // berubah lagi dan agregat tidak bergeser. Stok negatif ditolak agar entri hidup tidak pernah
+    // memegang nilai ini
+    private static final int STOK_DIHAPUS = Integer.MIN_VALUE;
+    // Atribut selain stok disimpan sebagai salinan yang tidak pernah diubah dan diganti utuh
+    // oleh simpan; stok disimpan di sel atomik terpisah agar bisa diubah dengan CAS tanpa lock
+    private static final class Entri {
+        final String kode;
+        final AtomicInteger stok;
+        volatile Produk data;
+        volatile int idKategori;
+        // Ember stok tempat kode ini tercatat, hanya diubah di dalam synchronized (this)
+        volatile Set<String> ember;
+        boolean dihapus;
+        Entri(Produk data, int idKategori) {
+            this.kode = data.getKode();
+            this.stok = new AtomicInteger(data.getStok());
+            this.data = data;
+            this.idKategori = idKategori;
+        }
+        // null jika entri sudah dihapus di antara pengambilan dari map dan pembacaan ini
+        Produk keProduk() {
+            int s = stok.get();
+            if (s == STOK_DIHAPUS) {
+                return null;
+            }
+            Produk produk = new Produk(data);
+            produk.setStok(s);
+            return produk;
+        }
+    }
+    public RepositoryProdukInMemory() {
+        this(new RegistriKategori());
+    }
+    // Registri boleh dipakai bersama beberapa repository (misalnya shard) agar rollup mencakup semuanya
+    public RepositoryProdukInMemory(RegistriKategori registriKategori) {
+        this.registriKategori = registriKategori;
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null || produk.getStok() < 0) {
+            return false;
+        }
+        Produk salinan = new Produk(produk);
+        produkByKode.compute(salinan.getKode(), (kode, lama) -> {
+            if (lama == null) {
+                Entri baru = new Entri(salinan, registriKategori.intern(salinan.getKategori()));
+                catatStok(salinan, baru.idKategori, salinan.getStok());
+                tambahKeIndeks(salinan);
+                sinkronkanEmber(baru);
+                return baru;
+            }
+            // Entri lama dipakai ulang agar operasi CAS yang sedang berjalan tidak hilang
+            hapusDariIndeks(lama.data);
+            catatStok(lama.data, lama.idKategori, -lama.stok.getAndSet(salinan.getStok()));
+            lama.idKategori = registriKategori.intern(salinan.getKategori());
+            lama.data = salinan;
+            catatStok(salinan, lama.idKategori, salinan.getStok());
+            tambahKeIndeks(salinan);
+            sinkronkanEmber(lama);
+            return lama;
+        });
+        return true;
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return Optional.empty();
+        }
+        Entri entri = produkByKode.get(kode);
+        return entri == null ? Optional.empty() : Optional.ofNullable(entri.keProduk());
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        return cariByNama(nama, IndeksNamaProduk.Mode.SUBSTRING, Integer.MAX_VALUE);
+    }
+    @Override
+    public List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        List<String> kodeCocok = indeksNama.cari(nama, mode, batas);
+        List<Produk> hasil = new ArrayList<>(kodeCocok.size());
+        for (String kode : kodeCocok) {
+            Entri entri = produkByKode.get(kode);
+            Produk produk = entri == null ? null : entri.keProduk();
+            if (produk != null && IndeksNamaProduk.cocok(produk.getNama(), nama, mode)) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        if (kategori == null) {
+            return Collections.emptyList();
+        }
+        String kunci = normalisasi(kategori);
+        return ambil(indeksKategori.get(kunci),
+                p -> p.getKategori() != null && normalisasi(p.getKategori()).equals(kunci));
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return ambil(stokMenipis, Produk::isStokMenipis);
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return ambil(stokHabis, Produk::isStokHabis);
+    }
+    public List<Produk> cariProdukStokAman() {
+        return ambil(stokAman, Produk::isStokAman);
+    }
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        boolean[] terhapus = new boolean[1];
+        produkByKode.computeIfPresent(kode, (k, lama) -> {
+            hapusDariIndeks(lama.data);
+            catatStok(lama.data, lama.idKategori, -lama.stok.getAndSet(STOK_DIHAPUS));
+            synchronized (lama) {
+                lama.dihapus = true;
+                if (lama.ember != null) {
+                    lama.ember.remove(k);
+                    lama.ember = null;
+                }
+            }
+            terhapus[0] = true;
+            return null;
+        });
+        return terhapus[0];
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        Entri entri = kode == null || stokBaru < 0 ? null : produkByKode.get(kode);
+        if (entri == null) {
+            return false;
+        }
+        while (true) {
+            int stok = entri.stok.get();
+            if (stok == STOK_DIHAPUS) {
+                return false;
+            }
+            if (entri.stok.compareAndSet(stok, stokBaru)) {
+                catatStok(entri.data, entri.idKategori, stokBaru - stok);
+                sinkronkanEmber(entri);
+                return true;
+            }
+        }
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode == null ? null : produkByKode.get(kode), -jumlah);
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode == null ? null : produkByKode.get(kode), jumlah);
+    }
+    @Override
+    public Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        Map<String, Produk> hasil = new HashMap<>(kode.size() * 2);
+        for (String k : kode) {
+            Entri entri = k == null ? null : produkByKode.get(k);
+            Produk produk = entri == null ? null : entri.keProduk();
+            if (produk != null) {
+                hasil.put(k, produk);
+            }
+        }
+        return hasil;
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = new HashMap<>(deltaPerKode.size() * 2);
+        deltaPerKode.forEach((kode, delta) ->
+                hasil.put(kode, terapkanDelta(kode == null ? null : produkByKode.get(kode), delta)));
+        return hasil;
+    }
+    // CAS dengan selisih bertanda; gagal tanpa mengubah apa pun jika stok akan negatif atau overflow
+    private int terapkanDelta(Entri entri, int delta) {
+        if (entri == null) {
+            return PRODUK_TIDAK_ADA;
+        }
+        while (true) {
+            int stok = entri.stok.get();
+            if (stok == STOK_DIHAPUS) {
+                return PRODUK_TIDAK_ADA;
+            }
+            long stokBaru = (long) stok + delta;
+            if (stokBaru < 0 || stokBaru > Integer.MAX_VALUE) {
+                return -Math.max(stok, 0) - 1;
+            }
+            if (delta == 0 || entri.stok.compareAndSet(stok, (int) stokBaru)) {
+                catatStok(entri.data, entri.idKategori, delta);
+                sinkronkanEmber(entri);
+                return (int) stokBaru;
+            }
+        }
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return ambil(produkByKode.keySet(), p -> true);
+    }
+    // Spliterator ConcurrentHashMap bersifat weakly consistent dan bisa dipecah untuk paralel;
+    // tiap produk disalin saat dikonsumsi sehingga memori tetap datar
+    @Override
+    public Stream<Produk> alirSemua() {
+        return produkByKode.values().stream().map(Entri::keProduk).filter(Objects::nonNull);
+    }
+    // Perubahan harga/aktif lewat simpan yang berpacu dengan operasi stok pada kode yang sama
+    // dapat membuat total berjalan bergeser; rekonsiliasi menghitung ulang dan mengoreksinya
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return Optional.of(agregat);
+    }
+    @Override
+    public Optional<RegistriKategori> registriKategori() {
+        return Optional.of(registriKategori);
+    }
+    public PelacakAgregatInventaris.Selisih rekonsiliasiAgregat() {
+        try (Stream<Produk> semua = alirSemua()) {
+            return agregat.rekonsiliasi(semua::iterator);
+        }
+    }
+    public int jumlahProduk() {
+        return produkByKode.size();
+    }
+    // Jalur cepat tanpa lock jika ember tidak berubah. Di dalam lock, stok dibaca ulang
+    // setelah ember ditulis sehingga CAS lain yang melewatkan sinkronisasi tetap tertangkap
+    private void sinkronkanEmber(Entri entri) {
+        if (emberStok(entri.stok.get(), entri.data.getStokMinimum()) == entri.ember) {
+            return;
+        }
+        synchronized (entri) {
+            Set<String> tujuan;
+            while (!entri.dihapus
+                    && (tujuan = emberStok(entri.stok.get(), entri.data.getStokMinimum())) != entri.ember) {
+                if (entri.ember != null) {
+                    entri.ember.remove(entri.kode);
+                }
+                if (tujuan != null) {
+                    tujuan.add(entri.kode);
+                }
+                entri.ember = tujuan;
+            }
+        }
+    }
+    private void catatStok(Produk data, int idKategori, int deltaStok) {
+        agregat.catatPerubahanStok(data, deltaStok);
+        registriKategori.catatPerubahanStok(idKategori, data, deltaStok);
+    }
+    private void tambahKeIndeks(Produk produk) {
+        String kode = produk.getKode();
+        if (produk.getKategori() != null) {
+            tambahPosting(indeksKategori, normalisasi(produk.getKategori()), kode);
+        }
+        indeksNama.tambah(kode, produk.getNama());
+    }
+    private void hapusDariIndeks(Produk produk) {
+        String kode = produk.getKode();
+        if (produk.getKategori() != null) {
+            hapusPosting(indeksKategori, normalisasi(produk.getKategori()), kode);
+        }
+        indeksNama.hapus(kode);
+    }
+    private Set<String> emberStok(int stok, int stokMinimum) {
+        if (stok == 0) {
+            return stokHabis;
+        } else if (stok > 0 && stok <= stokMinimum) {
+            return stokMenipis;
+        } else if (stok > stokMinimum) {
+            return stokAman;
+        }
+        return null;
+    }
+    // Hasil indeks selalu diverifikasi ulang terhadap entri terkini karena indeks
+    // bisa sesaat tertinggal dari map utama saat ada penulisan bersamaan
+    private List<Produk> ambil(Set<String> kodeSet, Predicate<Produk> cocok) {
+        if (kodeSet == null) {
+            return Collections.emptyList();
+        }
+        List<Produk> hasil = new ArrayList<>();
+        for (String kode : kodeSet) {
+            Entri entri = produkByKode.get(kode);
+            Produk produk = entri == null ? null : entri.keProduk();
+            if (produk != null && cocok.test(produk)) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+    private static void tambahPosting(ConcurrentHashMap<String, Set<String>> indeks, String kunci, String kode) {
+        indeks.compute(kunci, (k, posting) -> {
+            Set<String> set = posting == null ? ConcurrentHashMap.newKeySet() : posting;
+            set.add(kode);
+            return set;
+        });
+    }
+    private static void hapusPosting(ConcurrentHashMap<String, Set<String>> indeks, String kunci, String kode) {
+        indeks.computeIfPresent(kunci, (k, posting) -> {
+            posting.remove(kode);
+            return posting.isEmpty() ? null : posting;
+        });
+    }
+    private static String normalisasi(String teks) {
+        return teks.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,395 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+// Penyimpanan kolom: setiap atribut produk berada di array primitif sendiri sehingga scan
+// total dan stok hanya menyentuh memori yang berurutan. Slot tetap padat; hapus memindahkan
+// slot terakhir ke lubang. Perubahan struktur memakai write lock, sedangkan baca dan operasi
+// stok memakai read lock dengan CAS per elemen array
+public class RepositoryProdukKolom implements RepositoryProduk {
+    private static final VarHandle STOK = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int UKURAN_HALAMAN = 1024;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotByKode = new HashMap<>();
+    // Kamus kategori: setiap string kategori unik disimpan sekali dan direferensikan lewat id
+    private final List<String> kategoriById = new ArrayList<>();
+    private final Map<String, Integer> idByKategori = new HashMap<>();
+    private String[] kode;
+    private String[] nama;
+    private int[] kategoriId;
+    private double[] harga;
+    private int[] stok;
+    private int[] stokMinimum;
+    // Bitset status aktif, satu bit per slot
+    private long[] bitAktif;
+    private int jumlah;
+    private final AgregatInventaris agregat = new AgregatInventaris() {
+        @Override
+        public double totalNilai() {
+            return hitungTotalNilaiAktif();
+        }
+        @Override
+        public long totalStok() {
+            return hitungTotalStokAktif();
+        }
+    };
+    public RepositoryProdukKolom() {
+        this(1024);
+    }
+    public RepositoryProdukKolom(int kapasitasAwal) {
+        int kapasitas = Math.max(kapasitasAwal, 64);
+        kode = new String[kapasitas];
+        nama = new String[kapasitas];
+        kategoriId = new int[kapasitas];
+        harga = new double[kapasitas];
+        stok = new int[kapasitas];
+        stokMinimum = new int[kapasitas];
+        bitAktif = new long[(kapasitas + 63) >>> 6];
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slotLama = slotByKode.get(produk.getKode());
+            int slot;
+            if (slotLama != null) {
+                slot = slotLama;
+            } else {
+                if (jumlah == kode.length) {
+                    perbesar();
+                }
+                slot = jumlah++;
+                slotByKode.put(produk.getKode(), slot);
+            }
+            kode[slot] = produk.getKode();
+            nama[slot] = produk.getNama();
+            kategoriId[slot] = idKategori(produk.getKategori());
+            harga[slot] = produk.getHarga();
+            stok[slot] = produk.getStok();
+            stokMinimum[slot] = produk.getStokMinimum();
+            aturAktif(slot, produk.isAktif());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        lock.readLock().lock();
+        try {
+            Integer slot = kode == null ? null : slotByKode.get(kode);
+            return slot == null ? Optional.empty() : Optional.of(bacaSlot(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        if (nama == null) {
+            return Collections.emptyList();
+        }
+        return cariSlot(i -> mengandung(this.nama[i], nama));
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        if (kategori == null) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            // Cocokkan kamus yang kecil dulu, lalu scan kolom id kategori saja
+            boolean[] cocok = new boolean[kategoriById.size()];
+            boolean adaCocok = false;
+            for (int id = 0; id < cocok.length; id++) {
+                String k = kategoriById.get(id);
+                cocok[id] = k != null && k.equalsIgnoreCase(kategori);
+                adaCocok |= cocok[id];
+            }
+            if (!adaCocok) {
+                return Collections.emptyList();
+            }
+            return cariSlotTerkunci(i -> cocok[kategoriId[i]]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return cariSlot(i -> {
+            int s = (int) STOK.getOpaque(stok, i);
+            return s > 0 && s <= stokMinimum[i];
+        });
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return cariSlot(i -> (int) STOK.getOpaque(stok, i) == 0);
+    }
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByKode.remove(kode);
+            if (slot == null) {
+                return false;
+            }
+            int terakhir = --jumlah;
+            if (slot != terakhir) {
+                this.kode[slot] = this.kode[terakhir];
+                nama[slot] = nama[terakhir];
+                kategoriId[slot] = kategoriId[terakhir];
+                harga[slot] = harga[terakhir];
+                stok[slot] = stok[terakhir];
+                stokMinimum[slot] = stokMinimum[terakhir];
+                aturAktif(slot, isAktif(terakhir));
+                slotByKode.put(this.kode[slot], slot);
+            }
+            this.kode[terakhir] = null;
+            nama[terakhir] = null;
+            aturAktif(terakhir, false);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        lock.readLock().lock();
+        try {
+            Integer slot = kode == null ? null : slotByKode.get(kode);
+            if (slot == null) {
+                return false;
+            }
+            STOK.setVolatile(stok, (int) slot, stokBaru);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode, -jumlah);
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode, jumlah);
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = new HashMap<>(deltaPerKode.size() * 2);
+        deltaPerKode.forEach((kode, delta) -> hasil.put(kode, terapkanDelta(kode, delta)));
+        return hasil;
+    }
+    private int terapkanDelta(String kode, int delta) {
+        lock.readLock().lock();
+        try {
+            Integer slot = kode == null ? null : slotByKode.get(kode);
+            if (slot == null) {
+                return PRODUK_TIDAK_ADA;
+            }
+            while (true) {
+                int sekarang = (int) STOK.getVolatile(stok, (int) slot);
+                long baru = (long) sekarang + delta;
+                if (baru < 0 || baru > Integer.MAX_VALUE) {
+                    return -Math.max(sekarang, 0) - 1;
+                }
+                if (delta == 0 || STOK.compareAndSet(stok, (int) slot, sekarang, (int) baru)) {
+                    return (int) baru;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return cariSlot(i -> true);
+    }
+    // Dialirkan per halaman: setiap halaman disalin di bawah read lock, jadi aliran bersifat
+    // weakly consistent terhadap hapus yang memindahkan slot di tengah iterasi
+    @Override
+    public Stream<Produk> alirSemua() {
+        int jumlahHalaman = (jumlahProduk() + UKURAN_HALAMAN - 1) / UKURAN_HALAMAN;
+        return IntStream.range(0, jumlahHalaman)
+                .mapToObj(h -> bacaHalaman(h * UKURAN_HALAMAN))
+                .flatMap(List::stream);
+    }
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return Optional.of(agregat);
+    }
+    public int jumlahProduk() {
+        lock.readLock().lock();
+        try {
+            return jumlah;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    public int jumlahKategori() {
+        lock.readLock().lock();
+        try {
+            return kategoriById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    // Scan per kata bitset: kata yang semua bitnya aktif diproses dengan loop rapat tanpa
+    // cabang yang bisa divektorkan JIT; kata campuran hanya mengunjungi bit yang menyala
+    public long hitungTotalStokAktif() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int w = 0, awal = 0; awal < jumlah; w++, awal += 64) {
+                long kata = bitAktif[w];
+                int akhir = Math.min(awal + 64, jumlah);
+                if (kata == -1L && akhir - awal == 64) {
+                    for (int i = awal; i < akhir; i++) {
+                        total += stok[i];
+                    }
+                } else {
+                    while (kata != 0) {
+                        int i = awal + Long.numberOfTrailingZeros(kata);
+                        if (i < akhir) {
+                            total += stok[i];
+                        }
+                        kata &= kata - 1;
+                    }
+                }
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    public double hitungTotalNilaiAktif() {
+        lock.readLock().lock();
+        try {
+            // Empat akumulator independen agar penjumlahan floating point tidak berantai
+            double n0 = 0, n1 = 0, n2 = 0, n3 = 0;
+            for (int w = 0, awal = 0; awal < jumlah; w++, awal += 64) {
+                long kata = bitAktif[w];
+                int akhir = Math.min(awal + 64, jumlah);
+                if (kata == -1L && akhir - awal == 64) {
+                    for (int i = awal; i < akhir; i += 4) {
+                        n0 += harga[i] * stok[i];
+                        n1 += harga[i + 1] * stok[i + 1];
+                        n2 += harga[i + 2] * stok[i + 2];
+                        n3 += harga[i + 3] * stok[i + 3];
+                    }
+                } else {
+                    while (kata != 0) {
+                        int i = awal + Long.numberOfTrailingZeros(kata);
+                        if (i < akhir) {
+                            n0 += harga[i] * stok[i];
+                        }
+                        kata &= kata - 1;
+                    }
+                }
+            }
+            return (n0 + n1) + (n2 + n3);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private List<Produk> cariSlot(IntPredicate cocok) {
+        lock.readLock().lock();
+        try {
+            return cariSlotTerkunci(cocok);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private List<Produk> cariSlotTerkunci(IntPredicate cocok) {
+        List<Produk> hasil = new ArrayList<>();
+        for (int i = 0; i < jumlah; i++) {
+            if (cocok.test(i)) {
+                hasil.add(bacaSlot(i));
+            }
+        }
+        return hasil;
+    }
+    private List<Produk> bacaHalaman(int awal) {
+        lock.readLock().lock();
+        try {
+            int akhir = Math.min(awal + UKURAN_HALAMAN, jumlah);
+            List<Produk> halaman = new ArrayList<>(Math.max(akhir - awal, 0));
+            for (int i = awal; i < akhir; i++) {
+                halaman.add(bacaSlot(i));
+            }
+            return halaman;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private Produk bacaSlot(int slot) {
+        Produk produk = new Produk(kode[slot], nama[slot], kategoriById.get(kategoriId[slot]),
+                harga[slot], (int) STOK.getVolatile(stok, slot), stokMinimum[slot]);
+        produk.setAktif(isAktif(slot));
+        return produk;
+    }
+    // Pencocokan substring tanpa membedakan kapital dan tanpa membuat salinan huruf kecil
+    private static boolean mengandung(String teks, String kunci) {
+        if (teks == null) {
+            return false;
+        }
+        for (int i = 0; i + kunci.length() <= teks.length(); i++) {
+            if (teks.regionMatches(true, i, kunci, 0, kunci.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    private int idKategori(String kategori) {
+        Integer id = idByKategori.get(kategori);
+        if (id == null) {
+            id = kategoriById.size();
+            kategoriById.add(kategori);
+            idByKategori.put(kategori, id);
+        }
+        return id;
+    }
+    private boolean isAktif(int slot) {
+        return (bitAktif[slot >>> 6] & (1L << slot)) != 0;
+    }
+    private void aturAktif(int slot, boolean aktif) {
+        if (aktif) {
+            bitAktif[slot >>> 6] |= 1L << slot;
+        } else {
+            bitAktif[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+    private void perbesar() {
+        int kapasitas = kode.length * 2;
+        kode = Arrays.copyOf(kode, kapasitas);
+        nama = Arrays.copyOf(nama, kapasitas);
+        kategoriId = Arrays.copyOf(kategoriId, kapasitas);
+        harga = Arrays.copyOf(harga, kapasitas);
+        stok = Arrays.copyOf(stok, kapasitas);
+        stokMinimum = Arrays.copyOf(stokMinimum, kapasitas);
+        bitAktif = Arrays.copyOf(bitAktif, (kapasitas + 63) >>> 6);
+    }
+}
@@ -0,0 +1,525 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+// Katalog berbasis berkas yang dipetakan ke memori (FileChannel.map). Layout berkas:
+// [header 64 byte][indeks hash kode->slot, int per entri][rekaman produk lebar tetap 512 byte].
+// Indeks dan rekaman berada di luar heap sehingga footprint heap tidak tumbuh dengan ukuran
+// katalog, dan membuka ulang berkas hanya memetakan ulang tanpa memuat data. Stok diubah di
+// tempat dengan CAS pada buffer yang dipetakan
+public class RepositoryProdukMmap implements RepositoryProduk, AutoCloseable {
+    private static final int MAGIC = 0x4B415441;
+    private static final int VERSI = 1;
+    private static final int UKURAN_HEADER = 64;
+    private static final int UKURAN_REKAMAN = 512;
+    private static final int REKAMAN_PER_SEGMEN = (1 << 30) / UKURAN_REKAMAN;
+    private static final int UKURAN_HALAMAN = 1024;
+    public static final int MAKS_PANJANG_KODE = 16;
+    public static final int MAKS_PANJANG_TEKS = 100;
+    // Offset header
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSI = 4;
+    private static final int H_KAPASITAS = 8;
+    private static final int H_KAPASITAS_INDEKS = 12;
+    private static final int H_SLOT_TERPAKAI = 16;
+    private static final int H_JUMLAH = 20;
+    private static final int H_SLOT_BEBAS = 24;
+    // Offset dalam rekaman
+    private static final int R_STATUS = 0;
+    private static final int R_AKTIF = 1;
+    private static final int R_PANJANG_KODE = 2;
+    private static final int R_STOK = 4;
+    private static final int R_HARGA = 8;
+    private static final int R_STOK_MINIMUM = 16;
+    private static final int R_PANJANG_NAMA = 20;
+    private static final int R_PANJANG_KATEGORI = 22;
+    private static final int R_KODE = 24;
+    private static final int R_NAMA = R_KODE + MAKS_PANJANG_KODE * 2;
+    private static final int R_KATEGORI = R_NAMA + MAKS_PANJANG_TEKS * 2;
+    // Rekaman bebas memakai kolom stok sebagai penunjuk slot bebas berikutnya
+    private static final int R_SLOT_BEBAS_BERIKUTNYA = R_STOK;
+    private static final int INDEKS_KOSONG = 0;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer indeks;
+    private final MappedByteBuffer[] segmen;
+    private final int kapasitas;
+    private final int maskIndeks;
+    private final AgregatInventaris agregat = new AgregatInventaris() {
+        @Override
+        public double totalNilai() {
+            double[] total = new double[1];
+            pindaiAktif((buf, off) -> total[0] += buf.getDouble(off + R_HARGA) * stokDi(buf, off));
+            return total[0];
+        }
+        @Override
+        public long totalStok() {
+            long[] total = new long[1];
+            pindaiAktif((buf, off) -> total[0] += stokDi(buf, off));
+            return total[0];
+        }
+    };
+    private RepositoryProdukMmap(FileChannel channel, int kapasitas, int kapasitasIndeks, boolean baru) throws IOException {
+        this.channel = channel;
+        this.kapasitas = kapasitas;
+        this.maskIndeks = kapasitasIndeks - 1;
+        long ukuranIndeks = (long) kapasitasIndeks * Integer.BYTES;
+        long awalRekaman = UKURAN_HEADER + ukuranIndeks;
+        header = petakan(0, UKURAN_HEADER);
+        indeks = petakan(UKURAN_HEADER, ukuranIndeks);
+        int jumlahSegmen = (kapasitas + REKAMAN_PER_SEGMEN - 1) / REKAMAN_PER_SEGMEN;
+        segmen = new MappedByteBuffer[jumlahSegmen];
+        for (int s = 0; s < jumlahSegmen; s++) {
+            int rekaman = Math.min(REKAMAN_PER_SEGMEN, kapasitas - s * REKAMAN_PER_SEGMEN);
+            segmen[s] = petakan(awalRekaman + (long) s * REKAMAN_PER_SEGMEN * UKURAN_REKAMAN,
+                    (long) rekaman * UKURAN_REKAMAN);
+        }
+        if (baru) {
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSI, VERSI);
+            header.putInt(H_KAPASITAS, kapasitas);
+            header.putInt(H_KAPASITAS_INDEKS, kapasitasIndeks);
+            header.putInt(H_SLOT_TERPAKAI, 0);
+            header.putInt(H_JUMLAH, 0);
+            header.putInt(H_SLOT_BEBAS, -1);
+        }
+    }
+    // Buka berkas katalog yang ada, atau buat baru dengan kapasitas tetap jika belum ada.
+    // Kapasitas berkas yang sudah ada dibaca dari header dan parameter kapasitas diabaikan
+    public static RepositoryProdukMmap buka(Path berkas, int kapasitas) throws IOException {
+        boolean baru = !Files.exists(berkas) || Files.size(berkas) == 0;
+        FileChannel channel = FileChannel.open(berkas, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (baru) {
+                if (kapasitas <= 0) {
+                    throw new IllegalArgumentException("Kapasitas harus positif");
+                }
+                int kapasitasIndeks = Integer.highestOneBit(Math.max(kapasitas, 8) * 2 - 1) << 1;
+                return new RepositoryProdukMmap(channel, kapasitas, kapasitasIndeks, true);
+            }
+            MappedByteBuffer h = channel.map(FileChannel.MapMode.READ_ONLY, 0, UKURAN_HEADER);
+            h.order(ByteOrder.LITTLE_ENDIAN);
+            if (h.getInt(H_MAGIC) != MAGIC || h.getInt(H_VERSI) != VERSI) {
+                throw new IOException("Bukan berkas katalog yang valid: " + berkas);
+            }
+            return new RepositoryProdukMmap(channel, h.getInt(H_KAPASITAS), h.getInt(H_KAPASITAS_INDEKS), false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    private MappedByteBuffer petakan(long posisi, long ukuran) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, posisi, ukuran);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null || produk.getKode().length() > MAKS_PANJANG_KODE
+                || panjang(produk.getNama()) > MAKS_PANJANG_TEKS
+                || panjang(produk.getKategori()) > MAKS_PANJANG_TEKS) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int posisi = cariPosisiIndeks(produk.getKode());
+            int slot;
+            if (posisi >= 0) {
+                slot = indeks.getInt(posisi * Integer.BYTES) - 1;
+            } else {
+                slot = alokasiSlot();
+                if (slot < 0) {
+                    return false;
+                }
+                indeks.putInt((-posisi - 1) * Integer.BYTES, slot + 1);
+                header.putInt(H_JUMLAH, header.getInt(H_JUMLAH) + 1);
+            }
+            tulisRekaman(slot, produk);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        lock.readLock().lock();
+        try {
+            int slot = cariSlot(kode);
+            return slot < 0 ? Optional.empty() : Optional.of(bacaRekaman(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        if (nama == null) {
+            return Collections.emptyList();
+        }
+        return pindai(slot -> IndeksNamaProduk.cocok(bacaTeks(slot, R_PANJANG_NAMA, R_NAMA), nama,
+                IndeksNamaProduk.Mode.SUBSTRING));
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        if (kategori == null) {
+            return Collections.emptyList();
+        }
+        return pindai(slot -> kategori.equalsIgnoreCase(bacaTeks(slot, R_PANJANG_KATEGORI, R_KATEGORI)));
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return pindai(slot -> {
+            int s = stokDi(buffer(slot), offset(slot));
+            return s > 0 && s <= buffer(slot).getInt(offset(slot) + R_STOK_MINIMUM);
+        });
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return pindai(slot -> stokDi(buffer(slot), offset(slot)) == 0);
+    }
+    @Override
+    public boolean hapus(String kode) {
+        lock.writeLock().lock();
+        try {
+            int posisi = kode == null ? -1 : cariPosisiIndeks(kode);
+            if (posisi < 0) {
+                return false;
+            }
+            int slot = indeks.getInt(posisi * Integer.BYTES) - 1;
+            hapusDariIndeks(posisi);
+            MappedByteBuffer buf = buffer(slot);
+            int off = offset(slot);
+            buf.put(off + R_STATUS, (byte) 0);
+            buf.putInt(off + R_SLOT_BEBAS_BERIKUTNYA, header.getInt(H_SLOT_BEBAS));
+            header.putInt(H_SLOT_BEBAS, slot);
+            header.putInt(H_JUMLAH, header.getInt(H_JUMLAH) - 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        lock.readLock().lock();
+        try {
+            int slot = cariSlot(kode);
+            if (slot < 0) {
+                return false;
+            }
+            INT.setVolatile(buffer(slot), offset(slot) + R_STOK, stokBaru);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode, -jumlah);
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        if (jumlah <= 0) {
+            throw new IllegalArgumentException("Jumlah harus positif");
+        }
+        return terapkanDelta(kode, jumlah);
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = new HashMap<>(deltaPerKode.size() * 2);
+        deltaPerKode.forEach((kode, delta) -> hasil.put(kode, terapkanDelta(kode, delta)));
+        return hasil;
+    }
+    private int terapkanDelta(String kode, int delta) {
+        lock.readLock().lock();
+        try {
+            int slot = cariSlot(kode);
+            if (slot < 0) {
+                return PRODUK_TIDAK_ADA;
+            }
+            MappedByteBuffer buf = buffer(slot);
+            int off = offset(slot) + R_STOK;
+            while (true) {
+                int sekarang = (int) INT.getVolatile(buf, off);
+                long baru = (long) sekarang + delta;
+                if (baru < 0 || baru > Integer.MAX_VALUE) {
+                    return -Math.max(sekarang, 0) - 1;
+                }
+                if (delta == 0 || INT.compareAndSet(buf, off, sekarang, (int) baru)) {
+                    return (int) baru;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return pindai(slot -> true);
+    }
+    @Override
+    public Stream<Produk> alirSemua() {
+        int slotTerpakai = slotTerpakai();
+        int jumlahHalaman = (slotTerpakai + UKURAN_HALAMAN - 1) / UKURAN_HALAMAN;
+        return IntStream.range(0, jumlahHalaman)
+                .mapToObj(h -> bacaHalaman(h * UKURAN_HALAMAN))
+                .flatMap(List::stream);
+    }
+    // Total dihitung dengan memindai rekaman langsung di memori yang dipetakan tanpa membuat objek Produk
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return Optional.of(agregat);
+    }
+    public int jumlahProduk() {
+        lock.readLock().lock();
+        try {
+            return header.getInt(H_JUMLAH);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    public int getKapasitas() {
+        return kapasitas;
+    }
+    // Paksa semua halaman kotor ditulis ke disk
+    public void paksa() {
+        lock.writeLock().lock();
+        try {
+            header.force();
+            indeks.force();
+            for (MappedByteBuffer s : segmen) {
+                s.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    @Override
+    public void close() {
+        paksa();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    private int slotTerpakai() {
+        lock.readLock().lock();
+        try {
+            return header.getInt(H_SLOT_TERPAKAI);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private int alokasiSlot() {
+        int bebas = header.getInt(H_SLOT_BEBAS);
+        if (bebas >= 0) {
+            header.putInt(H_SLOT_BEBAS, buffer(bebas).getInt(offset(bebas) + R_SLOT_BEBAS_BERIKUTNYA));
+            return bebas;
+        }
+        int terpakai = header.getInt(H_SLOT_TERPAKAI);
+        if (terpakai == kapasitas) {
+            return -1;
+        }
+        header.putInt(H_SLOT_TERPAKAI, terpakai + 1);
+        return terpakai;
+    }
+    private int cariSlot(String kode) {
+        if (kode == null) {
+            return -1;
+        }
+        int posisi = cariPosisiIndeks(kode);
+        return posisi < 0 ? -1 : indeks.getInt(posisi * Integer.BYTES) - 1;
+    }
+    // Linear probing. Mengembalikan posisi entri jika kode ditemukan, atau -(posisiKosong) - 1.
+    // Indeks berkapasitas paling sedikit dua kali jumlah slot sehingga selalu ada entri kosong
+    private int cariPosisiIndeks(String kode) {
+        int posisi = sebar(kode.hashCode()) & maskIndeks;
+        while (true) {
+            int isi = indeks.getInt(posisi * Integer.BYTES);
+            if (isi == INDEKS_KOSONG) {
+                return -posisi - 1;
+            }
+            if (kodeSama(isi - 1, kode)) {
+                return posisi;
+            }
+            posisi = (posisi + 1) & maskIndeks;
+        }
+    }
+    // Backward-shift: entri sesudah lubang digeser mundur ke lubang bila posisi asalnya tidak berada
+    // pada rentang siklik (lubang, posisi], sehingga hapus tidak meninggalkan penanda dan probe kode
+    // yang tidak ada tetap berhenti di entri kosong pertama dalam klaster
+    private void hapusDariIndeks(int lubang) {
+        int posisi = (lubang + 1) & maskIndeks;
+        int isi;
+        while ((isi = indeks.getInt(posisi * Integer.BYTES)) != INDEKS_KOSONG) {
+            int asal = sebar(hashKode(isi - 1)) & maskIndeks;
+            if (((posisi - asal) & maskIndeks) >= ((posisi - lubang) & maskIndeks)) {
+                indeks.putInt(lubang * Integer.BYTES, isi);
+                lubang = posisi;
+            }
+            posisi = (posisi + 1) & maskIndeks;
+        }
+        indeks.putInt(lubang * Integer.BYTES, INDEKS_KOSONG);
+    }
+    // Sama dengan String.hashCode kode rekaman tanpa membuat String
+    private int hashKode(int slot) {
+        MappedByteBuffer buf = buffer(slot);
+        int off = offset(slot);
+        int panjangKode = buf.get(off + R_PANJANG_KODE);
+        int h = 0;
+        for (int i = 0; i < panjangKode; i++) {
+            h = 31 * h + buf.getChar(off + R_KODE + i * 2);
+        }
+        return h;
+    }
+    private boolean kodeSama(int slot, String kode) {
+        MappedByteBuffer buf = buffer(slot);
+        int off = offset(slot);
+        if (buf.get(off + R_PANJANG_KODE) != kode.length()) {
+            return false;
+        }
+        for (int i = 0; i < kode.length(); i++) {
+            if (buf.getChar(off + R_KODE + i * 2) != kode.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    private void tulisRekaman(int slot, Produk produk) {
+        MappedByteBuffer buf = buffer(slot);
+        int off = offset(slot);
+        buf.put(off + R_STATUS, (byte) 1);
+        buf.put(off + R_AKTIF, (byte) (produk.isAktif() ? 1 : 0));
+        buf.put(off + R_PANJANG_KODE, (byte) produk.getKode().length());
+        buf.putDouble(off + R_HARGA, produk.getHarga());
+        buf.putInt(off + R_STOK_MINIMUM, produk.getStokMinimum());
+        tulisTeks(buf, off + R_KODE, produk.getKode());
+        tulisTeks(buf, off + R_NAMA, produk.getNama());
+        tulisTeks(buf, off + R_KATEGORI, produk.getKategori());
+        buf.putShort(off + R_PANJANG_NAMA, (short) panjang(produk.getNama()));
+        buf.putShort(off + R_PANJANG_KATEGORI, (short) panjang(produk.getKategori()));
+        INT.setVolatile(buf, off + R_STOK, produk.getStok());
+    }
+    private Produk bacaRekaman(int slot) {
+        MappedByteBuffer buf = buffer(slot);
+        int off = offset(slot);
+        int panjangKode = buf.get(off + R_PANJANG_KODE);
+        char[] kode = new char[panjangKode];
+        for (int i = 0; i < panjangKode; i++) {
+            kode[i] = buf.getChar(off + R_KODE + i * 2);
+        }
+        Produk produk = new Produk(new String(kode), bacaTeks(slot, R_PANJANG_NAMA, R_NAMA),
+                bacaTeks(slot, R_PANJANG_KATEGORI, R_KATEGORI), buf.getDouble(off + R_HARGA),
+                stokDi(buf, off), buf.getInt(off + R_STOK_MINIMUM));
+        produk.setAktif(buf.get(off + R_AKTIF) != 0);
+        return produk;
+    }
+    private String bacaTeks(int slot, int offsetPanjang, int offsetIsi) {
+        MappedByteBuffer buf = buffer(slot);
+        int off = offset(slot);
+        int n = buf.getShort(off + offsetPanjang);
+        if (n < 0) {
+            return null;
+        }
+        char[] isi = new char[n];
+        for (int i = 0; i < n; i++) {
+            isi[i] = buf.getChar(off + offsetIsi + i * 2);
+        }
+        return new String(isi);
+    }
+    private static void tulisTeks(MappedByteBuffer buf, int posisi, String teks) {
+        if (teks == null) {
+            return;
+        }
+        for (int i = 0; i < teks.length(); i++) {
+            buf.putChar(posisi + i * 2, teks.charAt(i));
+        }
+    }
+    private List<Produk> pindai(IntPredicate cocok) {
+        lock.readLock().lock();
+        try {
+            List<Produk> hasil = new ArrayList<>();
+            int terpakai = header.getInt(H_SLOT_TERPAKAI);
+            for (int slot = 0; slot < terpakai; slot++) {
+                if (buffer(slot).get(offset(slot) + R_STATUS) == 1 && cocok.test(slot)) {
+                    hasil.add(bacaRekaman(slot));
+                }
+            }
+            return hasil;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private interface PengunjungRekaman {
+        void kunjungi(MappedByteBuffer buf, int off);
+    }
+    private void pindaiAktif(PengunjungRekaman pengunjung) {
+        lock.readLock().lock();
+        try {
+            int terpakai = header.getInt(H_SLOT_TERPAKAI);
+            for (int slot = 0; slot < terpakai; slot++) {
+                MappedByteBuffer buf = buffer(slot);
+                int off = offset(slot);
+                if (buf.get(off + R_STATUS) == 1 && buf.get(off + R_AKTIF) != 0) {
+                    pengunjung.kunjungi(buf, off);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private List<Produk> bacaHalaman(int awal) {
+        lock.readLock().lock();
+        try {
+            int akhir = Math.min(awal + UKURAN_HALAMAN, header.getInt(H_SLOT_TERPAKAI));
+            List<Produk> halaman = new ArrayList<>();
+            for (int slot = awal; slot < akhir; slot++) {
+                if (buffer(slot).get(offset(slot) + R_STATUS) == 1) {
+                    halaman.add(bacaRekaman(slot));
+                }
+            }
+            return halaman;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    private static int stokDi(MappedByteBuffer buf, int off) {
+        return (int) INT.getVolatile(buf, off + R_STOK);
+    }
+    private MappedByteBuffer buffer(int slot) {
+        return segmen[slot / REKAMAN_PER_SEGMEN];
+    }
+    private static int offset(int slot) {
+        return (slot % REKAMAN_PER_SEGMEN) * UKURAN_REKAMAN;
+    }
+    private static int panjang(String teks) {
+        return teks == null ? -1 : teks.length();
+    }
+    private static int sebar(int h) {
+        return h ^ (h >>> 16);
+    }
+}
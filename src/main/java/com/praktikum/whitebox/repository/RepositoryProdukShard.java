@@ -0,0 +1,385 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+// Membagi katalog ke beberapa repository independen. Setiap kode dipetakan ke shard lewat cincin
+// consistent hashing dengan simpul virtual, sehingga menambah atau membuang shard hanya memindahkan
+// sebagian kecil kode. Operasi per kode langsung ke shard pemiliknya; operasi seluruh katalog
+// disebar paralel ke executor masing-masing shard lalu hasilnya digabung.
+// Lock baca (StampedLock, tanpa pencatatan per thread) dipecah per stripe kode agar operasi per kode
+// tidak saling berebut; penyusunan ulang shard mengambil semua lock tulis selama produk dipindahkan
+public class RepositoryProdukShard implements RepositoryProduk {
+    private static final int SIMPUL_VIRTUAL = 128;
+    private static final int JUMLAH_STRIPE = 64;
+    private final StampedLock[] stripe = new StampedLock[JUMLAH_STRIPE];
+    private volatile Cincin cincin;
+    public record Shard(String nama, RepositoryProduk repository, Executor executor) {
+        public Shard(String nama, RepositoryProduk repository) {
+            this(nama, repository, ForkJoinPool.commonPool());
+        }
+    }
+    private static final class Cincin {
+        final Shard[] shard;
+        final long[] titik;
+        final int[] pemilik;
+        Cincin(List<Shard> daftar) {
+            shard = daftar.toArray(new Shard[0]);
+            long[][] pasangan = new long[shard.length * SIMPUL_VIRTUAL][];
+            for (int s = 0; s < shard.length; s++) {
+                for (int v = 0; v < SIMPUL_VIRTUAL; v++) {
+                    pasangan[s * SIMPUL_VIRTUAL + v] = new long[] {hash(shard[s].nama() + "#" + v), s};
+                }
+            }
+            Arrays.sort(pasangan, (a, b) -> Long.compare(a[0], b[0]));
+            titik = new long[pasangan.length];
+            pemilik = new int[pasangan.length];
+            for (int i = 0; i < pasangan.length; i++) {
+                titik[i] = pasangan[i][0];
+                pemilik[i] = (int) pasangan[i][1];
+            }
+        }
+        // Kode null diarahkan ke shard pertama agar semantiknya mengikuti repository di bawahnya
+        Shard cari(String kode) {
+            if (kode == null) {
+                return shard[0];
+            }
+            int posisi = Arrays.binarySearch(titik, hash(kode));
+            int i = posisi >= 0 ? posisi : -posisi - 1;
+            return shard[pemilik[i == titik.length ? 0 : i]];
+        }
+    }
+    public RepositoryProdukShard(List<Shard> shard) {
+        periksaShard(shard);
+        for (int i = 0; i < JUMLAH_STRIPE; i++) {
+            stripe[i] = new StampedLock();
+        }
+        this.cincin = new Cincin(shard);
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        int s = indeksStripe(produk.getKode());
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(produk.getKode()).repository().simpan(produk);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        int s = indeksStripe(kode);
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(kode).repository().cariByKode(kode);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public boolean hapus(String kode) {
+        int s = indeksStripe(kode);
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(kode).repository().hapus(kode);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        int s = indeksStripe(kode);
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(kode).repository().updateStok(kode, stokBaru);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        int s = indeksStripe(kode);
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(kode).repository().kurangiStokJikaCukup(kode, jumlah);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        int s = indeksStripe(kode);
+        long stamp = stripe[s].readLock();
+        try {
+            return cincin.cari(kode).repository().tambahStok(kode, jumlah);
+        } finally {
+            stripe[s].unlockRead(stamp);
+        }
+    }
+    @Override
+    public Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        return perKelompokShard(kode, (repository, bagian) -> repository.cariByKodeBanyak(bagian));
+    }
+    // Produk dikelompokkan per shard lalu tiap kelompok disimpan sebagai satu batch secara paralel.
+    // Untuk kode yang muncul lebih dari sekali, hanya produk terakhir yang disimpan
+    @Override
+    public int simpanBanyak(List<Produk> daftar) {
+        Map<String, Produk> produkByKode = new HashMap<>(daftar.size() * 2);
+        for (Produk produk : daftar) {
+            if (produk != null && produk.getKode() != null) {
+                produkByKode.put(produk.getKode(), produk);
+            }
+        }
+        List<Integer> tersimpan = perShard(produkByKode.keySet(), (repository, bagian) -> {
+            List<Produk> batch = new ArrayList<>(bagian.size());
+            bagian.forEach(k -> batch.add(produkByKode.get(k)));
+            return repository.simpanBanyak(batch);
+        });
+        return tersimpan.stream().mapToInt(Integer::intValue).sum();
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        return perKelompokShard(deltaPerKode.keySet(), (repository, bagian) -> {
+            Map<String, Integer> delta = new HashMap<>(bagian.size() * 2);
+            bagian.forEach(k -> delta.put(k, deltaPerKode.get(k)));
+            return repository.terapkanDeltaStok(delta);
+        });
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        return gabungkan(repository -> repository.cariByNama(nama));
+    }
+    // Setiap shard mengembalikan kandidat teratasnya sendiri, lalu diurutkan ulang secara global
+    @Override
+    public List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        List<Produk> kandidat = gabungkan(repository -> repository.cariByNama(nama, mode, batas));
+        return IndeksNamaProduk.saringDanUrutkan(kandidat.stream(), nama, mode, batas);
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        return gabungkan(repository -> repository.cariByKategori(kategori));
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return gabungkan(RepositoryProduk::cariProdukStokMenipis);
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return gabungkan(RepositoryProduk::cariProdukStokHabis);
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return gabungkan(RepositoryProduk::cariSemua);
+    }
+    // Gabungan aliran tiap shard tanpa lock; selama penyusunan ulang shard, produk yang sedang
+    // dipindahkan bisa sesaat terlihat dua kali atau tidak terlihat
+    @Override
+    public Stream<Produk> alirSemua() {
+        return Arrays.stream(cincin.shard).flatMap(s -> s.repository().alirSemua());
+    }
+    // Agregat gabungan hanya tersedia jika setiap shard memilikinya; total dihitung paralel
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        Shard[] semua = cincin.shard;
+        AgregatInventaris[] bagian = new AgregatInventaris[semua.length];
+        for (int i = 0; i < semua.length; i++) {
+            Optional<AgregatInventaris> agregat = semua[i].repository().agregatInventaris();
+            if (agregat.isEmpty()) {
+                return Optional.empty();
+            }
+            bagian[i] = agregat.get();
+        }
+        return Optional.of(new AgregatInventaris() {
+            @Override
+            public double totalNilai() {
+                return sebar(semua, i -> bagian[i].totalNilai()).stream().mapToDouble(Double::doubleValue).sum();
+            }
+            @Override
+            public long totalStok() {
+                return sebar(semua, i -> bagian[i].totalStok()).stream().mapToLong(Long::longValue).sum();
+            }
+        });
+    }
+    // Rollup kategori hanya benar jika semua shard mencatat ke registri yang sama
+    @Override
+    public Optional<RegistriKategori> registriKategori() {
+        Shard[] semua = cincin.shard;
+        Optional<RegistriKategori> registri = semua[0].repository().registriKategori();
+        for (int i = 1; i < semua.length && registri.isPresent(); i++) {
+            if (semua[i].repository().registriKategori().orElse(null) != registri.get()) {
+                return Optional.empty();
+            }
+        }
+        return registri;
+    }
+    // Tambah shard baru lalu pindahkan kode yang kini dimilikinya. Mengembalikan jumlah produk dipindah
+    public int tambahShard(Shard baru) {
+        List<Shard> daftar = new ArrayList<>(Arrays.asList(cincin.shard));
+        daftar.add(baru);
+        return susunUlang(daftar);
+    }
+    // Buang shard dan pindahkan seluruh produknya ke shard yang tersisa
+    public int hapusShard(String nama) {
+        List<Shard> daftar = new ArrayList<>(Arrays.asList(cincin.shard));
+        if (!daftar.removeIf(s -> s.nama().equals(nama))) {
+            throw new IllegalArgumentException("Shard tidak ditemukan: " + nama);
+        }
+        return susunUlang(daftar);
+    }
+    public List<Shard> getShard() {
+        return List.of(cincin.shard);
+    }
+    public String shardUntuk(String kode) {
+        return cincin.cari(kode).nama();
+    }
+    private record Pindahan(RepositoryProduk asal, RepositoryProduk tujuan, Produk produk) {}
+    private int susunUlang(List<Shard> daftarBaru) {
+        periksaShard(daftarBaru);
+        long[] stamp = kunciSemua(true);
+        try {
+            Cincin lama = cincin;
+            Cincin baru = new Cincin(daftarBaru);
+            List<Pindahan> dipindah = new ArrayList<>();
+            for (Shard asal : lama.shard) {
+                for (Produk produk : asal.repository().cariSemua()) {
+                    Shard tujuan = baru.cari(produk.getKode());
+                    if (tujuan.repository() == asal.repository()) {
+                        continue;
+                    }
+                    // Sumber baru dihapus setelah tujuan mengonfirmasi; jika gagal, pindahan sebelumnya
+                    // dikembalikan dan cincin lama tetap dipakai
+                    if (!tujuan.repository().simpan(produk)) {
+                        for (int i = dipindah.size() - 1; i >= 0; i--) {
+                            Pindahan p = dipindah.get(i);
+                            p.asal().simpan(p.produk());
+                            p.tujuan().hapus(p.produk().getKode());
+                        }
+                        throw new IllegalStateException("Gagal memindahkan " + produk.getKode()
+                                + " ke shard " + tujuan.nama());
+                    }
+                    asal.repository().hapus(produk.getKode());
+                    dipindah.add(new Pindahan(asal.repository(), tujuan.repository(), produk));
+                }
+            }
+            cincin = baru;
+            return dipindah.size();
+        } finally {
+            bukaSemua(stamp);
+        }
+    }
+    private interface OperasiBagian<T> {
+        Map<String, T> jalankan(RepositoryProduk repository, List<String> kode);
+    }
+    private <T> Map<String, T> perKelompokShard(Collection<String> kode, OperasiBagian<T> operasi) {
+        Map<String, T> hasil = new HashMap<>(kode.size() * 2);
+        perShard(kode, operasi::jalankan).forEach(hasil::putAll);
+        return hasil;
+    }
+    // Kelompokkan kode per shard, kunci stripe yang terlibat dalam urutan indeks, lalu jalankan
+    // tiap kelompok paralel di executor shard-nya; hasil per kelompok dikembalikan apa adanya
+    private <T> List<T> perShard(Collection<String> kode, BiFunction<RepositoryProduk, List<String>, T> operasi) {
+        int[] indeks = kode.stream().mapToInt(RepositoryProdukShard::indeksStripe).distinct().sorted().toArray();
+        long[] stamp = new long[indeks.length];
+        for (int i = 0; i < indeks.length; i++) {
+            stamp[i] = stripe[indeks[i]].readLock();
+        }
+        try {
+            Cincin c = cincin;
+            Map<Shard, List<String>> kelompok = new HashMap<>();
+            for (String k : kode) {
+                kelompok.computeIfAbsent(c.cari(k), s -> new ArrayList<>()).add(k);
+            }
+            List<CompletableFuture<T>> hasilBagian = new ArrayList<>();
+            kelompok.forEach((shard, bagian) -> hasilBagian.add(CompletableFuture.supplyAsync(
+                    () -> operasi.apply(shard.repository(), bagian), shard.executor())));
+            List<T> hasil = new ArrayList<>(hasilBagian.size());
+            hasilBagian.forEach(f -> hasil.add(f.join()));
+            return hasil;
+        } finally {
+            for (int i = indeks.length - 1; i >= 0; i--) {
+                stripe[indeks[i]].unlockRead(stamp[i]);
+            }
+        }
+    }
+    private List<Produk> gabungkan(Function<RepositoryProduk, List<Produk>> operasi) {
+        long[] stamp = kunciSemua(false);
+        try {
+            Shard[] semua = cincin.shard;
+            List<Produk> hasil = new ArrayList<>();
+            sebar(semua, i -> operasi.apply(semua[i].repository())).forEach(hasil::addAll);
+            return hasil;
+        } finally {
+            bukaSemua(stamp);
+        }
+    }
+    private interface OperasiShard<T> {
+        T jalankan(int indeksShard);
+    }
+    private static <T> List<T> sebar(Shard[] semua, OperasiShard<T> operasi) {
+        List<CompletableFuture<T>> bagian = new ArrayList<>(semua.length);
+        for (int i = 0; i < semua.length; i++) {
+            int indeks = i;
+            bagian.add(CompletableFuture.supplyAsync(() -> operasi.jalankan(indeks), semua[i].executor()));
+        }
+        List<T> hasil = new ArrayList<>(semua.length);
+        bagian.forEach(f -> hasil.add(f.join()));
+        return hasil;
+    }
+    private long[] kunciSemua(boolean tulis) {
+        long[] stamp = new long[JUMLAH_STRIPE];
+        for (int i = 0; i < JUMLAH_STRIPE; i++) {
+            stamp[i] = tulis ? stripe[i].writeLock() : stripe[i].readLock();
+        }
+        return stamp;
+    }
+    private void bukaSemua(long[] stamp) {
+        for (int i = JUMLAH_STRIPE - 1; i >= 0; i--) {
+            stripe[i].unlock(stamp[i]);
+        }
+    }
+    private static int indeksStripe(String kode) {
+        int h = kode == null ? 0 : kode.hashCode();
+        return (h ^ (h >>> 16)) & (JUMLAH_STRIPE - 1);
+    }
+    private static void periksaShard(List<Shard> shard) {
+        if (shard == null || shard.isEmpty()) {
+            throw new IllegalArgumentException("Minimal satu shard diperlukan");
+        }
+        Set<String> nama = new HashSet<>();
+        for (Shard s : shard) {
+            if (s.nama() == null || s.repository() == null || s.executor() == null || !nama.add(s.nama())) {
+                throw new IllegalArgumentException("Nama shard harus unik dan repository/executor tidak boleh null");
+            }
+        }
+    }
+    // FNV-1a 64-bit diikuti finalizer MurmurHash3 agar kode yang mirip tersebar merata di cincin
+    private static long hash(String teks) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < teks.length(); i++) {
+            h ^= teks.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,162 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.SingleFlight;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+// Dekorator yang menggabungkan pencarian identik yang bersamaan (cariByKode, cariByKategori,
+// cariByNama) menjadi satu panggilan ke delegate. Tidak ada cache: hasil hanya dibagi ke pemanggil
+// yang datang selama panggilan masih berjalan, dan setiap pemanggil mendapat salinan produk sendiri.
+// Penulisan melepas panggilan berjalan untuk kode itu agar pembaca sesudahnya membaca ulang
+public class RepositoryProdukSingleFlight implements RepositoryProduk {
+    public record Statistik(long panggilanKode, long digabungKode, long panggilanKategori,
+            long digabungKategori, long panggilanNama, long digabungNama) {
+        public long totalDigabung() {
+            return digabungKode + digabungKategori + digabungNama;
+        }
+    }
+    private final RepositoryProduk delegate;
+    private final SingleFlight<String, Optional<Produk>> penggabungKode = new SingleFlight<>();
+    private final SingleFlight<String, List<Produk>> penggabungKategori = new SingleFlight<>();
+    private final SingleFlight<String, List<Produk>> penggabungNama = new SingleFlight<>();
+    public RepositoryProdukSingleFlight(RepositoryProduk delegate) {
+        this.delegate = delegate;
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return delegate.cariByKode(null);
+        }
+        return penggabungKode.jalankan(kode, () -> delegate.cariByKode(kode)).map(Produk::new);
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        if (kategori == null) {
+            return delegate.cariByKategori(null);
+        }
+        return salin(penggabungKategori.jalankan(kategori, () -> delegate.cariByKategori(kategori)));
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        if (nama == null) {
+            return delegate.cariByNama(null);
+        }
+        return salin(penggabungNama.jalankan(nama, () -> delegate.cariByNama(nama)));
+    }
+    // Mode dan batas ikut menjadi kunci; pemisah \0 tidak mungkin muncul di mode maupun angka
+    @Override
+    public List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        if (nama == null || mode == null) {
+            return delegate.cariByNama(nama, mode, batas);
+        }
+        String kunci = mode.name() + '\0' + batas + '\0' + nama;
+        return salin(penggabungNama.jalankan(kunci, () -> delegate.cariByNama(nama, mode, batas)));
+    }
+    @Override
+    public Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        return delegate.cariByKodeBanyak(kode);
+    }
+    // Daftar kategori dan nama bisa memuat produk mana pun, jadi perubahan katalog melepas semuanya.
+    // Perubahan stok saja hanya melepas pencarian per kode
+    @Override
+    public boolean simpan(Produk produk) {
+        boolean hasil = delegate.simpan(produk);
+        if (produk != null) {
+            penggabungKode.lupakan(produk.getKode());
+        }
+        penggabungKategori.lupakanSemua();
+        penggabungNama.lupakanSemua();
+        return hasil;
+    }
+    @Override
+    public int simpanBanyak(List<Produk> daftar) {
+        int tersimpan = delegate.simpanBanyak(daftar);
+        for (Produk produk : daftar) {
+            if (produk != null) {
+                lupakanKode(produk.getKode());
+            }
+        }
+        penggabungKategori.lupakanSemua();
+        penggabungNama.lupakanSemua();
+        return tersimpan;
+    }
+    @Override
+    public boolean hapus(String kode) {
+        boolean hasil = delegate.hapus(kode);
+        if (kode != null) {
+            penggabungKode.lupakan(kode);
+        }
+        penggabungKategori.lupakanSemua();
+        penggabungNama.lupakanSemua();
+        return hasil;
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        boolean hasil = delegate.updateStok(kode, stokBaru);
+        lupakanKode(kode);
+        return hasil;
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        int hasil = delegate.kurangiStokJikaCukup(kode, jumlah);
+        lupakanKode(kode);
+        return hasil;
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        int hasil = delegate.tambahStok(kode, jumlah);
+        lupakanKode(kode);
+        return hasil;
+    }
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        Map<String, Integer> hasil = delegate.terapkanDeltaStok(deltaPerKode);
+        deltaPerKode.keySet().forEach(this::lupakanKode);
+        return hasil;
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return delegate.cariProdukStokMenipis();
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return delegate.cariProdukStokHabis();
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return delegate.cariSemua();
+    }
+    @Override
+    public Stream<Produk> alirSemua() {
+        return delegate.alirSemua();
+    }
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return delegate.agregatInventaris();
+    }
+    @Override
+    public Optional<RegistriKategori> registriKategori() {
+        return delegate.registriKategori();
+    }
+    public Statistik statistik() {
+        return new Statistik(penggabungKode.getJumlahPanggilan(), penggabungKode.getJumlahDigabung(),
+                penggabungKategori.getJumlahPanggilan(), penggabungKategori.getJumlahDigabung(),
+                penggabungNama.getJumlahPanggilan(), penggabungNama.getJumlahDigabung());
+    }
+    private void lupakanKode(String kode) {
+        if (kode != null) {
+            penggabungKode.lupakan(kode);
+        }
+    }
+    private static List<Produk> salin(List<Produk> daftar) {
+        List<Produk> hasil = new ArrayList<>(daftar.size());
+        for (Produk produk : daftar) {
+            hasil.add(new Produk(produk));
+        }
+        return hasil;
+    }
+}
@@ -0,0 +1,392 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+// Dekorator yang membuat mutasi repository tahan crash lewat write-ahead log. Setiap mutasi yang
+// berhasil dicatat sebagai keadaan akhir kode tersebut dan pemanggil menunggu sampai batch jurnalnya
+// di-fsync (group commit). Lock per stripe kode menjamin urutan rekaman satu kode sama dengan urutan
+// perubahan di repository, sehingga snapshot fuzzy + pemutaran ulang jurnal selalu konsisten
+public class RepositoryProdukWal implements RepositoryProduk, AutoCloseable {
+    private static final int JUMLAH_STRIPE = 64;
+    private static final int MAGIC_SNAPSHOT = 0x534E4150;
+    private static final int VERSI_SNAPSHOT = 1;
+    private static final int UKURAN_HEADER_SNAPSHOT = 20;
+    private static final String BERKAS_SNAPSHOT = "snapshot.dat";
+    public static final int UKURAN_BATCH_BAWAAN = 64 * 1024;
+    // Tanpa jeda, rekaman yang masuk selama satu fsync berjalan otomatis menjadi batch berikutnya;
+    // jeda positif hanya berguna jika penulis sedikit dan fsync sangat mahal
+    public static final Duration JEDA_FLUSH_BAWAAN = Duration.ZERO;
+    public static final long UKURAN_SEGMEN_BAWAAN = 64L * 1024 * 1024;
+    private final RepositoryProduk delegate;
+    private final Path direktori;
+    private final JurnalMutasi jurnal;
+    private final ReentrantLock[] stripe = new ReentrantLock[JUMLAH_STRIPE];
+    private final ReentrantLock lockSnapshot = new ReentrantLock();
+    private final long rekamanDipulihkan;
+    private ScheduledExecutorService penjadwalSnapshot;
+    private RepositoryProdukWal(RepositoryProduk delegate, Path direktori, int ukuranBatch, Duration jedaFlush,
+                                long ukuranSegmenMaks) throws IOException {
+        this.delegate = delegate;
+        this.direktori = direktori;
+        for (int i = 0; i < JUMLAH_STRIPE; i++) {
+            stripe[i] = new ReentrantLock();
+        }
+        long[] pulih = pulihkan();
+        this.rekamanDipulihkan = pulih[1];
+        this.jurnal = new JurnalMutasi(direktori, pulih[0], ukuranBatch, jedaFlush.toNanos(), ukuranSegmenMaks);
+    }
+    // Buka jurnal di direktori; snapshot dan segmen yang ada diputar ulang ke delegate lebih dulu.
+    // Delegate harus kosong dan tidak boleh diubah selain lewat dekorator ini
+    public static RepositoryProdukWal buka(Path direktori, RepositoryProduk delegate) throws IOException {
+        return buka(direktori, delegate, UKURAN_BATCH_BAWAAN, JEDA_FLUSH_BAWAAN, UKURAN_SEGMEN_BAWAAN);
+    }
+    public static RepositoryProdukWal buka(Path direktori, RepositoryProduk delegate, int ukuranBatch,
+                                           Duration jedaFlush, long ukuranSegmenMaks) throws IOException {
+        if (ukuranBatch <= 0 || jedaFlush.isNegative() || ukuranSegmenMaks <= 0) {
+            throw new IllegalArgumentException("Konfigurasi jurnal tidak valid");
+        }
+        Files.createDirectories(direktori);
+        return new RepositoryProdukWal(delegate, direktori, ukuranBatch, jedaFlush, ukuranSegmenMaks);
+    }
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        byte[] rekaman = RekamanJurnal.simpan(produk);
+        return catatJikaBerhasil(produk.getKode(), () -> delegate.simpan(produk) ? rekaman : null);
+    }
+    // Setiap produk dicatat di bawah lock stripe-nya seperti simpan, tetapi seluruh batch hanya
+    // menunggu satu fsync di akhir
+    @Override
+    public int simpanBanyak(List<Produk> daftar) {
+        long lsn = 0;
+        int tersimpan = 0;
+        for (Produk produk : daftar) {
+            if (produk == null || produk.getKode() == null) {
+                continue;
+            }
+            byte[] rekaman = RekamanJurnal.simpan(produk);
+            ReentrantLock kunci = stripe[indeksStripe(produk.getKode())];
+            kunci.lock();
+            try {
+                if (delegate.simpan(produk)) {
+                    lsn = jurnal.tambah(rekaman);
+                    tersimpan++;
+                }
+            } finally {
+                kunci.unlock();
+            }
+        }
+        if (lsn > 0) {
+            jurnal.tunggu(lsn);
+        }
+        return tersimpan;
+    }
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        return catatJikaBerhasil(kode, () -> delegate.hapus(kode) ? RekamanJurnal.hapus(kode) : null);
+    }
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        if (kode == null) {
+            return false;
+        }
+        return catatJikaBerhasil(kode, () -> delegate.updateStok(kode, stokBaru) ? RekamanJurnal.stok(kode, stokBaru) : null);
+    }
+    @Override
+    public int kurangiStokJikaCukup(String kode, int jumlah) {
+        return catatStok(kode, () -> delegate.kurangiStokJikaCukup(kode, jumlah));
+    }
+    @Override
+    public int tambahStok(String kode, int jumlah) {
+        return catatStok(kode, () -> delegate.tambahStok(kode, jumlah));
+    }
+    // Semua stripe yang terlibat dikunci dalam urutan indeks agar tidak deadlock, lalu seluruh
+    // hasil dicatat dan ditunggu dengan satu fsync
+    @Override
+    public Map<String, Integer> terapkanDeltaStok(Map<String, Integer> deltaPerKode) {
+        int[] indeks = deltaPerKode.keySet().stream().mapToInt(RepositoryProdukWal::indeksStripe).distinct().sorted().toArray();
+        long lsn = 0;
+        Map<String, Integer> hasil;
+        for (int i : indeks) {
+            stripe[i].lock();
+        }
+        try {
+            hasil = delegate.terapkanDeltaStok(deltaPerKode);
+            for (Map.Entry<String, Integer> e : hasil.entrySet()) {
+                if (e.getValue() >= 0 && deltaPerKode.getOrDefault(e.getKey(), 0) != 0) {
+                    lsn = jurnal.tambah(RekamanJurnal.stok(e.getKey(), e.getValue()));
+                }
+            }
+        } finally {
+            for (int i = indeks.length - 1; i >= 0; i--) {
+                stripe[indeks[i]].unlock();
+            }
+        }
+        if (lsn > 0) {
+            jurnal.tunggu(lsn);
+        }
+        return hasil;
+    }
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        return delegate.cariByKode(kode);
+    }
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        return delegate.cariByNama(nama);
+    }
+    @Override
+    public List<Produk> cariByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        return delegate.cariByNama(nama, mode, batas);
+    }
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        return delegate.cariByKategori(kategori);
+    }
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return delegate.cariProdukStokMenipis();
+    }
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return delegate.cariProdukStokHabis();
+    }
+    @Override
+    public List<Produk> cariSemua() {
+        return delegate.cariSemua();
+    }
+    @Override
+    public Stream<Produk> alirSemua() {
+        return delegate.alirSemua();
+    }
+    @Override
+    public Optional<AgregatInventaris> agregatInventaris() {
+        return delegate.agregatInventaris();
+    }
+    @Override
+    public Optional<RegistriKategori> registriKategori() {
+        return delegate.registriKategori();
+    }
+    @Override
+    public Map<String, Produk> cariByKodeBanyak(Collection<String> kode) {
+        return delegate.cariByKodeBanyak(kode);
+    }
+    // Tulis snapshot lalu buang segmen jurnal yang sudah tercakup. Jurnal dirotasi dulu sehingga
+    // semua rekaman di segmen lama sudah diterapkan sebelum katalog dibaca; perubahan yang ikut
+    // terbaca setelah rotasi aman karena rekaman jurnal idempoten
+    public void snapshot() {
+        lockSnapshot.lock();
+        try {
+            long segmenAwal = jurnal.rotasi();
+            Path sementara = direktori.resolve(BERKAS_SNAPSHOT + ".tmp");
+            tulisSnapshot(sementara, segmenAwal);
+            Files.move(sementara, direktori.resolve(BERKAS_SNAPSHOT),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            fsyncDirektori();
+            jurnal.hapusSegmenSebelum(segmenAwal);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lockSnapshot.unlock();
+        }
+    }
+    public void jadwalkanSnapshot(Duration interval) {
+        if (penjadwalSnapshot != null) {
+            penjadwalSnapshot.shutdownNow();
+        }
+        penjadwalSnapshot = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jurnal-mutasi-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long milidetik = interval.toMillis();
+        penjadwalSnapshot.scheduleWithFixedDelay(this::snapshot, milidetik, milidetik, TimeUnit.MILLISECONDS);
+    }
+    public long jumlahFsync() {
+        return jurnal.jumlahFsync();
+    }
+    public long jumlahRekamanDicatat() {
+        return jurnal.jumlahRekaman();
+    }
+    public long jumlahRekamanDipulihkan() {
+        return rekamanDipulihkan;
+    }
+    @Override
+    public void close() {
+        if (penjadwalSnapshot != null) {
+            penjadwalSnapshot.shutdownNow();
+        }
+        jurnal.close();
+    }
+    private interface Mutasi {
+        byte[] jalankan();
+    }
+    private interface MutasiStok {
+        int jalankan();
+    }
+    private boolean catatJikaBerhasil(String kode, Mutasi mutasi) {
+        long lsn;
+        ReentrantLock kunci = stripe[indeksStripe(kode)];
+        kunci.lock();
+        try {
+            byte[] rekaman = mutasi.jalankan();
+            if (rekaman == null) {
+                return false;
+            }
+            lsn = jurnal.tambah(rekaman);
+        } finally {
+            kunci.unlock();
+        }
+        jurnal.tunggu(lsn);
+        return true;
+    }
+    private int catatStok(String kode, MutasiStok mutasi) {
+        long lsn;
+        int hasil;
+        ReentrantLock kunci = stripe[indeksStripe(kode)];
+        kunci.lock();
+        try {
+            hasil = mutasi.jalankan();
+            if (hasil < 0) {
+                return hasil;
+            }
+            lsn = jurnal.tambah(RekamanJurnal.stok(kode, hasil));
+        } finally {
+            kunci.unlock();
+        }
+        jurnal.tunggu(lsn);
+        return hasil;
+    }
+    private static int indeksStripe(String kode) {
+        int h = kode == null ? 0 : kode.hashCode();
+        return (h ^ (h >>> 16)) & (JUMLAH_STRIPE - 1);
+    }
+    // Mengembalikan {nomor segmen untuk jurnal baru, jumlah rekaman yang diputar ulang}
+    private long[] pulihkan() throws IOException {
+        long segmenAwal = 0;
+        long jumlah = 0;
+        Path snapshot = direktori.resolve(BERKAS_SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            long[] hasil = bacaSnapshot(snapshot);
+            segmenAwal = hasil[0];
+            jumlah = hasil[1];
+        }
+        Files.deleteIfExists(direktori.resolve(BERKAS_SNAPSHOT + ".tmp"));
+        List<Path> segmen = JurnalMutasi.daftarSegmen(direktori);
+        long berikutnya = segmenAwal;
+        for (int i = 0; i < segmen.size(); i++) {
+            Path berkas = segmen.get(i);
+            long nomor = JurnalMutasi.nomorSegmen(berkas);
+            if (nomor < segmenAwal) {
+                // Sisa pemotongan jurnal yang terputus, sudah tercakup snapshot
+                Files.delete(berkas);
+                continue;
+            }
+            jumlah += putarUlangSegmen(berkas, i == segmen.size() - 1);
+            berikutnya = nomor + 1;
+        }
+        return new long[] {berikutnya, jumlah};
+    }
+    // Bingkai rusak di segmen terakhir dianggap ekor yang robek saat crash dan dipotong;
+    // di segmen lain berarti jurnal rusak
+    private long putarUlangSegmen(Path berkas, boolean terakhir) throws IOException {
+        long jumlah = 0;
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer isi = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            RekamanJurnal rekaman;
+            while ((rekaman = RekamanJurnal.bacaBingkai(isi)) != null) {
+                rekaman.terapkan(delegate);
+                jumlah++;
+            }
+            if (isi.hasRemaining()) {
+                if (!terakhir) {
+                    throw new IOException("Jurnal rusak di " + berkas + " posisi " + isi.position());
+                }
+                channel.truncate(isi.position());
+                channel.force(true);
+            }
+        }
+        return jumlah;
+    }
+    private long[] bacaSnapshot(Path berkas) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.READ)) {
+            MappedByteBuffer isi = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (isi.remaining() < UKURAN_HEADER_SNAPSHOT || isi.getInt() != MAGIC_SNAPSHOT
+                    || isi.getInt() != VERSI_SNAPSHOT) {
+                throw new IOException("Snapshot tidak valid: " + berkas);
+            }
+            long segmenAwal = isi.getLong();
+            int jumlah = isi.getInt();
+            for (int i = 0; i < jumlah; i++) {
+                RekamanJurnal rekaman = RekamanJurnal.bacaBingkai(isi);
+                if (rekaman == null || rekaman.tipe != RekamanJurnal.SIMPAN) {
+                    throw new IOException("Snapshot rusak: " + berkas);
+                }
+                rekaman.terapkan(delegate);
+            }
+            return new long[] {segmenAwal, jumlah};
+        }
+    }
+    private void tulisSnapshot(Path berkas, long segmenAwal) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Stream<Produk> semua = delegate.alirSemua()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(UKURAN_BATCH_BAWAAN);
+            buffer.position(UKURAN_HEADER_SNAPSHOT);
+            int jumlah = 0;
+            for (Produk produk : (Iterable<Produk>) semua::iterator) {
+                byte[] rekaman = RekamanJurnal.simpan(produk);
+                if (buffer.remaining() < RekamanJurnal.ukuranBingkai(rekaman)) {
+                    tulisPenuh(channel, buffer);
+                    if (buffer.remaining() < RekamanJurnal.ukuranBingkai(rekaman)) {
+                        buffer = ByteBuffer.allocateDirect(RekamanJurnal.ukuranBingkai(rekaman));
+                    }
+                }
+                RekamanJurnal.tulisBingkai(buffer, rekaman);
+                jumlah++;
+            }
+            tulisPenuh(channel, buffer);
+            ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER_SNAPSHOT);
+            header.putInt(MAGIC_SNAPSHOT).putInt(VERSI_SNAPSHOT).putLong(segmenAwal).putInt(jumlah).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+    }
+    private static void tulisPenuh(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    private void fsyncDirektori() {
+        try (FileChannel dir = FileChannel.open(direktori, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Tidak semua platform mengizinkan fsync direktori
+        }
+    }
+}
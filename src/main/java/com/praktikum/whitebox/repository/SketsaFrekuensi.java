@@ -0,0 +1,56 @@
+package com.praktikum.whitebox.repository;
+
+// Count-min sketch 4 baris dengan penghitung jenuh di 15, dipakai sebagai filter penerimaan
+// TinyLFU. Setelah sejumlah sampel semua penghitung dibagi dua agar frekuensi lama memudar.
+// Pembaruan tidak atomik: hasilnya perkiraan, dan itu cukup untuk memutuskan penerimaan
+final class SketsaFrekuensi {
+    private static final int MAKS = 15;
+    private static final int[] BENIH = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+    private final byte[] tabel;
+    private final int mask;
+    private final int ukuranSampel;
+    private int jumlahSampel;
+    SketsaFrekuensi(int kapasitas) {
+        int ukuran = Integer.highestOneBit(Math.max(kapasitas, 16) * 8 - 1) << 1;
+        this.tabel = new byte[ukuran];
+        this.mask = ukuran - 1;
+        this.ukuranSampel = Math.max(kapasitas, 16) * 10;
+    }
+    void catat(Object kunci) {
+        int h = sebar(kunci.hashCode());
+        boolean bertambah = false;
+        for (int benih : BENIH) {
+            int i = indeks(h, benih);
+            if (tabel[i] < MAKS) {
+                tabel[i]++;
+                bertambah = true;
+            }
+        }
+        if (bertambah && ++jumlahSampel >= ukuranSampel) {
+            pudarkan();
+        }
+    }
+    int frekuensi(Object kunci) {
+        int h = sebar(kunci.hashCode());
+        int minimum = MAKS;
+        for (int benih : BENIH) {
+            minimum = Math.min(minimum, tabel[indeks(h, benih)]);
+        }
+        return minimum;
+    }
+    private void pudarkan() {
+        for (int i = 0; i < tabel.length; i++) {
+            tabel[i] = (byte) (tabel[i] >>> 1);
+        }
+        jumlahSampel /= 2;
+    }
+    private int indeks(int h, int benih) {
+        int x = h * benih;
+        return (x ^ (x >>> 15)) & mask;
+    }
+    private static int sebar(int h) {
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        return h ^ (h >>> 16);
+    }
+}
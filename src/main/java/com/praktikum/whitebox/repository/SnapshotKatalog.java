@@ -0,0 +1,427 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.UangUtils;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+// Snapshot katalog biner untuk cadangan dan menyemai replika. Berkas: [int magic][int versi] lalu
+// blok [int crc32c][byte tipe][int jumlah rekaman][int panjang isi][isi], crc mencakup semua byte
+// setelahnya. Satu blok hanya berisi satu jenis rekaman dan berkas ditutup blok AKHIR berisi total
+// rekaman, sehingga berkas yang terpotong terdeteksi. Bilangan bulat ditulis sebagai varint zigzag
+// dan harga sebagai satuan terkecil jika tepat. Teks kategori (kategori produk, kode dan induk
+// kategori) masuk kamus yang dibangun sambil menulis: kemunculan pertama ditulis utuh, berikutnya
+// cukup nomornya. Kamus berlanjut antar blok, jadi blok hanya bisa dibaca berurutan
+public final class SnapshotKatalog {
+    private static final int MAGIC = 0x4B544C47;
+    private static final int VERSI = 1;
+    private static final int UKURAN_HEADER = 8;
+    private static final int UKURAN_KEPALA_BLOK = 13;
+    private static final byte BLOK_KATEGORI = 1;
+    private static final byte BLOK_PRODUK = 2;
+    private static final byte BLOK_AKHIR = 3;
+    private static final int UKURAN_BLOK_MAKS = 64 << 20;
+    private static final int FLAG_AKTIF = 1;
+    private static final int FLAG_HARGA_MENTAH = 2;
+    // Referensi kamus: 0 null, 1 teks baru menyusul, n >= 2 nomor kamus n - 2
+    private static final int REF_NULL = 0;
+    private static final int REF_BARU = 1;
+    public static final int UKURAN_BLOK_BAWAAN = 256 * 1024;
+    public static final int UKURAN_BATCH_IMPOR = 64 * 1024;
+    public record Ringkasan(long jumlahKategori, long jumlahProduk, long ukuranByte) {}
+    private SnapshotKatalog() {}
+    // Tulis semua kategori yang dikenal registri (jika ada) lalu seluruh produk ke berkas. Induk dan
+    // status aktif diambil dari struktur registri, data kategori hanya untuk nama dan deskripsi,
+    // sehingga kategori yang hanya diinternir produk tetapi sudah dipindah atau dinonaktifkan ikut
+    public static Ringkasan ekspor(RepositoryProduk repository, Path berkas) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Stream<Produk> semua = repository.alirSemua()) {
+            Penulis penulis = new Penulis(channel);
+            RegistriKategori registri = repository.registriKategori().orElse(null);
+            if (registri != null) {
+                for (int id = 0; id < registri.jumlah(); id++) {
+                    String kode = registri.kodeById(id);
+                    if (kode == null) {
+                        continue;
+                    }
+                    Kategori data = registri.getKategori(kode).orElse(null);
+                    Kategori kategori = new Kategori(kode, data == null ? null : data.getNama(),
+                            data == null ? null : data.getDeskripsi(), registri.getInduk(kode).orElse(null));
+                    kategori.setAktif(registri.isAktifSendiri(kode));
+                    penulis.tulis(kategori);
+                }
+            }
+            for (Produk produk : (Iterable<Produk>) semua::iterator) {
+                penulis.tulis(produk);
+            }
+            penulis.close();
+            channel.force(true);
+            return penulis.ringkasan();
+        }
+    }
+    // Muat snapshot ke repository: kategori ke registrinya (jika ada), produk lewat simpanBanyak per
+    // batch. Kategori tanpa nama dan deskripsi berasal dari kode yang hanya diinternir, jadi hanya
+    // induk dan statusnya yang dipulihkan tanpa membuat data kategori.
+    // Pemeriksaan checksum berjalan sambil memuat, jadi jika berkas rusak produk dari blok
+    // sebelumnya sudah tersimpan; muat ke repository kosong dan buang jika gagal
+    public static Ringkasan impor(Path berkas, RepositoryProduk repository) throws IOException {
+        RegistriKategori registri = repository.registriKategori().orElse(null);
+        List<Produk> batch = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.READ)) {
+            Ringkasan ringkasan = baca(channel, kategori -> {
+                if (registri == null) {
+                    return;
+                }
+                if (kategori.getNama() != null || kategori.getDeskripsi() != null) {
+                    registri.daftarkan(kategori);
+                } else if (registri.setInduk(kategori.getKode(), kategori.getKodeInduk())) {
+                    registri.setAktif(kategori.getKode(), kategori.isAktif());
+                }
+            }, produk -> {
+                batch.add(produk);
+                if (batch.size() == UKURAN_BATCH_IMPOR) {
+                    repository.simpanBanyak(batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                repository.simpanBanyak(batch);
+            }
+            return ringkasan;
+        }
+    }
+    // Baca snapshot dari channel dan serahkan rekamannya berurutan. IOException jika magic, versi
+    // atau checksum tidak cocok, isi blok rusak, atau aliran berakhir sebelum blok AKHIR
+    public static Ringkasan baca(ReadableByteChannel sumber, Consumer<Kategori> kategori,
+                                 Consumer<Produk> produk) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER);
+        if (!bacaPenuh(sumber, header) || header.getInt(0) != MAGIC || header.getInt(4) != VERSI) {
+            throw new IOException("Bukan snapshot katalog yang dikenal");
+        }
+        long ukuran = UKURAN_HEADER;
+        long jumlahKategori = 0;
+        long jumlahProduk = 0;
+        List<String> kamus = new ArrayList<>();
+        ByteBuffer kepala = ByteBuffer.allocate(UKURAN_KEPALA_BLOK);
+        ByteBuffer isi = ByteBuffer.allocate(UKURAN_BLOK_BAWAAN);
+        CRC32C crc = new CRC32C();
+        while (true) {
+            kepala.clear();
+            if (!bacaPenuh(sumber, kepala)) {
+                throw new IOException("Snapshot terpotong sebelum blok akhir");
+            }
+            byte tipe = kepala.get(4);
+            int jumlah = kepala.getInt(5);
+            int panjang = kepala.getInt(9);
+            if (jumlah < 0 || panjang < 0 || panjang > UKURAN_BLOK_MAKS) {
+                throw new IOException("Kepala blok rusak pada byte " + ukuran);
+            }
+            if (isi.capacity() < panjang) {
+                isi = ByteBuffer.allocate(panjang);
+            }
+            isi.clear().limit(panjang);
+            if (!bacaPenuh(sumber, isi)) {
+                throw new IOException("Snapshot terpotong pada byte " + ukuran);
+            }
+            crc.reset();
+            crc.update(kepala.array(), 4, UKURAN_KEPALA_BLOK - 4);
+            crc.update(isi.array(), 0, panjang);
+            if ((int) crc.getValue() != kepala.getInt(0)) {
+                throw new IOException("Checksum blok tidak cocok pada byte " + ukuran);
+            }
+            ukuran += UKURAN_KEPALA_BLOK + panjang;
+            isi.flip();
+            try {
+                if (tipe == BLOK_AKHIR) {
+                    if (bacaVarLong(isi) != jumlahKategori || bacaVarLong(isi) != jumlahProduk || isi.hasRemaining()) {
+                        throw new IOException("Jumlah rekaman tidak cocok dengan blok akhir");
+                    }
+                    return new Ringkasan(jumlahKategori, jumlahProduk, ukuran);
+                }
+                if (tipe != BLOK_KATEGORI && tipe != BLOK_PRODUK) {
+                    throw new IOException("Tipe blok tidak dikenal: " + tipe);
+                }
+                for (int i = 0; i < jumlah; i++) {
+                    if (tipe == BLOK_KATEGORI) {
+                        kategori.accept(bacaKategori(isi, kamus));
+                    } else {
+                        produk.accept(bacaProduk(isi, kamus));
+                    }
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+                throw new IOException("Isi blok rusak sebelum byte " + ukuran, e);
+            }
+            if (isi.hasRemaining()) {
+                throw new IOException("Sisa byte di akhir blok sebelum byte " + ukuran);
+            }
+            if (tipe == BLOK_KATEGORI) {
+                jumlahKategori += jumlah;
+            } else {
+                jumlahProduk += jumlah;
+            }
+        }
+    }
+    // Kirim berkas snapshot ke channel lain (soket replika, berkas cadangan) lewat transferTo,
+    // sehingga kernel menyalin langsung tanpa melewati buffer di heap
+    public static long kirim(Path berkas, WritableByteChannel tujuan) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.READ)) {
+            long ukuran = channel.size();
+            long posisi = 0;
+            while (posisi < ukuran) {
+                posisi += channel.transferTo(posisi, ukuran - posisi, tujuan);
+            }
+            return ukuran;
+        }
+    }
+    // Terima snapshot dari channel blocking sampai habis dan tulis ke berkas lewat transferFrom.
+    // Isinya tidak diperiksa di sini; checksum diperiksa saat impor
+    public static long terima(ReadableByteChannel sumber, Path berkas) throws IOException {
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long posisi = 0;
+            long dipindah;
+            while ((dipindah = channel.transferFrom(sumber, posisi, UKURAN_BLOK_MAKS)) > 0) {
+                posisi += dipindah;
+            }
+            channel.force(true);
+            return posisi;
+        }
+    }
+    // Penulis streaming: rekaman dikodekan langsung ke buffer direct dan blok ditulis ke channel
+    // saat penuh atau jenis rekaman berganti. close menulis blok AKHIR tetapi tidak menutup channel
+    public static final class Penulis implements AutoCloseable {
+        private final WritableByteChannel tujuan;
+        private final Map<String, Integer> kamus = new HashMap<>();
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer blok;
+        private byte tipeBlok;
+        private int jumlahBlok;
+        private long jumlahKategori;
+        private long jumlahProduk;
+        private long ukuran;
+        private boolean ditutup;
+        public Penulis(WritableByteChannel tujuan) throws IOException {
+            this(tujuan, UKURAN_BLOK_BAWAAN);
+        }
+        public Penulis(WritableByteChannel tujuan, int ukuranBlok) throws IOException {
+            if (ukuranBlok <= 0 || ukuranBlok > UKURAN_BLOK_MAKS) {
+                throw new IllegalArgumentException("Ukuran blok tidak valid");
+            }
+            this.tujuan = tujuan;
+            this.blok = ByteBuffer.allocateDirect(UKURAN_KEPALA_BLOK + ukuranBlok);
+            ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER).putInt(MAGIC).putInt(VERSI).flip();
+            while (header.hasRemaining()) {
+                tujuan.write(header);
+            }
+            ukuran = UKURAN_HEADER;
+            blok.position(UKURAN_KEPALA_BLOK);
+        }
+        public void tulis(Kategori kategori) throws IOException {
+            byte[] kode = kamus.containsKey(kategori.getKode()) ? null : utf8(kategori.getKode());
+            byte[] nama = utf8(kategori.getNama());
+            byte[] deskripsi = utf8(kategori.getDeskripsi());
+            byte[] induk = kamus.containsKey(kategori.getKodeInduk()) ? null : utf8(kategori.getKodeInduk());
+            siapkan(BLOK_KATEGORI, 25 + panjang(kode) + panjang(nama) + panjang(deskripsi) + panjang(induk));
+            tulisRef(kategori.getKode(), kode);
+            tulisTeks(nama);
+            tulisTeks(deskripsi);
+            tulisRef(kategori.getKodeInduk(), induk);
+            blok.put((byte) (kategori.isAktif() ? FLAG_AKTIF : 0));
+            jumlahBlok++;
+            jumlahKategori++;
+        }
+        public void tulis(Produk produk) throws IOException {
+            byte[] kode = utf8(produk.getKode());
+            byte[] nama = utf8(produk.getNama());
+            byte[] kategori = kamus.containsKey(produk.getKategori()) ? null : utf8(produk.getKategori());
+            siapkan(BLOK_PRODUK, 36 + panjang(kode) + panjang(nama) + panjang(kategori));
+            tulisTeks(kode);
+            tulisTeks(nama);
+            tulisRef(produk.getKategori(), kategori);
+            long minor = produk.getHargaMinor();
+            boolean tepat = Double.doubleToLongBits(UangUtils.keDouble(minor)) == Double.doubleToLongBits(produk.getHarga());
+            blok.put((byte) ((produk.isAktif() ? FLAG_AKTIF : 0) | (tepat ? 0 : FLAG_HARGA_MENTAH)));
+            if (tepat) {
+                tulisVarLong(zigzag(minor));
+            } else {
+                blok.putDouble(produk.getHarga());
+            }
+            tulisVarLong(zigzag(produk.getStok()));
+            tulisVarLong(zigzag(produk.getStokMinimum()));
+            jumlahBlok++;
+            jumlahProduk++;
+        }
+        public Ringkasan ringkasan() {
+            return new Ringkasan(jumlahKategori, jumlahProduk, ukuran);
+        }
+        @Override
+        public void close() throws IOException {
+            if (ditutup) {
+                return;
+            }
+            siapkan(BLOK_AKHIR, 20);
+            tulisVarLong(jumlahKategori);
+            tulisVarLong(jumlahProduk);
+            kirimBlok();
+            ditutup = true;
+        }
+        // Pastikan blok berjalan bertipe ini dan masih muat perlu byte
+        private void siapkan(byte tipe, int perlu) throws IOException {
+            if (ditutup) {
+                throw new IllegalStateException("Penulis snapshot sudah ditutup");
+            }
+            if (tipe != tipeBlok && jumlahBlok > 0 || blok.remaining() < perlu) {
+                kirimBlok();
+            }
+            if (blok.remaining() < perlu) {
+                blok = ByteBuffer.allocateDirect(UKURAN_KEPALA_BLOK + perlu);
+                blok.position(UKURAN_KEPALA_BLOK);
+            }
+            tipeBlok = tipe;
+        }
+        private void kirimBlok() throws IOException {
+            if (jumlahBlok == 0 && tipeBlok != BLOK_AKHIR) {
+                return;
+            }
+            blok.flip();
+            blok.put(4, tipeBlok).putInt(5, jumlahBlok).putInt(9, blok.limit() - UKURAN_KEPALA_BLOK);
+            crc.reset();
+            crc.update(blok.slice(4, blok.limit() - 4));
+            blok.putInt(0, (int) crc.getValue());
+            ukuran += blok.limit();
+            while (blok.hasRemaining()) {
+                tujuan.write(blok);
+            }
+            blok.clear().position(UKURAN_KEPALA_BLOK);
+            jumlahBlok = 0;
+        }
+        // teks sudah dikodekan hanya jika belum ada di kamus
+        private void tulisRef(String nilai, byte[] teks) {
+            if (nilai == null) {
+                tulisVarLong(REF_NULL);
+                return;
+            }
+            Integer nomor = kamus.get(nilai);
+            if (nomor != null) {
+                tulisVarLong(nomor + 2L);
+                return;
+            }
+            kamus.put(nilai, kamus.size());
+            tulisVarLong(REF_BARU);
+            tulisTeks(teks);
+        }
+        // Panjang + 1 sebagai varint, 0 untuk null
+        private void tulisTeks(byte[] teks) {
+            if (teks == null) {
+                tulisVarLong(0);
+                return;
+            }
+            tulisVarLong(teks.length + 1L);
+            blok.put(teks);
+        }
+        private void tulisVarLong(long nilai) {
+            while ((nilai & ~0x7FL) != 0) {
+                blok.put((byte) ((nilai & 0x7F) | 0x80));
+                nilai >>>= 7;
+            }
+            blok.put((byte) nilai);
+        }
+    }
+    private static Kategori bacaKategori(ByteBuffer isi, List<String> kamus) {
+        String kode = bacaRef(isi, kamus);
+        Kategori kategori = new Kategori(kode, bacaTeks(isi), bacaTeks(isi), null);
+        kategori.setKodeInduk(bacaRef(isi, kamus));
+        kategori.setAktif((isi.get() & FLAG_AKTIF) != 0);
+        return kategori;
+    }
+    private static Produk bacaProduk(ByteBuffer isi, List<String> kamus) {
+        String kode = bacaTeks(isi);
+        String nama = bacaTeks(isi);
+        String kategori = bacaRef(isi, kamus);
+        int flag = isi.get();
+        double harga = (flag & FLAG_HARGA_MENTAH) != 0 ? isi.getDouble() : UangUtils.keDouble(unzigzag(bacaVarLong(isi)));
+        Produk produk = new Produk(kode, nama, kategori, harga,
+                Math.toIntExact(unzigzag(bacaVarLong(isi))), Math.toIntExact(unzigzag(bacaVarLong(isi))));
+        produk.setAktif((flag & FLAG_AKTIF) != 0);
+        return produk;
+    }
+    private static String bacaRef(ByteBuffer isi, List<String> kamus) {
+        long ref = bacaVarLong(isi);
+        if (ref == REF_NULL) {
+            return null;
+        }
+        if (ref == REF_BARU) {
+            String teks = bacaTeks(isi);
+            if (teks == null) {
+                throw new IllegalArgumentException("Entri kamus null");
+            }
+            kamus.add(teks);
+            return teks;
+        }
+        if (ref < 0 || ref - 2 >= kamus.size()) {
+            throw new IllegalArgumentException("Nomor kamus di luar jangkauan: " + (ref - 2));
+        }
+        return kamus.get((int) (ref - 2));
+    }
+    private static String bacaTeks(ByteBuffer isi) {
+        long panjang = bacaVarLong(isi);
+        if (panjang == 0) {
+            return null;
+        }
+        if (panjang < 0 || panjang - 1 > isi.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int n = (int) (panjang - 1);
+        String teks = new String(isi.array(), isi.arrayOffset() + isi.position(), n, StandardCharsets.UTF_8);
+        isi.position(isi.position() + n);
+        return teks;
+    }
+    private static long bacaVarLong(ByteBuffer isi) {
+        long hasil = 0;
+        for (int geser = 0; geser < 64; geser += 7) {
+            byte b = isi.get();
+            hasil |= (long) (b & 0x7F) << geser;
+            if (b >= 0) {
+                return hasil;
+            }
+        }
+        throw new IllegalArgumentException("Varint terlalu panjang");
+    }
+    private static long zigzag(long nilai) {
+        return (nilai << 1) ^ (nilai >> 63);
+    }
+    private static long unzigzag(long nilai) {
+        return (nilai >>> 1) ^ -(nilai & 1);
+    }
+    // Mengembalikan false jika aliran habis sebelum buffer penuh
+    private static boolean bacaPenuh(ReadableByteChannel sumber, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (sumber.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    private static byte[] utf8(String teks) {
+        return teks == null ? null : teks.getBytes(StandardCharsets.UTF_8);
+    }
+    // Batas atas varint panjang (5 byte) ditambah isinya
+    private static int panjang(byte[] teks) {
+        return 5 + (teks == null ? 0 : teks.length);
+    }
+}
@@ -0,0 +1,54 @@
+package com.praktikum.whitebox.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+// Jalur Vector API untuk diskon massal. Hanya dimuat jika modul jdk.incubator.vector tersedia
+// (lihat KalkulatorDiskon.isVektorTersedia). Tingkat kuantitas dihitung dengan membandingkan
+// semua ambang sekaligus, persentase diambil dengan gather dari matriks TabelDiskon, dan urutan
+// operasi perkalian sama dengan versi skalar sehingga hasilnya identik per bit
+final class DiskonVektor {
+    private static final VectorSpecies<Double> SPESIES = DoubleVector.SPECIES_PREFERRED;
+    // Jumlah lajur int harus sama dengan lajur double, jadi bentuknya setengah lebar bit
+    private static final VectorSpecies<Integer> SPESIES_INT = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(SPESIES.vectorBitSize() / 2));
+    private DiskonVektor() {}
+    // Mengembalikan indeks pertama yang belum diproses
+    static int hitung(TabelDiskon tabel, double[] harga, int[] kuantitas, byte[] tipe, double[] keluaran,
+                      boolean kurangkan) {
+        int[] ambang = tabel.ambang();
+        double[] matriks = tabel.matriks();
+        int lebar = SPESIES.length();
+        int[] kolomSementara = new int[lebar];
+        int[] indeks = new int[lebar];
+        int batas = SPESIES.loopBound(harga.length);
+        int i = 0;
+        for (; i < batas; i += lebar) {
+            DoubleVector h = DoubleVector.fromArray(SPESIES, harga, i);
+            IntVector q = IntVector.fromArray(SPESIES_INT, kuantitas, i);
+            if (h.compare(VectorOperators.LE, 0).anyTrue() || q.compare(VectorOperators.LE, 0).anyTrue()) {
+                throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+            }
+            IntVector tingkat = IntVector.zero(SPESIES_INT);
+            for (int a : ambang) {
+                tingkat = tingkat.add(1, q.compare(VectorOperators.GE, a));
+            }
+            for (int l = 0; l < lebar; l++) {
+                kolomSementara[l] = tipe[i + l];
+            }
+            IntVector kolom = IntVector.fromArray(SPESIES_INT, kolomSementara, 0);
+            VectorMask<Integer> tanpaTipe = kolom.compare(VectorOperators.LT, 0)
+                    .or(kolom.compare(VectorOperators.GE, TabelDiskon.KOLOM_TANPA_TIPE));
+            kolom = kolom.blend(TabelDiskon.KOLOM_TANPA_TIPE, tanpaTipe);
+            tingkat.mul(TabelDiskon.JUMLAH_KOLOM).add(kolom).intoArray(indeks, 0);
+            DoubleVector persentase = DoubleVector.fromArray(SPESIES, matriks, 0, indeks, 0);
+            DoubleVector total = h.mul((DoubleVector) q.castShape(SPESIES, 0));
+            DoubleVector diskon = total.mul(persentase);
+            (kurangkan ? total.sub(diskon) : diskon).intoArray(keluaran, i);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,21 @@
+package com.praktikum.whitebox.service;
+
+// Status operasi tunggal ServiceInventaris beserta stok produk saat itu, supaya pemanggil tidak
+// perlu mencari produk lagi untuk tahu alasan kegagalan. Stok adalah stok baru jika berhasil, stok
+// saat ini jika gagal karena keadaan produk, atau STOK_TIDAK_DIKETAHUI jika produk tidak terbaca.
+// Hasil tanpa stok dialokasikan sekali per status
+public record HasilOperasi(StatusOperasi status, int stok) {
+    public static final int STOK_TIDAK_DIKETAHUI = Integer.MIN_VALUE;
+    private static final HasilOperasi[] TANPA_STOK = new HasilOperasi[StatusOperasi.values().length];
+    static {
+        for (StatusOperasi status : StatusOperasi.values()) {
+            TANPA_STOK[status.ordinal()] = new HasilOperasi(status, STOK_TIDAK_DIKETAHUI);
+        }
+    }
+    public static HasilOperasi tanpaStok(StatusOperasi status) {
+        return TANPA_STOK[status.ordinal()];
+    }
+    public boolean isBerhasil() {
+        return status.isBerhasil();
+    }
+}
@@ -1,40 +1,93 @@
 package com.praktikum.whitebox.service;
 
+import com.praktikum.whitebox.util.UangUtils;
 public class KalkulatorDiskon {
+    // Modul inkubator Vector API hanya ada jika JVM dijalankan dengan --add-modules jdk.incubator.vector
+    private static final boolean VEKTOR_TERSEDIA = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    // Diganti utuh saat dimuat ulang sehingga setiap perhitungan melihat satu tabel yang konsisten
+    private volatile TabelDiskon tabel;
+    public KalkulatorDiskon() {
+        this(TabelDiskon.bawaan());
+    }
+    public KalkulatorDiskon(TabelDiskon tabel) {
+        muatUlangTabel(tabel);
+    }
+    public void muatUlangTabel(TabelDiskon tabelBaru) {
+        if (tabelBaru == null) {
+            throw new IllegalArgumentException("Tabel diskon tidak boleh null");
+        }
+        this.tabel = tabelBaru;
+    }
+    public TabelDiskon getTabel() {
+        return tabel;
+    }
     public double hitungDiskon(double harga, int kuantitas, String
             tipePelanggan) {
         if (harga <= 0 || kuantitas <= 0) {
             throw new IllegalArgumentException("Harga dan kuantitas harus positif");
         }
-        double diskon = 0.0;
-// Diskon berdasarkan kuantitas
-        if (kuantitas >= 100) {
-            diskon += 0.20; // 20%
-        } else if (kuantitas >= 50) {
-            diskon += 0.15; // 15%
-        } else if (kuantitas >= 10) {
-            diskon += 0.10; // 10%
-        } else if (kuantitas >= 5) {
-            diskon += 0.05; // 5%
-        }
-// Diskon berdasarkan tipe pelanggan
-        if ("PREMIUM".equalsIgnoreCase(tipePelanggan)) {
-            diskon += 0.10; // 10% tambahan
-        } else if ("REGULER".equalsIgnoreCase(tipePelanggan)) {
-            diskon += 0.05; // 5% tambahan
-        } else if ("BARU".equalsIgnoreCase(tipePelanggan)) {
-            diskon += 0.02; // 2% tambahan
-        }
-// Maksimal diskon 30%
-        diskon = Math.min(diskon, 0.30);
-        return harga * kuantitas * diskon;
+        return harga * kuantitas * tabel.persentase(kuantitas, TipePelanggan.dari(tipePelanggan));
+    }
+    // Jalur tanpa perbandingan string untuk pemanggil yang sudah memegang tipe pelanggan
+    public double hitungDiskon(double harga, int kuantitas, TipePelanggan tipePelanggan) {
+        if (harga <= 0 || kuantitas <= 0) {
+            throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+        }
+        return harga * kuantitas * tabel.persentase(kuantitas, tipePelanggan);
     }
     public double hitungHargaSetelahDiskon(double harga, int kuantitas,
                                            String tipePelanggan) {
+        if (harga <= 0 || kuantitas <= 0) {
+            throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+        }
         double totalSebelumDiskon = harga * kuantitas;
-        double diskon = hitungDiskon(harga, kuantitas, tipePelanggan);
+        double diskon = totalSebelumDiskon * tabel.persentase(kuantitas, TipePelanggan.dari(tipePelanggan));
         return totalSebelumDiskon - diskon;
     }
+    // Versi uang tepat: harga dalam satuan terkecil, diskon dalam basis poin dibulatkan setengah
+    // ke atas ke satuan terkecil. ArithmeticException jika harga x kuantitas melampaui long
+    public long hitungDiskonMinor(long hargaMinor, int kuantitas, TipePelanggan tipePelanggan) {
+        if (hargaMinor <= 0 || kuantitas <= 0) {
+            throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+        }
+        return UangUtils.kaliBasisPoin(Math.multiplyExact(hargaMinor, kuantitas),
+                tabel.basisPoin(kuantitas, tipePelanggan));
+    }
+    public long hitungHargaSetelahDiskonMinor(long hargaMinor, int kuantitas, TipePelanggan tipePelanggan) {
+        if (hargaMinor <= 0 || kuantitas <= 0) {
+            throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+        }
+        long total = Math.multiplyExact(hargaMinor, kuantitas);
+        return total - UangUtils.kaliBasisPoin(total, tabel.basisPoin(kuantitas, tipePelanggan));
+    }
+    // Versi massal dari hitungDiskon. tipe berisi ordinal TipePelanggan; nilai lain (misalnya -1)
+    // berarti tanpa tipe. Hasil per baris identik dengan versi satuan dan ditulis ke diskonKeluar
+    public void hitungDiskonMassal(double[] harga, int[] kuantitas, byte[] tipe, double[] diskonKeluar) {
+        hitungMassal(harga, kuantitas, tipe, diskonKeluar, false);
+    }
+    public void hitungHargaSetelahDiskonMassal(double[] harga, int[] kuantitas, byte[] tipe, double[] hargaKeluar) {
+        hitungMassal(harga, kuantitas, tipe, hargaKeluar, true);
+    }
+    public static boolean isVektorTersedia() {
+        return VEKTOR_TERSEDIA;
+    }
+    // Jalur vektor memproses kelipatan lebar vektor, sisanya (atau semuanya jika modul tidak ada)
+    // dihitung skalar. Jika ada baris tidak valid, isi keluaran tidak terdefinisi
+    private void hitungMassal(double[] harga, int[] kuantitas, byte[] tipe, double[] keluaran, boolean kurangkan) {
+        if (kuantitas.length != harga.length || tipe.length != harga.length || keluaran.length < harga.length) {
+            throw new IllegalArgumentException("Panjang array tidak sesuai");
+        }
+        TabelDiskon t = tabel;
+        int i = VEKTOR_TERSEDIA ? DiskonVektor.hitung(t, harga, kuantitas, tipe, keluaran, kurangkan) : 0;
+        for (; i < harga.length; i++) {
+            if (harga[i] <= 0 || kuantitas[i] <= 0) {
+                throw new IllegalArgumentException("Harga dan kuantitas harus positif");
+            }
+            double total = harga[i] * kuantitas[i];
+            double diskon = total * t.persentase(kuantitas[i], tipe[i]);
+            keluaran[i] = kurangkan ? total - diskon : diskon;
+        }
+    }
     public String getKategoriDiskon(double persentaseDiskon) {
         if (persentaseDiskon <= 0) {
             return "TANPA_DISKON";
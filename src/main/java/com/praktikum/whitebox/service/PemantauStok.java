@@ -0,0 +1,168 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.PeristiwaStok;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.StatusStok;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+// Aliran peringatan stok. Service melapor perpindahan status saat mutasi; peristiwa ditampung per
+// kode lalu dikirim ke pelanggan dalam batch. Jika pelanggan lambat, pengiriman batch menunggu
+// (backpressure bawaan SubmissionPublisher) sementara peristiwa baru untuk kode yang sama digabung,
+// sehingga pemanggil mutasi tidak pernah terblokir dan antrean paling banyak satu entri per kode.
+// Laporan mutasi bisa tiba tidak sesuai urutan mutasinya. Rantai yang putus (status lama laporan
+// tidak sama dengan status baru sebelumnya, baik yang masih tertunda maupun yang terakhir dikirim)
+// diselesaikan dengan membaca stok terkini dari sumber saat pengantaran
+public class PemantauStok implements Flow.Publisher<List<PeristiwaStok>>, AutoCloseable {
+    public static final int UKURAN_BATCH_BAWAAN = 256;
+    private final SubmissionPublisher<List<PeristiwaStok>> penerbit;
+    private final Executor executor;
+    private final int ukuranBatchMaks;
+    private record Tertunda(PeristiwaStok peristiwa, boolean rantaiPutus) {}
+    private final Map<String, Tertunda> tertunda = new ConcurrentHashMap<>();
+    // Status baru terakhir yang dikirim per kode; diisi pengantar di bawah lockAntar dan dibuang
+    // lewat lupakan saat produknya dihapus
+    private final Map<String, StatusStok> statusTerkirim = new ConcurrentHashMap<>();
+    private volatile Function<String, Optional<Produk>> sumberStok;
+    private final AtomicBoolean mengantar = new AtomicBoolean();
+    // Dipegang selama batch dikirim agar close tidak menutup penerbit di tengah pengiriman
+    private final ReentrantLock lockAntar = new ReentrantLock();
+    private final AtomicLong jumlahDigabung = new AtomicLong();
+    private final AtomicLong jumlahBatch = new AtomicLong();
+    private volatile boolean ditutup;
+    public PemantauStok() {
+        this(r -> Thread.ofVirtual().name("pemantau-stok").start(r), UKURAN_BATCH_BAWAAN, Flow.defaultBufferSize());
+    }
+    // Executor dipakai untuk mengantar batch dan mengirim ke pelanggan; jangan berikan executor
+    // satu thread karena pengantar bisa menunggu pelanggan di executor yang sama
+    public PemantauStok(Executor executor, int ukuranBatchMaks, int kapasitasBuffer) {
+        if (ukuranBatchMaks <= 0 || kapasitasBuffer <= 0) {
+            throw new IllegalArgumentException("Ukuran batch dan kapasitas buffer harus positif");
+        }
+        this.executor = executor;
+        this.ukuranBatchMaks = ukuranBatchMaks;
+        this.penerbit = new SubmissionPublisher<>(executor, kapasitasBuffer);
+    }
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<PeristiwaStok>> subscriber) {
+        penerbit.subscribe(subscriber);
+    }
+    // Sumber stok terkini untuk menyelesaikan rantai yang putus; ServiceInventaris memasangnya.
+    // Tanpa sumber, peristiwa dikirim apa adanya
+    public void hubungkanSumber(Function<String, Optional<Produk>> sumberStok) {
+        this.sumberStok = sumberStok;
+    }
+    // Catat perpindahan status; tidak melakukan apa pun jika status tidak berubah
+    public void catat(String kode, StatusStok statusLama, StatusStok statusBaru, int stok) {
+        if (statusLama == statusBaru || ditutup) {
+            return;
+        }
+        Tertunda peristiwa = new Tertunda(new PeristiwaStok(kode, statusLama, statusBaru, stok), false);
+        // Peristiwa yang belum terkirim digabung: status lama dari yang pertama, status baru dari yang terakhir
+        tertunda.merge(kode, peristiwa, (lama, baru) -> {
+            jumlahDigabung.incrementAndGet();
+            PeristiwaStok a = lama.peristiwa();
+            PeristiwaStok b = baru.peristiwa();
+            return new Tertunda(new PeristiwaStok(kode, a.statusLama(), b.statusBaru(), b.stok()),
+                    lama.rantaiPutus() || a.statusBaru() != b.statusLama());
+        });
+        jadwalkanPengantaran();
+    }
+    // Buang jejak kode yang produknya dihapus agar peta tidak tumbuh dengan seluruh katalog dan
+    // produk baru dengan kode yang sama tidak dianggap rantai putus. Tidak menunggu lockAntar;
+    // jika pengantar mencatat kode ini lagi bersamaan, akibatnya hanya satu bacaan ulang tambahan
+    public void lupakan(String kode) {
+        tertunda.remove(kode);
+        statusTerkirim.remove(kode);
+    }
+    public int getJumlahPelanggan() {
+        return penerbit.getNumberOfSubscribers();
+    }
+    public int getJumlahTertunda() {
+        return tertunda.size();
+    }
+    public long getJumlahDigabung() {
+        return jumlahDigabung.get();
+    }
+    public long getJumlahBatch() {
+        return jumlahBatch.get();
+    }
+    // Antar sisa peristiwa lalu selesaikan semua pelanggan dengan onComplete. Menunggu pengiriman
+    // yang sedang berjalan, jadi bisa tertahan selama pelanggan belum meminta data lagi
+    @Override
+    public void close() {
+        ditutup = true;
+        lockAntar.lock();
+        try {
+            antarSemua();
+            penerbit.close();
+        } finally {
+            lockAntar.unlock();
+        }
+    }
+    private void jadwalkanPengantaran() {
+        if (mengantar.compareAndSet(false, true)) {
+            executor.execute(this::antarkan);
+        }
+    }
+    private void antarkan() {
+        do {
+            lockAntar.lock();
+            try {
+                antarSemua();
+            } finally {
+                lockAntar.unlock();
+                mengantar.set(false);
+            }
+            // Peristiwa yang masuk setelah antrean terlihat kosong tapi sebelum bendera dilepas
+        } while (!tertunda.isEmpty() && !ditutup && mengantar.compareAndSet(false, true));
+    }
+    // Sambungkan peristiwa ke status terakhir yang dikirim. Jika rantainya putus, status baru dan
+    // stok diambil dari bacaan terkini; produk yang sudah hilang tidak dilaporkan lagi
+    private PeristiwaStok urutkan(Tertunda entri) {
+        PeristiwaStok peristiwa = entri.peristiwa();
+        String kode = peristiwa.kode();
+        StatusStok terkirim = statusTerkirim.get(kode);
+        Function<String, Optional<Produk>> sumber = sumberStok;
+        boolean putus = entri.rantaiPutus() || terkirim != null && terkirim != peristiwa.statusLama();
+        if (!putus || sumber == null) {
+            return peristiwa;
+        }
+        StatusStok statusLama = terkirim != null ? terkirim : peristiwa.statusLama();
+        Optional<Produk> produk = sumber.apply(kode);
+        if (produk.isEmpty()) {
+            statusTerkirim.remove(kode);
+            return null;
+        }
+        return new PeristiwaStok(kode, statusLama, produk.get().getStatusStok(), produk.get().getStok());
+    }
+    private void antarSemua() {
+        while (!tertunda.isEmpty() && !penerbit.isClosed()) {
+            List<PeristiwaStok> batch = new ArrayList<>(Math.min(ukuranBatchMaks, tertunda.size()));
+            Iterator<String> kode = tertunda.keySet().iterator();
+            while (kode.hasNext() && batch.size() < ukuranBatchMaks) {
+                Tertunda entri = tertunda.remove(kode.next());
+                PeristiwaStok peristiwa = entri == null ? null : urutkan(entri);
+                // Naik lalu turun kembali ke status semula tidak perlu dilaporkan
+                if (peristiwa != null && peristiwa.isBerubah()) {
+                    batch.add(peristiwa);
+                    statusTerkirim.put(peristiwa.kode(), peristiwa.statusBaru());
+                }
+            }
+            if (!batch.isEmpty()) {
+                jumlahBatch.incrementAndGet();
+                penerbit.submit(List.copyOf(batch));
+            }
+        }
+    }
+}
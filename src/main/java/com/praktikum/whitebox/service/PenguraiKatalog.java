@@ -0,0 +1,179 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.List;
+// Pengurai satu baris katalog menjadi Produk. Baris yang tidak bisa diurai melempar
+// IllegalArgumentException; validasi nilai bisnis tetap lewat ValidationUtils.
+// CSV: kode,nama,kategori,harga,stok,stokMinimum[,aktif], field boleh diapit tanda kutip ganda
+// dengan "" sebagai kutip di dalamnya (satu rekaman per baris).
+// JSONL: satu objek datar per baris dengan kunci yang sama; kunci lain diabaikan
+final class PenguraiKatalog {
+    private static final String[] KOLOM = {"kode", "nama", "kategori", "harga", "stok", "stokMinimum", "aktif"};
+    private PenguraiKatalog() {}
+    static boolean isHeaderCsv(String baris) {
+        List<String> field = pisahCsv(baris);
+        return !field.isEmpty() && field.get(0).equalsIgnoreCase(KOLOM[0]);
+    }
+    static Produk uraiCsv(String baris) {
+        List<String> field = pisahCsv(baris);
+        if (field.size() != 6 && field.size() != 7) {
+            throw new IllegalArgumentException("Jumlah kolom harus 6 atau 7");
+        }
+        return buatProduk(field.toArray(new String[KOLOM.length]));
+    }
+    static Produk uraiJsonl(String baris) {
+        String[] nilai = new String[KOLOM.length];
+        int i = lewatiSpasi(baris, 0);
+        i = harus(baris, i, '{');
+        i = lewatiSpasi(baris, i);
+        if (i < baris.length() && baris.charAt(i) == '}') {
+            i++;
+        } else {
+            while (true) {
+                StringBuilder kunci = new StringBuilder();
+                i = lewatiSpasi(baris, bacaString(baris, harus(baris, i, '"'), kunci));
+                i = lewatiSpasi(baris, harus(baris, i, ':'));
+                StringBuilder isi = new StringBuilder();
+                if (i < baris.length() && baris.charAt(i) == '"') {
+                    i = bacaString(baris, i + 1, isi);
+                } else {
+                    int awal = i;
+                    while (i < baris.length() && ",} \t".indexOf(baris.charAt(i)) < 0) {
+                        i++;
+                    }
+                    String literal = baris.substring(awal, i);
+                    if (literal.isEmpty()) {
+                        throw new IllegalArgumentException("Nilai kosong untuk " + kunci);
+                    }
+                    isi = "null".equals(literal) ? null : isi.append(literal);
+                }
+                int kolom = indeksKolom(kunci.toString());
+                if (kolom >= 0) {
+                    nilai[kolom] = isi == null ? null : isi.toString();
+                }
+                i = lewatiSpasi(baris, i);
+                if (i < baris.length() && baris.charAt(i) == ',') {
+                    i = lewatiSpasi(baris, i + 1);
+                    continue;
+                }
+                i = harus(baris, i, '}');
+                break;
+            }
+        }
+        if (lewatiSpasi(baris, i) != baris.length()) {
+            throw new IllegalArgumentException("Karakter tersisa setelah objek");
+        }
+        return buatProduk(nilai);
+    }
+    // Kolom teks tidak diperiksa di sini; harga harus hingga, stok dan stokMinimum bilangan bulat
+    private static Produk buatProduk(String[] nilai) {
+        for (int k = 3; k <= 5; k++) {
+            if (nilai[k] == null) {
+                throw new IllegalArgumentException("Kolom " + KOLOM[k] + " wajib ada");
+            }
+        }
+        double harga = Double.parseDouble(nilai[3].trim());
+        if (!Double.isFinite(harga)) {
+            throw new IllegalArgumentException("Harga tidak hingga");
+        }
+        Produk produk = new Produk(trim(nilai[0]), trim(nilai[1]), trim(nilai[2]), harga,
+                Integer.parseInt(nilai[4].trim()), Integer.parseInt(nilai[5].trim()));
+        if (nilai[6] != null && !nilai[6].isBlank()) {
+            String aktif = nilai[6].trim();
+            if (!aktif.equalsIgnoreCase("true") && !aktif.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Nilai aktif harus true atau false");
+            }
+            produk.setAktif(Boolean.parseBoolean(aktif));
+        }
+        return produk;
+    }
+    private static List<String> pisahCsv(String baris) {
+        List<String> field = new ArrayList<>(KOLOM.length);
+        StringBuilder isi = new StringBuilder();
+        boolean dalamKutip = false;
+        for (int i = 0; i < baris.length(); i++) {
+            char c = baris.charAt(i);
+            if (dalamKutip) {
+                if (c != '"') {
+                    isi.append(c);
+                } else if (i + 1 < baris.length() && baris.charAt(i + 1) == '"') {
+                    isi.append('"');
+                    i++;
+                } else {
+                    dalamKutip = false;
+                }
+            } else if (c == ',') {
+                field.add(isi.toString());
+                isi.setLength(0);
+            } else if (c == '"' && isi.toString().isBlank()) {
+                isi.setLength(0);
+                dalamKutip = true;
+            } else {
+                isi.append(c);
+            }
+        }
+        if (dalamKutip) {
+            throw new IllegalArgumentException("Tanda kutip tidak ditutup");
+        }
+        field.add(isi.toString());
+        return field;
+    }
+    // Mulai tepat setelah kutip pembuka; mengembalikan posisi setelah kutip penutup
+    private static int bacaString(String baris, int i, StringBuilder tujuan) {
+        while (i < baris.length()) {
+            char c = baris.charAt(i++);
+            if (c == '"') {
+                return i;
+            }
+            if (c != '\\') {
+                tujuan.append(c);
+                continue;
+            }
+            if (i >= baris.length()) {
+                break;
+            }
+            char e = baris.charAt(i++);
+            switch (e) {
+                case '"', '\\', '/' -> tujuan.append(e);
+                case 'b' -> tujuan.append('\b');
+                case 'f' -> tujuan.append('\f');
+                case 'n' -> tujuan.append('\n');
+                case 'r' -> tujuan.append('\r');
+                case 't' -> tujuan.append('\t');
+                case 'u' -> {
+                    if (i + 4 > baris.length()) {
+                        throw new IllegalArgumentException("Escape unicode terpotong");
+                    }
+                    tujuan.append((char) Integer.parseInt(baris, i, i + 4, 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("Escape tidak dikenal: \\" + e);
+            }
+        }
+        throw new IllegalArgumentException("String tidak ditutup");
+    }
+    private static int harus(String baris, int i, char c) {
+        if (i >= baris.length() || baris.charAt(i) != c) {
+            throw new IllegalArgumentException("Diharapkan '" + c + "' pada posisi " + i);
+        }
+        return i + 1;
+    }
+    private static int lewatiSpasi(String baris, int i) {
+        while (i < baris.length() && Character.isWhitespace(baris.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+    private static int indeksKolom(String kunci) {
+        for (int k = 0; k < KOLOM.length; k++) {
+            if (KOLOM[k].equals(kunci)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+    private static String trim(String teks) {
+        return teks == null ? null : teks.trim();
+    }
+}
@@ -0,0 +1,106 @@
+package com.praktikum.whitebox.service;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+// Roda waktu hierarkis: JUMLAH_TINGKAT tingkat, masing-masing 64 slot. Slot tingkat 0 selebar satu
+// tick, slot tingkat l selebar 64^l tick. Item ditaruh di tingkat terendah yang jangkauannya cukup
+// dan turun ke tingkat bawah saat slotnya tiba, sehingga tambah O(1) dan majukan hanya menyentuh
+// slot yang jatuh tempo, bukan seluruh item. Tidak thread-safe; pemanggil yang menjaga kuncinya
+final class RodaWaktu<T> {
+    private static final int BIT_SLOT = 6;
+    private static final int JUMLAH_SLOT = 1 << BIT_SLOT;
+    private static final int MASK_SLOT = JUMLAH_SLOT - 1;
+    private static final int JUMLAH_TINGKAT = 4;
+    private static final class Entri<T> {
+        final T item;
+        final long tickBatas;
+        Entri(T item, long tickBatas) {
+            this.item = item;
+            this.tickBatas = tickBatas;
+        }
+    }
+    private final long nanosPerTick;
+    private final ArrayDeque<Entri<T>>[][] slot;
+    private long tickSekarang;
+    private int jumlah;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    RodaWaktu(long nanosPerTick, long sekarangNanos) {
+        if (nanosPerTick <= 0) {
+            throw new IllegalArgumentException("Resolusi roda waktu harus positif");
+        }
+        this.nanosPerTick = nanosPerTick;
+        this.tickSekarang = Math.floorDiv(sekarangNanos, nanosPerTick);
+        this.slot = new ArrayDeque[JUMLAH_TINGKAT][JUMLAH_SLOT];
+    }
+    // Jadwalkan item agar keluar pada majukan pertama dengan waktu >= batasNanos (dibulatkan ke atas per tick)
+    void tambah(T item, long batasNanos) {
+        // Tick sekarang sudah diproses, jadi batas yang sudah lewat keluar pada tick berikutnya
+        long tickBatas = Math.max(Math.floorDiv(batasNanos + nanosPerTick - 1, nanosPerTick), tickSekarang + 1);
+        taruh(new Entri<>(item, tickBatas));
+        jumlah++;
+    }
+    // Majukan roda sampai waktu sekarangNanos dan serahkan setiap item yang jatuh tempo
+    int majukan(long sekarangNanos, Consumer<? super T> kedaluwarsa) {
+        long tickTujuan = Math.floorDiv(sekarangNanos, nanosPerTick);
+        int dikeluarkan = 0;
+        while (tickSekarang < tickTujuan) {
+            if (jumlah == 0) {
+                tickSekarang = tickTujuan;
+                break;
+            }
+            long t = ++tickSekarang;
+            // Turunkan slot tingkat atas yang mulai berlaku pada tick ini, dari atas ke bawah
+            for (int tingkat = JUMLAH_TINGKAT - 1; tingkat > 0; tingkat--) {
+                int geser = BIT_SLOT * tingkat;
+                if ((t & ((1L << geser) - 1)) == 0) {
+                    ArrayDeque<Entri<T>> isi = ambilSlot(tingkat, (int) ((t >>> geser) & MASK_SLOT));
+                    if (isi != null) {
+                        for (Entri<T> entri : isi) {
+                            taruh(entri);
+                        }
+                    }
+                }
+            }
+            ArrayDeque<Entri<T>> jatuhTempo = ambilSlot(0, (int) (t & MASK_SLOT));
+            if (jatuhTempo != null) {
+                for (Entri<T> entri : jatuhTempo) {
+                    jumlah--;
+                    dikeluarkan++;
+                    kedaluwarsa.accept(entri.item);
+                }
+            }
+        }
+        return dikeluarkan;
+    }
+    int jumlah() {
+        return jumlah;
+    }
+    private void taruh(Entri<T> entri) {
+        // Saat diturunkan, batas bisa sama dengan tick sekarang dan masuk slot yang segera dikeluarkan
+        long selisih = Math.max(entri.tickBatas - tickSekarang, 0);
+        long tick = tickSekarang + selisih;
+        for (int tingkat = 0; tingkat < JUMLAH_TINGKAT; tingkat++) {
+            int geser = BIT_SLOT * tingkat;
+            if (selisih < (1L << (geser + BIT_SLOT))) {
+                tambahKeSlot(tingkat, (int) ((tick >>> geser) & MASK_SLOT), entri);
+                return;
+            }
+        }
+        // Di luar jangkauan roda: parkir di slot teratas terjauh, nanti diturunkan dan ditaruh ulang
+        int geser = BIT_SLOT * (JUMLAH_TINGKAT - 1);
+        tambahKeSlot(JUMLAH_TINGKAT - 1, (int) (((tickSekarang >>> geser) + MASK_SLOT) & MASK_SLOT), entri);
+    }
+    private void tambahKeSlot(int tingkat, int indeks, Entri<T> entri) {
+        ArrayDeque<Entri<T>> isi = slot[tingkat][indeks];
+        if (isi == null) {
+            isi = new ArrayDeque<>();
+            slot[tingkat][indeks] = isi;
+        }
+        isi.add(entri);
+    }
+    private ArrayDeque<Entri<T>> ambilSlot(int tingkat, int indeks) {
+        ArrayDeque<Entri<T>> isi = slot[tingkat][indeks];
+        slot[tingkat][indeks] = null;
+        return isi;
+    }
+}
@@ -0,0 +1,203 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.util.ValidationUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+// Impor katalog pemasok secara streaming. Baris dibaca per batch; penguraian dan validasi satu
+// batch berjalan paralel di ForkJoinPool sementara batch berikutnya dibaca dan batch sebelumnya
+// disimpan. Penyimpanan berurutan per batch: kode ganda di dalam batch ditolak lewat HashSet,
+// kode yang sudah ada diperiksa sekaligus dengan cariByKodeBanyak, dan sisanya disimpan dengan
+// satu simpanBanyak. Kode yang muncul lagi di batch berikutnya terdeteksi sebagai KODE_SUDAH_ADA
+// karena batch sebelumnya sudah tersimpan. Seperti tambahProduk, pemeriksaan keberadaan dan
+// penyimpanan tidak atomik terhadap penulis lain
+public class ServiceImporKatalog {
+    public static final int UKURAN_BATCH_BAWAAN = 64 * 1024;
+    public static final int BATAS_LAPORAN_BAWAAN = 10_000;
+    private static final int AMBANG_TUGAS = 1024;
+    public enum Format { CSV, JSONL }
+    public enum AlasanPenolakan {
+        FORMAT_TIDAK_VALID, DATA_TIDAK_VALID, DUPLIKAT_DALAM_BATCH, KODE_SUDAH_ADA,
+        // Lolos validasi tetapi ditolak repository saat simpanBanyak
+        GAGAL_DISIMPAN
+    }
+    // nomorBaris dihitung dari 1 termasuk header dan baris kosong
+    public record BarisDitolak(long nomorBaris, AlasanPenolakan alasan, String isi) {}
+    // jumlahBaris mencakup header dan baris kosong. Laporan penolakan dibatasi batasLaporan baris;
+    // jumlahDitolak tetap menghitung semuanya
+    public record HasilImpor(long jumlahBaris, long jumlahDisimpan, long jumlahDitolak, List<BarisDitolak> ditolak) {}
+    private final RepositoryProduk repositoryProduk;
+    private final ForkJoinPool pool;
+    private final int ukuranBatch;
+    private final int batasLaporan;
+    public ServiceImporKatalog(RepositoryProduk repositoryProduk) {
+        this(repositoryProduk, ForkJoinPool.commonPool(), UKURAN_BATCH_BAWAAN, BATAS_LAPORAN_BAWAAN);
+    }
+    public ServiceImporKatalog(RepositoryProduk repositoryProduk, ForkJoinPool pool, int ukuranBatch, int batasLaporan) {
+        if (ukuranBatch <= 0 || batasLaporan < 0) {
+            throw new IllegalArgumentException("Konfigurasi impor tidak valid");
+        }
+        this.repositoryProduk = repositoryProduk;
+        this.pool = pool;
+        this.ukuranBatch = ukuranBatch;
+        this.batasLaporan = batasLaporan;
+    }
+    public HasilImpor impor(Path berkas, Format format) throws IOException {
+        try (BufferedReader pembaca = Files.newBufferedReader(berkas, StandardCharsets.UTF_8)) {
+            return impor(pembaca, format);
+        }
+    }
+    public HasilImpor impor(Reader sumber, Format format) throws IOException {
+        BufferedReader pembaca = sumber instanceof BufferedReader b ? b : new BufferedReader(sumber, 1 << 16);
+        Laporan laporan = new Laporan();
+        long[] nomor = {0};
+        Batch berjalan = bacaBatch(pembaca, format, nomor);
+        ForkJoinTask<?> validasi = berjalan == null ? null : pool.submit(berjalan.tugas());
+        while (berjalan != null) {
+            Batch berikutnya = bacaBatch(pembaca, format, nomor);
+            validasi.join();
+            validasi = berikutnya == null ? null : pool.submit(berikutnya.tugas());
+            simpan(berjalan, laporan);
+            berjalan = berikutnya;
+        }
+        return new HasilImpor(nomor[0], laporan.disimpan, laporan.ditolak, laporan.daftar);
+    }
+    private static final class Batch {
+        final Format format;
+        final String[] baris;
+        final long[] nomorBaris;
+        final Produk[] produk;
+        final AlasanPenolakan[] alasan;
+        Batch(Format format, List<String> baris, long[] nomorBaris) {
+            this.format = format;
+            this.baris = baris.toArray(new String[0]);
+            this.nomorBaris = nomorBaris;
+            this.produk = new Produk[this.baris.length];
+            this.alasan = new AlasanPenolakan[this.baris.length];
+        }
+        RecursiveAction tugas() {
+            return new TugasValidasi(this, 0, baris.length);
+        }
+    }
+    // Setiap elemen hanya ditulis oleh satu subtugas; join menerbitkan hasilnya ke thread pemanggil.
+    // Tugas tidak pernah diserialisasi meskipun RecursiveAction Serializable
+    @SuppressWarnings("serial")
+    private static final class TugasValidasi extends RecursiveAction {
+        private final Batch batch;
+        private final int awal;
+        private final int akhir;
+        TugasValidasi(Batch batch, int awal, int akhir) {
+            this.batch = batch;
+            this.awal = awal;
+            this.akhir = akhir;
+        }
+        @Override
+        protected void compute() {
+            if (akhir - awal > AMBANG_TUGAS) {
+                int tengah = (awal + akhir) >>> 1;
+                invokeAll(new TugasValidasi(batch, awal, tengah), new TugasValidasi(batch, tengah, akhir));
+                return;
+            }
+            for (int i = awal; i < akhir; i++) {
+                Produk produk;
+                try {
+                    produk = batch.format == Format.CSV
+                            ? PenguraiKatalog.uraiCsv(batch.baris[i]) : PenguraiKatalog.uraiJsonl(batch.baris[i]);
+                } catch (IllegalArgumentException e) {
+                    batch.alasan[i] = AlasanPenolakan.FORMAT_TIDAK_VALID;
+                    continue;
+                }
+                if (ValidationUtils.isValidProduk(produk)) {
+                    batch.produk[i] = produk;
+                } else {
+                    batch.alasan[i] = AlasanPenolakan.DATA_TIDAK_VALID;
+                }
+            }
+        }
+    }
+    private final class Laporan {
+        long disimpan;
+        long ditolak;
+        final List<BarisDitolak> daftar = new ArrayList<>();
+        void tolak(Batch batch, int i, AlasanPenolakan alasan) {
+            ditolak++;
+            if (daftar.size() < batasLaporan) {
+                daftar.add(new BarisDitolak(batch.nomorBaris[i], alasan, batch.baris[i]));
+            }
+        }
+    }
+    // Baris kosong dilewati; header CSV hanya dikenali di baris pertama berkas
+    private Batch bacaBatch(BufferedReader pembaca, Format format, long[] nomor) throws IOException {
+        List<String> baris = new ArrayList<>(Math.min(ukuranBatch, 1 << 16));
+        long[] nomorBaris = new long[Math.min(ukuranBatch, 1 << 16)];
+        String teks;
+        while (baris.size() < ukuranBatch && (teks = pembaca.readLine()) != null) {
+            nomor[0]++;
+            if (nomor[0] == 1 && format == Format.CSV && PenguraiKatalog.isHeaderCsv(teks)) {
+                continue;
+            }
+            if (teks.isBlank()) {
+                continue;
+            }
+            if (baris.size() == nomorBaris.length) {
+                nomorBaris = Arrays.copyOf(nomorBaris, nomorBaris.length * 2);
+            }
+            nomorBaris[baris.size()] = nomor[0];
+            baris.add(teks);
+        }
+        return baris.isEmpty() ? null : new Batch(format, baris, nomorBaris);
+    }
+    // Penolakan dicatat ke larik alasan lalu dilaporkan sekali sesuai urutan baris
+    private void simpan(Batch batch, Laporan laporan) {
+        Set<String> dilihat = new HashSet<>(batch.baris.length * 2);
+        for (int i = 0; i < batch.baris.length; i++) {
+            if (batch.alasan[i] == null && !dilihat.add(batch.produk[i].getKode())) {
+                batch.alasan[i] = AlasanPenolakan.DUPLIKAT_DALAM_BATCH;
+            }
+        }
+        Map<String, Produk> sudahAda = dilihat.isEmpty() ? Map.of() : repositoryProduk.cariByKodeBanyak(dilihat);
+        List<Produk> baru = new ArrayList<>(dilihat.size());
+        int[] indeksBaru = new int[dilihat.size()];
+        for (int i = 0; i < batch.baris.length; i++) {
+            if (batch.alasan[i] == null && sudahAda.containsKey(batch.produk[i].getKode())) {
+                batch.alasan[i] = AlasanPenolakan.KODE_SUDAH_ADA;
+            }
+            if (batch.alasan[i] == null) {
+                indeksBaru[baru.size()] = i;
+                baru.add(batch.produk[i]);
+            }
+        }
+        if (!baru.isEmpty() && repositoryProduk.simpanBanyak(baru) < baru.size()) {
+            // simpanBanyak hanya mengembalikan jumlah, jadi baris yang tidak tersimpan dicari ulang
+            Set<String> kodeBaru = new HashSet<>(baru.size() * 2);
+            baru.forEach(p -> kodeBaru.add(p.getKode()));
+            Map<String, Produk> tersimpan = repositoryProduk.cariByKodeBanyak(kodeBaru);
+            for (int j = 0; j < baru.size(); j++) {
+                if (!tersimpan.containsKey(baru.get(j).getKode())) {
+                    batch.alasan[indeksBaru[j]] = AlasanPenolakan.GAGAL_DISIMPAN;
+                }
+            }
+        }
+        for (int i = 0; i < batch.baris.length; i++) {
+            if (batch.alasan[i] != null) {
+                laporan.tolak(batch, i, batch.alasan[i]);
+            } else {
+                laporan.disimpan++;
+            }
+        }
+    }
+}
@@ -1,40 +1,78 @@
 package com.praktikum.whitebox.service;
 
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.MutasiStok;
 import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.StatusStok;
+import com.praktikum.whitebox.repository.AgregatInventaris;
+import com.praktikum.whitebox.repository.IndeksNamaProduk;
+import com.praktikum.whitebox.repository.RegistriKategori;
 import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.util.AkumulatorUang;
 import com.praktikum.whitebox.util.ValidationUtils;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 public class ServiceInventaris {
     private final RepositoryProduk repositoryProduk;
+    // Boleh null; tanpa pemantau mutasi stok tidak menghasilkan peristiwa
+    private final PemantauStok pemantauStok;
     public ServiceInventaris(RepositoryProduk repositoryProduk) {
+        this(repositoryProduk, null);
+    }
+    public ServiceInventaris(RepositoryProduk repositoryProduk, PemantauStok pemantauStok) {
         this.repositoryProduk = repositoryProduk;
+        this.pemantauStok = pemantauStok;
+        if (pemantauStok != null) {
+            pemantauStok.hubungkanSumber(repositoryProduk::cariByKode);
+        }
     }
     public boolean tambahProduk(Produk produk) {
+        return tambahProdukDenganHasil(produk).isBerhasil();
+    }
+    public HasilOperasi tambahProdukDenganHasil(Produk produk) {
         if (!ValidationUtils.isValidProduk(produk)) {
-            return false;
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_VALID);
         }
 // Cek apakah produk dengan kode yang sama sudah ada
         Optional<Produk> produkExist =
                 repositoryProduk.cariByKode(produk.getKode());
         if (produkExist.isPresent()) {
-            return false;
+            return new HasilOperasi(StatusOperasi.PRODUK_SUDAH_ADA, produkExist.get().getStok());
         }
-        return repositoryProduk.simpan(produk);
+        if (!repositoryProduk.simpan(produk)) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_VALID);
+        }
+        return new HasilOperasi(StatusOperasi.BERHASIL, produk.getStok());
     }
     public boolean hapusProduk(String kode) {
+        return hapusProdukDenganHasil(kode).isBerhasil();
+    }
+    public HasilOperasi hapusProdukDenganHasil(String kode) {
         if (!ValidationUtils.isValidKodeProduk(kode)) {
-            return false;
+            return HasilOperasi.tanpaStok(StatusOperasi.KODE_TIDAK_VALID);
         }
         Optional<Produk> produk = repositoryProduk.cariByKode(kode);
         if (!produk.isPresent()) {
-            return false;
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
         }
 // Tidak bisa hapus produk yang masih ada stoknya
         if (produk.get().getStok() > 0) {
-            return false;
+            return new HasilOperasi(StatusOperasi.STOK_MASIH_ADA, produk.get().getStok());
+        }
+        if (!repositoryProduk.hapus(kode)) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
         }
-        return repositoryProduk.hapus(kode);
+        if (pemantauStok != null) {
+            pemantauStok.lupakan(kode);
+        }
+        return new HasilOperasi(StatusOperasi.BERHASIL, produk.get().getStok());
     }
     public Optional<Produk> cariProdukByKode(String kode) {
         if (!ValidationUtils.isValidKodeProduk(kode)) {
@@ -45,44 +83,188 @@ public class ServiceInventaris {
     public List<Produk> cariProdukByNama(String nama) {
         return repositoryProduk.cariByNama(nama);
     }
+    public List<Produk> cariProdukByNama(String nama, IndeksNamaProduk.Mode mode, int batas) {
+        return repositoryProduk.cariByNama(nama, mode, batas);
+    }
     public List<Produk> cariProdukByKategori(String kategori) {
         return repositoryProduk.cariByKategori(kategori);
     }
-    public boolean updateStok(String kode, int stokBaru) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || stokBaru < 0) {
+    // Daftarkan kategori beserta induknya; gagal jika kategori tidak valid, induk membentuk
+    // siklus, atau repository tidak punya registri kategori
+    public boolean daftarkanKategori(Kategori kategori) {
+        if (!ValidationUtils.isValidKategori(kategori)) {
             return false;
         }
-        Optional<Produk> produk = repositoryProduk.cariByKode(kode);
-        if (!produk.isPresent()) {
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        return registri.isPresent() && registri.get().daftarkan(kategori);
+    }
+    // Menonaktifkan kategori (beserta subkategorinya) menghentikan operasi stok dan mengecualikan
+    // produknya dari agregat seketika, tanpa mengubah satu produk pun
+    public boolean setKategoriAktif(String kode, boolean aktif) {
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        return registri.isPresent() && registri.get().setAktif(kode, aktif);
+    }
+    // Produk aktif dan kategorinya aktif; pemeriksaan kategori O(1) lewat bitset registri
+    public boolean isProdukAktif(Produk produk) {
+        if (!produk.isAktif()) {
             return false;
         }
-        return repositoryProduk.updateStok(kode, stokBaru);
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        return registri.isEmpty() || registri.get().isAktif(produk.getKategori());
+    }
+    public boolean updateStok(String kode, int stokBaru) {
+        return updateStokDenganHasil(kode, stokBaru).isBerhasil();
+    }
+    public HasilOperasi updateStokDenganHasil(String kode, int stokBaru) {
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return HasilOperasi.tanpaStok(StatusOperasi.KODE_TIDAK_VALID);
+        }
+        if (stokBaru < 0) {
+            return HasilOperasi.tanpaStok(StatusOperasi.JUMLAH_TIDAK_VALID);
+        }
+        Optional<Produk> produk = repositoryProduk.cariByKode(kode);
+        if (!produk.isPresent() || !repositoryProduk.updateStok(kode, stokBaru)) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
+        }
+        laporkanPerubahan(produk.get(), produk.get().getStok(), stokBaru);
+        return new HasilOperasi(StatusOperasi.BERHASIL, stokBaru);
     }
     public boolean keluarStok(String kode, int jumlah) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0) {
-            return false;
+        return keluarStokDenganHasil(kode, jumlah).isBerhasil();
+    }
+    // Stok pada kegagalan STOK_TIDAK_CUKUP diambil dari hasil operasi atomik jika sudah sampai sana
+    public HasilOperasi keluarStokDenganHasil(String kode, int jumlah) {
+        HasilOperasi gagal = periksaMutasi(kode, jumlah);
+        if (gagal != null) {
+            return gagal;
         }
         Optional<Produk> produkOpt = repositoryProduk.cariByKode(kode);
-        if (!produkOpt.isPresent() || !produkOpt.get().isAktif()) {
-            return false;
+        if (!produkOpt.isPresent()) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
         }
         Produk produk = produkOpt.get();
+        if (!isProdukAktif(produk)) {
+            return new HasilOperasi(StatusOperasi.PRODUK_TIDAK_AKTIF, produk.getStok());
+        }
         if (produk.getStok() < jumlah) {
-            return false;
+            return new HasilOperasi(StatusOperasi.STOK_TIDAK_CUKUP, produk.getStok());
+        }
+// Stok yang terbaca bisa sudah berubah; pengurangan final dilakukan atomik di repository
+        int stokBaru = repositoryProduk.kurangiStokJikaCukup(kode, jumlah);
+        if (stokBaru < 0) {
+            return hasilGagalAtomik(stokBaru, StatusOperasi.STOK_TIDAK_CUKUP);
         }
-        int stokBaru = produk.getStok() - jumlah;
-        return repositoryProduk.updateStok(kode, stokBaru);
+        laporkanPerubahan(produk, stokBaru + jumlah, stokBaru);
+        return new HasilOperasi(StatusOperasi.BERHASIL, stokBaru);
     }
     public boolean masukStok(String kode, int jumlah) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0) {
-            return false;
+        return masukStokDenganHasil(kode, jumlah).isBerhasil();
+    }
+    // JUMLAH_TIDAK_VALID juga dipakai jika stok baru akan melampaui Integer.MAX_VALUE
+    public HasilOperasi masukStokDenganHasil(String kode, int jumlah) {
+        HasilOperasi gagal = periksaMutasi(kode, jumlah);
+        if (gagal != null) {
+            return gagal;
         }
         Optional<Produk> produk = repositoryProduk.cariByKode(kode);
-        if (!produk.isPresent() || !produk.get().isAktif()) {
-            return false;
+        if (!produk.isPresent()) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
+        }
+        if (!isProdukAktif(produk.get())) {
+            return new HasilOperasi(StatusOperasi.PRODUK_TIDAK_AKTIF, produk.get().getStok());
+        }
+        int stokBaru = repositoryProduk.tambahStok(kode, jumlah);
+        if (stokBaru < 0) {
+            return hasilGagalAtomik(stokBaru, StatusOperasi.JUMLAH_TIDAK_VALID);
+        }
+        laporkanPerubahan(produk.get(), stokBaru - jumlah, stokBaru);
+        return new HasilOperasi(StatusOperasi.BERHASIL, stokBaru);
+    }
+    private static HasilOperasi periksaMutasi(String kode, int jumlah) {
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return HasilOperasi.tanpaStok(StatusOperasi.KODE_TIDAK_VALID);
+        }
+        return jumlah <= 0 ? HasilOperasi.tanpaStok(StatusOperasi.JUMLAH_TIDAK_VALID) : null;
+    }
+    // Nilai negatif dari operasi stok atomik: PRODUK_TIDAK_ADA atau -(stokSaatIni) - 1
+    private static HasilOperasi hasilGagalAtomik(int hasil, StatusOperasi status) {
+        if (hasil == RepositoryProduk.PRODUK_TIDAK_ADA) {
+            return HasilOperasi.tanpaStok(StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
+        }
+        return new HasilOperasi(status, -(hasil + 1));
+    }
+    // Proses banyak mutasi sekaligus. Mutasi untuk kode yang sama digabung menjadi satu selisih
+    // bersih dan diterapkan sekali (semua-atau-tidak untuk kode itu), lalu status dikembalikan
+    // per item sesuai urutan input
+    public StatusOperasi[] prosesMutasiBatch(List<MutasiStok> daftarMutasi) {
+        StatusOperasi[] hasil = new StatusOperasi[daftarMutasi.size()];
+        Map<String, Long> deltaBersih = new LinkedHashMap<>();
+        Map<String, List<Integer>> indeksPerKode = new HashMap<>();
+        for (int i = 0; i < hasil.length; i++) {
+            MutasiStok mutasi = daftarMutasi.get(i);
+            if (mutasi == null || !ValidationUtils.isValidKodeProduk(mutasi.kode())) {
+                hasil[i] = StatusOperasi.KODE_TIDAK_VALID;
+            } else if (mutasi.jumlah() <= 0 || mutasi.jenis() == null) {
+                hasil[i] = StatusOperasi.JUMLAH_TIDAK_VALID;
+            } else {
+                deltaBersih.merge(mutasi.kode(), (long) mutasi.delta(), Long::sum);
+                indeksPerKode.computeIfAbsent(mutasi.kode(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (deltaBersih.isEmpty()) {
+            return hasil;
+        }
+        Map<String, Produk> produkMap = repositoryProduk.cariByKodeBanyak(deltaBersih.keySet());
+        Map<String, Integer> deltaDiterapkan = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entri : deltaBersih.entrySet()) {
+            String kode = entri.getKey();
+            Produk produk = produkMap.get(kode);
+            long delta = entri.getValue();
+            if (produk == null) {
+                tandai(hasil, indeksPerKode.get(kode), StatusOperasi.PRODUK_TIDAK_DITEMUKAN);
+            } else if (!isProdukAktif(produk)) {
+                tandai(hasil, indeksPerKode.get(kode), StatusOperasi.PRODUK_TIDAK_AKTIF);
+            } else if (delta < Integer.MIN_VALUE || delta > Integer.MAX_VALUE) {
+                tandai(hasil, indeksPerKode.get(kode), StatusOperasi.JUMLAH_TIDAK_VALID);
+            } else {
+                deltaDiterapkan.put(kode, (int) delta);
+            }
+        }
+        if (deltaDiterapkan.isEmpty()) {
+            return hasil;
+        }
+        Map<String, Integer> stokBaru = repositoryProduk.terapkanDeltaStok(deltaDiterapkan);
+        for (String kode : deltaDiterapkan.keySet()) {
+            Integer stok = stokBaru.get(kode);
+            StatusOperasi status;
+            if (stok == null || stok == RepositoryProduk.PRODUK_TIDAK_ADA) {
+                status = StatusOperasi.PRODUK_TIDAK_DITEMUKAN;
+            } else if (stok < 0) {
+                // Selisih positif hanya gagal jika melampaui Integer.MAX_VALUE, seperti masukStokDenganHasil
+                status = deltaDiterapkan.get(kode) > 0
+                        ? StatusOperasi.JUMLAH_TIDAK_VALID : StatusOperasi.STOK_TIDAK_CUKUP;
+            } else {
+                status = StatusOperasi.BERHASIL;
+                laporkanPerubahan(produkMap.get(kode), stok - deltaDiterapkan.get(kode), stok);
+            }
+            tandai(hasil, indeksPerKode.get(kode), status);
+        }
+        return hasil;
+    }
+    // Untuk mutasi selisih, stok lama dihitung dari hasil operasi atomik (bukan dari bacaan awal)
+    // sehingga perpindahan yang dilaporkan sesuai dengan mutasi ini; stokMinimum dari bacaan awal
+    private void laporkanPerubahan(Produk produk, int stokLama, int stokBaru) {
+        if (pemantauStok == null) {
+            return;
+        }
+        int stokMinimum = produk.getStokMinimum();
+        pemantauStok.catat(produk.getKode(), StatusStok.dari(stokLama, stokMinimum),
+                StatusStok.dari(stokBaru, stokMinimum), stokBaru);
+    }
+    private static void tandai(StatusOperasi[] hasil, List<Integer> indeks, StatusOperasi status) {
+        for (int i : indeks) {
+            hasil[i] = status;
         }
-        int stokBaru = produk.get().getStok() + jumlah;
-        return repositoryProduk.updateStok(kode, stokBaru);
     }
     public List<Produk> getProdukStokMenipis() {
         return repositoryProduk.cariProdukStokMenipis();
@@ -90,18 +272,79 @@ public class ServiceInventaris {
     public List<Produk> getProdukStokHabis() {
         return repositoryProduk.cariProdukStokHabis();
     }
+    // Produk di kategori nonaktif dikecualikan dengan mengurangkan rollup subtree nonaktif dari
+    // agregat, bukan dengan memindai produknya
     public double hitungTotalNilaiInventaris() {
-        List<Produk> semuaProduk = repositoryProduk.cariSemua();
-        return semuaProduk.stream()
-                .filter(Produk::isAktif)
-                .mapToDouble(p -> p.getHarga() * p.getStok())
-                .sum();
+        Optional<AgregatInventaris> agregat = repositoryProduk.agregatInventaris();
+        if (agregat.isPresent()) {
+            return agregat.get().totalNilai() - rollupNonaktif().totalNilai();
+        }
+        try (Stream<Produk> semuaProduk = repositoryProduk.alirSemua()) {
+            return semuaProduk
+                    .filter(filterAktif())
+                    .mapToDouble(p -> p.getHarga() * p.getStok())
+                    .sum();
+        }
+    }
+    // Total nilai tepat dari harga dalam satuan terkecil. Perkalian dan penjumlahan memakai
+    // akumulator 128-bit sehingga tidak bisa overflow; BigDecimal hanya dibuat sekali di akhir
+    public BigDecimal hitungTotalNilaiInventarisTepat() {
+        AkumulatorUang total = new AkumulatorUang();
+        try (Stream<Produk> semuaProduk = repositoryProduk.alirSemua()) {
+            semuaProduk.filter(filterAktif())
+                    .forEach(p -> total.tambahHasilKali(p.getHargaMinor(), p.getStok()));
+        }
+        return total.keBigDecimal();
+    }
+    // Total per kategori dibaca dari rollup registri. Tanpa registri hierarki tidak diketahui,
+    // sehingga hanya produk dengan kategori itu sendiri yang dipindai
+    public double hitungTotalNilaiKategori(String kategori, boolean termasukSubKategori) {
+        return rollupKategori(kategori, termasukSubKategori).totalNilai();
+    }
+    public long hitungTotalStokKategori(String kategori, boolean termasukSubKategori) {
+        return rollupKategori(kategori, termasukSubKategori).totalStok();
+    }
+    private RegistriKategori.Rollup rollupKategori(String kategori, boolean termasukSubKategori) {
+        if (kategori == null) {
+            return RegistriKategori.Rollup.KOSONG;
+        }
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        if (registri.isPresent()) {
+            return registri.get().rollupAktif(kategori, termasukSubKategori).orElse(RegistriKategori.Rollup.KOSONG);
+        }
+        long stok = 0;
+        double nilai = 0;
+        for (Produk produk : repositoryProduk.cariByKategori(kategori)) {
+            if (produk.isAktif()) {
+                stok += produk.getStok();
+                nilai += produk.getHarga() * produk.getStok();
+            }
+        }
+        return new RegistriKategori.Rollup(stok, nilai);
     }
     public int hitungTotalStok() {
-        List<Produk> semuaProduk = repositoryProduk.cariSemua();
-        return semuaProduk.stream()
-                .filter(Produk::isAktif)
-                .mapToInt(Produk::getStok)
-                .sum();
+        Optional<AgregatInventaris> agregat = repositoryProduk.agregatInventaris();
+        if (agregat.isPresent()) {
+            return (int) (agregat.get().totalStok() - rollupNonaktif().totalStok());
+        }
+        try (Stream<Produk> semuaProduk = repositoryProduk.alirSemua()) {
+            return semuaProduk
+                    .filter(filterAktif())
+                    .mapToInt(Produk::getStok)
+                    .sum();
+        }
+    }
+    private RegistriKategori.Rollup rollupNonaktif() {
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        return registri.isPresent() ? registri.get().rollupNonaktif() : RegistriKategori.Rollup.KOSONG;
+    }
+    // Tanpa kategori nonaktif, filter cukup memeriksa produk tanpa mencari id kategori
+    private Predicate<Produk> filterAktif() {
+        Optional<RegistriKategori> registri = repositoryProduk.registriKategori();
+        if (registri.isEmpty() || !registri.get().isAdaNonaktif()) {
+            return Produk::isAktif;
+        }
+        RegistriKategori r = registri.get();
+        return p -> p.isAktif() && r.isAktif(p.getKategori());
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.MutasiStok;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.SingleFlight;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+// Fasad asinkron untuk ServiceInventaris. Setiap permintaan berjalan di virtual thread sendiri
+// sehingga puluhan ribu permintaan bisa menunggu tanpa menghabiskan thread platform. Akses ke
+// repository dibatasi semaphore (bulkhead); permintaan yang menunggu izin hanya memarkir virtual
+// thread. cariProdukByKode yang identik dan bersamaan bisa digabung menjadi satu panggilan
+public class ServiceInventarisAsinkron implements AutoCloseable {
+    private final ServiceInventaris service;
+    private final Semaphore izin;
+    private final boolean gabungkanCariByKode;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SingleFlight<String, Optional<Produk>> penggabungCari = new SingleFlight<>();
+    private final AtomicInteger jumlahDalamProses = new AtomicInteger();
+    public ServiceInventarisAsinkron(ServiceInventaris service, int batasKonkurensi) {
+        this(service, batasKonkurensi, true);
+    }
+    public ServiceInventarisAsinkron(ServiceInventaris service, int batasKonkurensi, boolean gabungkanCariByKode) {
+        this(service, new Semaphore(periksaBatas(batasKonkurensi)), gabungkanCariByKode);
+    }
+    // Beberapa fasad di atas repository yang sama bisa berbagi satu semaphore agar batasnya per repository
+    public ServiceInventarisAsinkron(ServiceInventaris service, Semaphore izin, boolean gabungkanCariByKode) {
+        this.service = service;
+        this.izin = izin;
+        this.gabungkanCariByKode = gabungkanCariByKode;
+    }
+    public CompletableFuture<Boolean> tambahProduk(Produk produk) {
+        return setelahTulis(produk == null ? null : produk.getKode(), jalankan(() -> service.tambahProduk(produk)));
+    }
+    public CompletableFuture<Boolean> hapusProduk(String kode) {
+        return setelahTulis(kode, jalankan(() -> service.hapusProduk(kode)));
+    }
+    public CompletableFuture<Optional<Produk>> cariProdukByKode(String kode) {
+        if (!gabungkanCariByKode || kode == null) {
+            return jalankan(() -> service.cariProdukByKode(kode));
+        }
+        // Produk bisa diubah pemanggil, jadi setiap penunggu mendapat salinan sendiri
+        return penggabungCari.jalankanAsinkron(kode, () -> jalankan(() -> service.cariProdukByKode(kode)))
+                .thenApply(hasil -> hasil.map(Produk::new));
+    }
+    public CompletableFuture<List<Produk>> cariProdukByNama(String nama) {
+        return jalankan(() -> service.cariProdukByNama(nama));
+    }
+    public CompletableFuture<List<Produk>> cariProdukByKategori(String kategori) {
+        return jalankan(() -> service.cariProdukByKategori(kategori));
+    }
+    public CompletableFuture<Boolean> updateStok(String kode, int stokBaru) {
+        return setelahTulis(kode, jalankan(() -> service.updateStok(kode, stokBaru)));
+    }
+    public CompletableFuture<Boolean> keluarStok(String kode, int jumlah) {
+        return setelahTulis(kode, jalankan(() -> service.keluarStok(kode, jumlah)));
+    }
+    public CompletableFuture<Boolean> masukStok(String kode, int jumlah) {
+        return setelahTulis(kode, jalankan(() -> service.masukStok(kode, jumlah)));
+    }
+    public CompletableFuture<HasilOperasi> tambahProdukDenganHasil(Produk produk) {
+        return setelahTulis(produk == null ? null : produk.getKode(), jalankan(() -> service.tambahProdukDenganHasil(produk)));
+    }
+    public CompletableFuture<HasilOperasi> hapusProdukDenganHasil(String kode) {
+        return setelahTulis(kode, jalankan(() -> service.hapusProdukDenganHasil(kode)));
+    }
+    public CompletableFuture<HasilOperasi> updateStokDenganHasil(String kode, int stokBaru) {
+        return setelahTulis(kode, jalankan(() -> service.updateStokDenganHasil(kode, stokBaru)));
+    }
+    public CompletableFuture<HasilOperasi> keluarStokDenganHasil(String kode, int jumlah) {
+        return setelahTulis(kode, jalankan(() -> service.keluarStokDenganHasil(kode, jumlah)));
+    }
+    public CompletableFuture<HasilOperasi> masukStokDenganHasil(String kode, int jumlah) {
+        return setelahTulis(kode, jalankan(() -> service.masukStokDenganHasil(kode, jumlah)));
+    }
+    public CompletableFuture<StatusOperasi[]> prosesMutasiBatch(List<MutasiStok> daftarMutasi) {
+        return jalankan(() -> service.prosesMutasiBatch(daftarMutasi));
+    }
+    public CompletableFuture<List<Produk>> getProdukStokMenipis() {
+        return jalankan(service::getProdukStokMenipis);
+    }
+    public CompletableFuture<List<Produk>> getProdukStokHabis() {
+        return jalankan(service::getProdukStokHabis);
+    }
+    public CompletableFuture<Double> hitungTotalNilaiInventaris() {
+        return jalankan(service::hitungTotalNilaiInventaris);
+    }
+    public CompletableFuture<BigDecimal> hitungTotalNilaiInventarisTepat() {
+        return jalankan(service::hitungTotalNilaiInventarisTepat);
+    }
+    public CompletableFuture<Integer> hitungTotalStok() {
+        return jalankan(service::hitungTotalStok);
+    }
+    // Permintaan yang sudah diterima tapi belum selesai, termasuk yang masih menunggu izin
+    public int getJumlahDalamProses() {
+        return jumlahDalamProses.get();
+    }
+    public int getIzinTersedia() {
+        return izin.availablePermits();
+    }
+    public long getJumlahDigabung() {
+        return penggabungCari.getJumlahDigabung();
+    }
+    // Menolak permintaan baru dan menunggu yang sedang berjalan selesai
+    @Override
+    public void close() {
+        executor.close();
+    }
+    private <T> CompletableFuture<T> jalankan(Supplier<T> tugas) {
+        jumlahDalamProses.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                izin.acquireUninterruptibly();
+                try {
+                    return tugas.get();
+                } finally {
+                    izin.release();
+                    jumlahDalamProses.decrementAndGet();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            jumlahDalamProses.decrementAndGet();
+            throw e;
+        }
+    }
+    // Pencarian yang masih berjalan mungkin membaca sebelum penulisan ini; lepaskan dari penggabungan
+    // agar pemanggil sesudahnya membaca ulang
+    private <T> CompletableFuture<T> setelahTulis(String kode, CompletableFuture<T> tulis) {
+        if (!gabungkanCariByKode || kode == null) {
+            return tulis;
+        }
+        return tulis.whenComplete((hasil, error) -> penggabungCari.lupakan(kode));
+    }
+    private static int periksaBatas(int batasKonkurensi) {
+        if (batasKonkurensi <= 0) {
+            throw new IllegalArgumentException("Batas konkurensi harus positif");
+        }
+        return batasKonkurensi;
+    }
+}
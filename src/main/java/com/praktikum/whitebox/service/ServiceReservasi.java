@@ -0,0 +1,205 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.ValidationUtils;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+// Reservasi stok untuk checkout: stok ditahan selama pembayaran berjalan lalu dikomit (stok
+// benar-benar dikurangi lewat ServiceInventaris) atau dilepas. Stok tersedia = stok - total
+// tertahan. Keadaan dibagi ke stripe berdasarkan hash kode; setiap stripe punya kunci, peta
+// reservasi dan roda waktu sendiri, sehingga SKU di stripe berbeda tidak pernah saling menunggu.
+// Reservasi kedaluwarsa dibebaskan oleh roda waktu, bukan dengan memindai semua reservasi
+public class ServiceReservasi {
+    public static final int JUMLAH_STRIPE_BAWAAN = 64;
+    public static final Duration RESOLUSI_BAWAAN = Duration.ofMillis(10);
+    public record Reservasi(long id, String kode, int jumlah, long batasNanos) {}
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Reservasi> aktif = new HashMap<>();
+        final Map<String, Integer> tertahan = new HashMap<>();
+        final RodaWaktu<Reservasi> roda;
+        long urutan;
+        Stripe(long nanosPerTick, long sekarangNanos) {
+            this.roda = new RodaWaktu<>(nanosPerTick, sekarangNanos);
+        }
+    }
+    private final ServiceInventaris serviceInventaris;
+    private final LongSupplier jamNanos;
+    private final Stripe[] stripe;
+    private final int bitStripe;
+    public ServiceReservasi(ServiceInventaris serviceInventaris) {
+        this(serviceInventaris, JUMLAH_STRIPE_BAWAAN, RESOLUSI_BAWAAN, System::nanoTime);
+    }
+    public ServiceReservasi(ServiceInventaris serviceInventaris, int jumlahStripe, Duration resolusi, LongSupplier jamNanos) {
+        if (jumlahStripe <= 0 || Integer.bitCount(jumlahStripe) != 1) {
+            throw new IllegalArgumentException("Jumlah stripe harus pangkat dua");
+        }
+        this.serviceInventaris = serviceInventaris;
+        this.jamNanos = jamNanos;
+        this.bitStripe = Integer.numberOfTrailingZeros(jumlahStripe);
+        this.stripe = new Stripe[jumlahStripe];
+        long sekarang = jamNanos.getAsLong();
+        for (int i = 0; i < jumlahStripe; i++) {
+            stripe[i] = new Stripe(resolusi.toNanos(), sekarang);
+        }
+    }
+    // Tahan stok selama ttl. Kosong jika kode/jumlah tidak valid, produk tidak ada atau tidak aktif,
+    // atau stok tersedia tidak cukup
+    public Optional<Reservasi> reservasi(String kode, int jumlah, Duration ttl) {
+        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0 || ttl.isNegative() || ttl.isZero()) {
+            return Optional.empty();
+        }
+        int indeks = indeksStripe(kode);
+        Stripe s = stripe[indeks];
+        s.lock.lock();
+        try {
+            Optional<Produk> produk = serviceInventaris.cariProdukByKode(kode);
+            if (!produk.isPresent() || !serviceInventaris.isProdukAktif(produk.get())) {
+                return Optional.empty();
+            }
+            int tertahan = s.tertahan.getOrDefault(kode, 0);
+            if ((long) produk.get().getStok() - tertahan < jumlah) {
+                return Optional.empty();
+            }
+            long batas = jamNanos.getAsLong() + ttl.toNanos();
+            Reservasi reservasi = new Reservasi((s.urutan++ << bitStripe) | indeks, kode, jumlah, batas);
+            s.aktif.put(reservasi.id(), reservasi);
+            s.tertahan.put(kode, tertahan + jumlah);
+            s.roda.tambah(reservasi, batas);
+            return Optional.of(reservasi);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    // Kurangi stok sebesar jumlah reservasi. Gagal jika reservasi tidak ada, sudah kedaluwarsa, atau
+    // stok sudah terpakai di luar reservasi; dalam semua kasus reservasi tidak lagi aktif
+    public boolean komit(long id) {
+        Stripe s = stripe[(int) (id & (stripe.length - 1))];
+        s.lock.lock();
+        try {
+            Reservasi reservasi = s.aktif.remove(id);
+            if (reservasi == null) {
+                return false;
+            }
+            lepasTahanan(s, reservasi);
+            if (jamNanos.getAsLong() - reservasi.batasNanos() >= 0) {
+                return false;
+            }
+            return serviceInventaris.keluarStok(reservasi.kode(), reservasi.jumlah());
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    public boolean lepas(long id) {
+        Stripe s = stripe[(int) (id & (stripe.length - 1))];
+        s.lock.lock();
+        try {
+            Reservasi reservasi = s.aktif.remove(id);
+            if (reservasi == null) {
+                return false;
+            }
+            lepasTahanan(s, reservasi);
+            return true;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    // Keluar stok langsung tanpa reservasi, tetapi hanya dari stok yang tidak sedang ditahan
+    public boolean keluarStok(String kode, int jumlah) {
+        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0) {
+            return false;
+        }
+        Stripe s = stripe[indeksStripe(kode)];
+        s.lock.lock();
+        try {
+            Optional<Produk> produk = serviceInventaris.cariProdukByKode(kode);
+            if (!produk.isPresent() || (long) produk.get().getStok() - s.tertahan.getOrDefault(kode, 0) < jumlah) {
+                return false;
+            }
+            return serviceInventaris.keluarStok(kode, jumlah);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    public OptionalInt getStokTersedia(String kode) {
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return OptionalInt.empty();
+        }
+        Stripe s = stripe[indeksStripe(kode)];
+        s.lock.lock();
+        try {
+            Optional<Produk> produk = serviceInventaris.cariProdukByKode(kode);
+            if (!produk.isPresent()) {
+                return OptionalInt.empty();
+            }
+            return OptionalInt.of(Math.max(produk.get().getStok() - s.tertahan.getOrDefault(kode, 0), 0));
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    public int getStokTertahan(String kode) {
+        if (kode == null) {
+            return 0;
+        }
+        Stripe s = stripe[indeksStripe(kode)];
+        s.lock.lock();
+        try {
+            return s.tertahan.getOrDefault(kode, 0);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+    public int getJumlahReservasiAktif() {
+        int total = 0;
+        for (Stripe s : stripe) {
+            s.lock.lock();
+            try {
+                total += s.aktif.size();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return total;
+    }
+    // Majukan roda waktu setiap stripe dan bebaskan reservasi yang kedaluwarsa. Reservasi yang sudah
+    // dikomit atau dilepas masih ada di roda sampai waktunya tiba, lalu diabaikan
+    public int bersihkanKedaluwarsa() {
+        int dibebaskan = 0;
+        for (Stripe s : stripe) {
+            s.lock.lock();
+            try {
+                long sekarang = jamNanos.getAsLong();
+                int[] jumlah = new int[1];
+                s.roda.majukan(sekarang, reservasi -> {
+                    if (s.aktif.remove(reservasi.id()) != null) {
+                        lepasTahanan(s, reservasi);
+                        jumlah[0]++;
+                    }
+                });
+                dibebaskan += jumlah[0];
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return dibebaskan;
+    }
+    public ScheduledFuture<?> jadwalkanPembersihan(ScheduledExecutorService scheduler, Duration interval) {
+        long nanos = interval.toNanos();
+        return scheduler.scheduleWithFixedDelay(this::bersihkanKedaluwarsa, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+    private static void lepasTahanan(Stripe s, Reservasi reservasi) {
+        s.tertahan.computeIfPresent(reservasi.kode(), (k, v) -> v == reservasi.jumlah() ? null : v - reservasi.jumlah());
+    }
+    private int indeksStripe(String kode) {
+        int h = kode.hashCode();
+        return (h ^ (h >>> 16)) & (stripe.length - 1);
+    }
+}
@@ -0,0 +1,18 @@
+package com.praktikum.whitebox.service;
+
+public enum StatusOperasi {
+    BERHASIL,
+    KODE_TIDAK_VALID,
+    JUMLAH_TIDAK_VALID,
+    PRODUK_TIDAK_DITEMUKAN,
+    PRODUK_TIDAK_AKTIF,
+    STOK_TIDAK_CUKUP,
+    // Hanya dari operasi tunggal: data produk baru tidak valid, kode sudah dipakai, atau produk
+    // yang akan dihapus masih punya stok
+    PRODUK_TIDAK_VALID,
+    PRODUK_SUDAH_ADA,
+    STOK_MASIH_ADA;
+    public boolean isBerhasil() {
+        return this == BERHASIL;
+    }
+}
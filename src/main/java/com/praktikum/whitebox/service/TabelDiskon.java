@@ -0,0 +1,105 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.util.UangUtils;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+// Tabel aturan diskon yang sudah dikompilasi. Ambang kuantitas dicari dengan binary search dan
+// persentase untuk setiap pasangan (tingkat kuantitas, tipe pelanggan) dihitung sekali di konstruktor
+// dengan urutan penjumlahan yang sama seperti rantai if/else lama sehingga hasilnya identik per bit
+public final class TabelDiskon {
+    static final int JUMLAH_KOLOM = TipePelanggan.values().length + 1;
+    // Kolom terakhir dipakai untuk tipe pelanggan yang tidak dikenal atau null
+    static final int KOLOM_TANPA_TIPE = JUMLAH_KOLOM - 1;
+    private final int[] ambangKuantitas;
+    private final double[] diskonKuantitas;
+    private final Map<TipePelanggan, Double> diskonTipe;
+    private final double diskonMaksimum;
+    private final double[] matriks;
+    private final int[] matriksBasisPoin;
+    // ambangKuantitas naik tegas; diskonKuantitas[i] berlaku untuk kuantitas >= ambangKuantitas[i]
+    public TabelDiskon(int[] ambangKuantitas, double[] diskonKuantitas, Map<TipePelanggan, Double> diskonTipe,
+                       double diskonMaksimum) {
+        if (ambangKuantitas.length != diskonKuantitas.length) {
+            throw new IllegalArgumentException("Jumlah ambang dan diskon kuantitas harus sama");
+        }
+        for (int i = 0; i < ambangKuantitas.length; i++) {
+            if (ambangKuantitas[i] <= 0 || (i > 0 && ambangKuantitas[i] <= ambangKuantitas[i - 1])) {
+                throw new IllegalArgumentException("Ambang kuantitas harus positif dan naik");
+            }
+            periksaPersentase(diskonKuantitas[i]);
+        }
+        diskonTipe.values().forEach(TabelDiskon::periksaPersentase);
+        periksaPersentase(diskonMaksimum);
+        this.ambangKuantitas = ambangKuantitas.clone();
+        this.diskonKuantitas = diskonKuantitas.clone();
+        this.diskonTipe = diskonTipe.isEmpty() ? new EnumMap<>(TipePelanggan.class) : new EnumMap<>(diskonTipe);
+        this.diskonMaksimum = diskonMaksimum;
+        this.matriks = new double[(ambangKuantitas.length + 1) * JUMLAH_KOLOM];
+        this.matriksBasisPoin = new int[matriks.length];
+        for (int tingkat = 0; tingkat <= ambangKuantitas.length; tingkat++) {
+            for (int kolom = 0; kolom < JUMLAH_KOLOM; kolom++) {
+                double diskon = 0.0;
+                if (tingkat > 0) {
+                    diskon += diskonKuantitas[tingkat - 1];
+                }
+                Double tambahan = kolom == KOLOM_TANPA_TIPE ? null : diskonTipe.get(TipePelanggan.values()[kolom]);
+                if (tambahan != null) {
+                    diskon += tambahan;
+                }
+                matriks[tingkat * JUMLAH_KOLOM + kolom] = Math.min(diskon, diskonMaksimum);
+                matriksBasisPoin[tingkat * JUMLAH_KOLOM + kolom] =
+                        (int) Math.round(matriks[tingkat * JUMLAH_KOLOM + kolom] * UangUtils.BASIS_POIN_PENUH);
+            }
+        }
+    }
+    public static TabelDiskon bawaan() {
+        Map<TipePelanggan, Double> tipe = new EnumMap<>(TipePelanggan.class);
+        tipe.put(TipePelanggan.PREMIUM, 0.10);
+        tipe.put(TipePelanggan.REGULER, 0.05);
+        tipe.put(TipePelanggan.BARU, 0.02);
+        return new TabelDiskon(new int[] {5, 10, 50, 100}, new double[] {0.05, 0.10, 0.15, 0.20}, tipe, 0.30);
+    }
+    // Persentase diskon gabungan; tipe null berarti tanpa diskon tipe pelanggan
+    public double persentase(int kuantitas, TipePelanggan tipe) {
+        int posisi = Arrays.binarySearch(ambangKuantitas, kuantitas);
+        int tingkat = posisi >= 0 ? posisi + 1 : -posisi - 1;
+        return matriks[tingkat * JUMLAH_KOLOM + (tipe == null ? KOLOM_TANPA_TIPE : tipe.ordinal())];
+    }
+    // Persentase yang sama dalam basis poin (1/10000) untuk perhitungan uang tepat
+    public int basisPoin(int kuantitas, TipePelanggan tipe) {
+        int posisi = Arrays.binarySearch(ambangKuantitas, kuantitas);
+        int tingkat = posisi >= 0 ? posisi + 1 : -posisi - 1;
+        return matriksBasisPoin[tingkat * JUMLAH_KOLOM + (tipe == null ? KOLOM_TANPA_TIPE : tipe.ordinal())];
+    }
+    // Untuk API massal: tipe berupa ordinal TipePelanggan, nilai di luar rentang berarti tanpa tipe
+    double persentase(int kuantitas, byte tipe) {
+        int posisi = Arrays.binarySearch(ambangKuantitas, kuantitas);
+        int tingkat = posisi >= 0 ? posisi + 1 : -posisi - 1;
+        return matriks[tingkat * JUMLAH_KOLOM + (tipe >= 0 && tipe < KOLOM_TANPA_TIPE ? tipe : KOLOM_TANPA_TIPE)];
+    }
+    // Akses langsung tanpa salinan untuk jalur vektor; jangan diubah
+    int[] ambang() {
+        return ambangKuantitas;
+    }
+    double[] matriks() {
+        return matriks;
+    }
+    public int[] getAmbangKuantitas() {
+        return ambangKuantitas.clone();
+    }
+    public double[] getDiskonKuantitas() {
+        return diskonKuantitas.clone();
+    }
+    public Map<TipePelanggan, Double> getDiskonTipe() {
+        return new EnumMap<>(diskonTipe);
+    }
+    public double getDiskonMaksimum() {
+        return diskonMaksimum;
+    }
+    private static void periksaPersentase(double persentase) {
+        if (!(persentase >= 0 && persentase <= 1)) {
+            throw new IllegalArgumentException("Persentase diskon harus antara 0 dan 1");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.praktikum.whitebox.service;
+
+import java.util.HashMap;
+import java.util.Map;
+public enum TipePelanggan {
+    PREMIUM,
+    REGULER,
+    BARU;
+    private static final TipePelanggan[] NILAI = values();
+    private static final Map<String, TipePelanggan> KANONIK = new HashMap<>();
+    static {
+        for (TipePelanggan tipe : NILAI) {
+            KANONIK.put(tipe.name(), tipe);
+        }
+    }
+    // Null jika nama tidak dikenal. Nama kanonik diambil lewat map, selain itu dicocokkan
+    // dengan equalsIgnoreCase agar hasilnya sama persis dengan perbandingan string sebelumnya
+    public static TipePelanggan dari(String nama) {
+        if (nama == null) {
+            return null;
+        }
+        TipePelanggan tipe = KANONIK.get(nama);
+        if (tipe != null) {
+            return tipe;
+        }
+        for (TipePelanggan t : NILAI) {
+            if (t.name().equalsIgnoreCase(nama)) {
+                return t;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.praktikum.whitebox.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+// Penjumlah 128-bit bertanda untuk nilai uang dalam satuan terkecil. Setiap penjumlahan dan
+// perkalian long x long muat tanpa overflow, sehingga total katalog tetap tepat tanpa membuat
+// BigDecimal per baris; konversi ke BigDecimal hanya sekali di akhir. Tidak thread-safe
+public class AkumulatorUang {
+    private long tinggi;
+    private long rendah;
+    public AkumulatorUang tambah(long nilai) {
+        tambah128(nilai >> 63, nilai);
+        return this;
+    }
+    public AkumulatorUang tambahHasilKali(long a, long b) {
+        tambah128(Math.multiplyHigh(a, b), a * b);
+        return this;
+    }
+    public AkumulatorUang tambah(AkumulatorUang lain) {
+        tambah128(lain.tinggi, lain.rendah);
+        return this;
+    }
+    private void tambah128(long tinggiTambahan, long rendahTambahan) {
+        long rendahBaru = rendah + rendahTambahan;
+        tinggi += tinggiTambahan + (Long.compareUnsigned(rendahBaru, rendah) < 0 ? 1 : 0);
+        rendah = rendahBaru;
+    }
+    // True jika total masih muat di long sehingga bisa dibaca dengan keLong
+    public boolean isMuatLong() {
+        return tinggi == (rendah >> 63);
+    }
+    public long keLong() {
+        if (!isMuatLong()) {
+            throw new ArithmeticException("Total melampaui rentang long");
+        }
+        return rendah;
+    }
+    public BigInteger keBigInteger() {
+        if (isMuatLong()) {
+            return BigInteger.valueOf(rendah);
+        }
+        return BigInteger.valueOf(tinggi).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(rendah)));
+    }
+    public BigDecimal keBigDecimal() {
+        return new BigDecimal(keBigInteger(), UangUtils.DIGIT_SKALA);
+    }
+}
@@ -0,0 +1,99 @@
+package com.praktikum.whitebox.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+// Penggabung panggilan identik yang bersamaan: selama satu panggilan untuk sebuah kunci masih
+// berjalan, pemanggil lain dengan kunci yang sama menunggu hasilnya alih-alih memanggil lagi.
+// Hasil tidak disimpan; begitu panggilan selesai, pemanggil berikutnya memulai panggilan baru
+public final class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> dalamProses = new ConcurrentHashMap<>();
+    private final LongAdder jumlahPanggilan = new LongAdder();
+    private final LongAdder jumlahDigabung = new LongAdder();
+    // Jalankan pemuat di thread pemanggil, atau tunggu panggilan yang sedang berjalan untuk kunci ini
+    public V jalankan(K kunci, Supplier<? extends V> pemuat) {
+        CompletableFuture<V> baru = new CompletableFuture<>();
+        CompletableFuture<V> berjalan = dalamProses.putIfAbsent(kunci, baru);
+        if (berjalan != null) {
+            jumlahDigabung.increment();
+            return tunggu(berjalan);
+        }
+        jumlahPanggilan.increment();
+        V hasil;
+        try {
+            hasil = pemuat.get();
+        } catch (RuntimeException | Error e) {
+            dalamProses.remove(kunci, baru);
+            baru.completeExceptionally(e);
+            throw e;
+        }
+        // Lepas dari peta sebelum menyelesaikan agar pemanggil baru tidak menerima hasil yang sudah lewat
+        dalamProses.remove(kunci, baru);
+        baru.complete(hasil);
+        return hasil;
+    }
+    // Versi asinkron: pemuat memulai pekerjaan dan mengembalikan future-nya. Setiap pemanggil menerima
+    // future sendiri sehingga pembatalan oleh satu pemanggil tidak memengaruhi yang lain
+    public CompletableFuture<V> jalankanAsinkron(K kunci, Supplier<? extends CompletableFuture<? extends V>> pemuat) {
+        CompletableFuture<V> baru = new CompletableFuture<>();
+        CompletableFuture<V> berjalan = dalamProses.putIfAbsent(kunci, baru);
+        if (berjalan != null) {
+            jumlahDigabung.increment();
+            return berjalan.copy();
+        }
+        jumlahPanggilan.increment();
+        CompletableFuture<? extends V> panggilan;
+        try {
+            panggilan = pemuat.get();
+        } catch (RuntimeException | Error e) {
+            dalamProses.remove(kunci, baru);
+            baru.completeExceptionally(e);
+            throw e;
+        }
+        panggilan.whenComplete((hasil, error) -> {
+            dalamProses.remove(kunci, baru);
+            if (error != null) {
+                baru.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                baru.complete(hasil);
+            }
+        });
+        return baru.copy();
+    }
+    // Lepaskan panggilan yang sedang berjalan untuk kunci ini dari penggabungan, misalnya setelah
+    // data berubah. Penunggu yang sudah ada tetap menerima hasilnya; pemanggil baru memulai ulang
+    public void lupakan(K kunci) {
+        dalamProses.remove(kunci);
+    }
+    public void lupakanSemua() {
+        dalamProses.clear();
+    }
+    // Panggilan yang benar-benar diteruskan ke pemuat
+    public long getJumlahPanggilan() {
+        return jumlahPanggilan.sum();
+    }
+    // Panggilan yang menumpang panggilan lain yang sedang berjalan
+    public long getJumlahDigabung() {
+        return jumlahDigabung.sum();
+    }
+    public int getJumlahDalamProses() {
+        return dalamProses.size();
+    }
+    private static <V> V tunggu(CompletableFuture<V> berjalan) {
+        try {
+            return berjalan.join();
+        } catch (CompletionException e) {
+            Throwable sebab = e.getCause();
+            if (sebab instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (sebab instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
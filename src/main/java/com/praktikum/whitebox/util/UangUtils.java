@@ -0,0 +1,29 @@
+package com.praktikum.whitebox.util;
+
+import java.math.BigDecimal;
+public class UangUtils {
+    // Jumlah satuan terkecil (sen) per satu satuan mata uang
+    public static final int SKALA = 100;
+    public static final int DIGIT_SKALA = 2;
+    public static final int BASIS_POIN_PENUH = 10_000;
+    // Konversi dari harga double; bolak-balik keDouble -> keMinor tepat untuk |minor| < 2^50
+    public static long keMinor(double nilai) {
+        return Math.round(nilai * SKALA);
+    }
+    public static double keDouble(long minor) {
+        return (double) minor / SKALA;
+    }
+    public static BigDecimal keBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, DIGIT_SKALA);
+    }
+    // total * basisPoin / 10000 dibulatkan setengah ke atas, tanpa overflow untuk total >= 0
+    // dan 0 <= basisPoin <= 10000: hasil bagi dan sisa dikalikan terpisah
+    public static long kaliBasisPoin(long total, int basisPoin) {
+        if (total < 0 || basisPoin < 0 || basisPoin > BASIS_POIN_PENUH) {
+            throw new IllegalArgumentException("Total harus non-negatif dan basis poin antara 0 dan 10000");
+        }
+        long hasilBagi = total / BASIS_POIN_PENUH;
+        long sisa = total % BASIS_POIN_PENUH;
+        return hasilBagi * basisPoin + (sisa * basisPoin + BASIS_POIN_PENUH / 2) / BASIS_POIN_PENUH;
+    }
+}
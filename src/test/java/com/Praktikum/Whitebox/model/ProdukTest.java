@@ -358,4 +358,21 @@ public class ProdukTest {
         assertEquals("TEST", parameterizedProduct.getKode());
         assertTrue(parameterizedProduct.isAktif());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Harga satuan terkecil sinkron dengan harga double dan total tepat")
+    void testHargaMinor() {
+        assertEquals(1500000000L, produk.getHargaMinor());
+
+        produk.setHarga(0.1);
+        assertEquals(10, produk.getHargaMinor());
+        assertEquals(30, produk.hitungTotalHargaMinor(3)); // 0.1 * 3 dalam double = 0.30000000000000004
+
+        produk.setHargaMinor(1999);
+        assertEquals(19.99, produk.getHarga(), 0.0);
+        assertEquals(1999, new Produk(produk).getHargaMinor());
+        assertThrows(IllegalArgumentException.class, () -> produk.hitungTotalHargaMinor(0));
+        produk.setHargaMinor(Long.MAX_VALUE / 2);
+        assertThrows(ArithmeticException.class, () -> produk.hitungTotalHargaMinor(3));
+    }
+}
@@ -0,0 +1,143 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.IndeksNamaProduk;
+import com.praktikum.whitebox.repository.IndeksNamaProduk.Mode;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Indeks Nama Produk")
+public class IndeksNamaProdukTest {
+    private IndeksNamaProduk indeks;
+
+    @BeforeEach
+    void setUp() {
+        indeks = new IndeksNamaProduk();
+        indeks.tambah("P1", "Laptop Gaming ROG");
+        indeks.tambah("P2", "Laptop");
+        indeks.tambah("P3", "Tas Laptop Kulit");
+        indeks.tambah("P4", "Mouse Wireless Gaming");
+        indeks.tambah("P5", "Kopi Arabika");
+        indeks.tambah("P6", "Laptop Stand Aluminium");
+    }
+
+    @Test
+    @DisplayName("Substring tidak peka huruf besar/kecil, termasuk kueri pendek")
+    void testSubstring() {
+        assertEquals(List.of("P4"), indeks.cari("WIRE", Mode.SUBSTRING, 10));
+        assertEquals(List.of("P4"), indeks.cari("e w", Mode.SUBSTRING, 10));
+        assertEquals(4, indeks.cari("ap", Mode.SUBSTRING, 10).size());
+        assertTrue(indeks.cari("keyboard", Mode.SUBSTRING, 10).isEmpty());
+        assertEquals(6, indeks.cari("", Mode.SUBSTRING, 10).size());
+    }
+
+    @Test
+    @DisplayName("Hasil diurutkan: sama persis, awalan nama, token utuh, lalu substring")
+    void testPeringkat() {
+        assertEquals(List.of("P2", "P1", "P6", "P3"), indeks.cari("laptop", Mode.SUBSTRING, 10));
+        // "apto" hanya substring; urutan berikutnya nama terpendek
+        assertEquals(List.of("P2", "P3", "P1", "P6"), indeks.cari("apto", Mode.SUBSTRING, 10));
+    }
+
+    @Test
+    @DisplayName("Mode awalan mencocokkan setiap token kueri dengan awalan token nama")
+    void testAwalan() {
+        assertEquals(List.of("P1"), indeks.cari("lap gam", Mode.AWALAN, 10));
+        assertEquals(List.of("P1", "P4"), indeks.cari("gam", Mode.AWALAN, 10));
+        assertEquals(List.of("P2", "P1", "P6", "P3"), indeks.cari("Lap", Mode.AWALAN, 10));
+        // "apt" bukan awalan token mana pun
+        assertTrue(indeks.cari("apt", Mode.AWALAN, 10).isEmpty());
+        assertTrue(indeks.cari("  ", Mode.AWALAN, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mode token hanya mencocokkan token utuh")
+    void testToken() {
+        assertEquals(List.of("P1", "P4"), indeks.cari("gaming", Mode.TOKEN, 10));
+        assertEquals(List.of("P4"), indeks.cari("wireless, GAMING", Mode.TOKEN, 10));
+        assertTrue(indeks.cari("gam", Mode.TOKEN, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Batas hasil mengambil yang paling relevan")
+    void testBatas() {
+        assertEquals(List.of("P2", "P1"), indeks.cari("laptop", Mode.AWALAN, 2));
+        assertTrue(indeks.cari("laptop", Mode.AWALAN, 0).isEmpty());
+        assertTrue(indeks.cari(null, Mode.AWALAN, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Hapus dan ganti nama memperbarui indeks")
+    void testHapusDanGantiNama() {
+        indeks.hapus("P2");
+        indeks.tambah("P5", "Kopi Laptop Edition");
+
+        assertEquals(List.of("P1", "P6", "P3", "P5"), indeks.cari("laptop", Mode.TOKEN, 10));
+        assertTrue(indeks.cari("arabika", Mode.SUBSTRING, 10).isEmpty());
+        assertEquals(5, indeks.jumlah());
+
+        // Id yang dibebaskan dipakai ulang tanpa mencampur nama lama
+        indeks.tambah("P7", "Arabika Gayo");
+        assertEquals(List.of("P7"), indeks.cari("arabika", Mode.SUBSTRING, 10));
+    }
+
+    @Test
+    @DisplayName("Indeks tetap benar setelah tumbuh melewati kapasitas awal")
+    void testBanyakProduk() {
+        for (int i = 0; i < 5000; i++) {
+            indeks.tambah("X" + i, "Barang Seri " + i);
+        }
+        assertEquals(List.of("X4321"), indeks.cari("seri 4321", Mode.SUBSTRING, 10));
+        assertEquals(List.of("X4321"), indeks.cari("4321", Mode.TOKEN, 10));
+        assertEquals(10, indeks.cari("barang", Mode.AWALAN, 10).size());
+    }
+
+    @Test
+    @DisplayName("Kueri pendek dan awalan umum tetap benar pada kamus token yang besar")
+    void testKueriPendekKamusBesar() {
+        for (int i = 0; i < 5000; i++) {
+            indeks.tambah("A" + i, "Alat" + i + " Rumah");
+        }
+        indeks.tambah("Z1", "Apel Zebra");
+
+        // Awalan "a" dimiliki ribuan token; token "zeb" yang jarang dipakai sebagai sumber kandidat
+        assertEquals(List.of("Z1"), indeks.cari("a zeb", Mode.AWALAN, 10));
+        // Kueri substring pendek di tengah token ditemukan lewat kamus token
+        assertEquals(List.of("P1", "P4", "P6"), indeks.cari("mi", Mode.SUBSTRING, 10));
+        assertEquals(List.of("P5"), indeks.cari("BI", Mode.SUBSTRING, 10));
+        assertEquals(List.of("P2", "P3", "P1", "P6"), indeks.cari("pt", Mode.SUBSTRING, 10));
+        assertEquals(10, indeks.cari("a", Mode.SUBSTRING, 10).size());
+        assertEquals(List.of("P3", "P4"), indeks.cari("s ", Mode.SUBSTRING, 10));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"laptop, SUBSTRING", "lap gam, AWALAN", "gaming, TOKEN", "o, SUBSTRING", "ik, SUBSTRING", "TAS, AWALAN"})
+    @DisplayName("Repository berindeks dan pemindaian bawaan memberi hasil yang sama")
+    void testSamaDenganPemindaian(String kueri, Mode mode) {
+        RepositoryProdukInMemory berindeks = new RepositoryProdukInMemory();
+        RepositoryProdukKolom kolom = new RepositoryProdukKolom(16);
+        String[][] data = {{"P1", "Laptop Gaming ROG"}, {"P2", "Laptop"}, {"P3", "Tas Laptop Kulit"},
+                {"P4", "Mouse Wireless Gaming"}, {"P5", "Kopi Arabika"}, {"P6", "Laptop Stand Aluminium"}};
+        for (String[] baris : data) {
+            Produk produk = new Produk(baris[0], baris[1], "Umum", 1000, 5, 1);
+            berindeks.simpan(produk);
+            kolom.simpan(produk);
+        }
+
+        assertEquals(kode(kolom.cariByNama(kueri, mode, 3)), kode(berindeks.cariByNama(kueri, mode, 3)));
+    }
+
+    private static List<String> kode(List<Produk> produk) {
+        return produk.stream().map(Produk::getKode).collect(Collectors.toList());
+    }
+}
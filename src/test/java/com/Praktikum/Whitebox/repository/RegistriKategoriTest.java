@@ -0,0 +1,211 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.MutasiStok;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RegistriKategori;
+import com.praktikum.whitebox.repository.RegistriKategori.Rollup;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import com.praktikum.whitebox.repository.RepositoryProdukShard;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.StatusOperasi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Registri Kategori dan Rollup")
+public class RegistriKategoriTest {
+    private RegistriKategori registri;
+    private RepositoryProdukInMemory repository;
+
+    @BeforeEach
+    void setUp() {
+        registri = new RegistriKategori();
+        registri.daftarkan(new Kategori("ELEK", "Elektronik", null));
+        registri.daftarkan(new Kategori("KOMP", "Komputer", null, "ELEK"));
+        registri.daftarkan(new Kategori("LAPTOP", "Laptop", null, "KOMP"));
+        repository = new RepositoryProdukInMemory(registri);
+        repository.simpan(new Produk("PRD01", "Laptop A", "LAPTOP", 1000, 10, 2));
+        repository.simpan(new Produk("PRD02", "Monitor", "komp", 500, 4, 1));
+        repository.simpan(new Produk("PRD03", "Kulkas", "Elek", 2000, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Kode kategori diinternir tanpa membedakan huruf besar/kecil")
+    void testIntern() {
+        int id = registri.intern("Laptop");
+        assertEquals(id, registri.intern("LAPTOP"));
+        assertEquals(id, registri.cariId("laptop"));
+        assertEquals("LAPTOP", registri.kodeById(id));
+        assertEquals(RegistriKategori.TANPA_KATEGORI, registri.intern(null));
+        assertEquals(RegistriKategori.TANPA_KATEGORI, registri.cariId("TIDAKADA"));
+        assertNull(registri.kodeById(999));
+    }
+
+    @Test
+    @DisplayName("Rollup mencakup subkategori dan mengikuti operasi stok")
+    void testRollupHierarki() {
+        assertEquals(new Rollup(15, 14000), registri.rollup("ELEK", true).get());
+        assertEquals(new Rollup(1, 2000), registri.rollup("ELEK", false).get());
+        assertEquals(new Rollup(14, 12000), registri.rollup("KOMP", true).get());
+
+        repository.kurangiStokJikaCukup("PRD01", 3);
+        repository.tambahStok("PRD02", 1);
+        repository.updateStok("PRD03", 0);
+        assertEquals(new Rollup(12, 9500), registri.rollup("ELEK", true).get());
+        assertEquals(new Rollup(7, 7000), registri.rollup("LAPTOP", false).get());
+
+        repository.hapus("PRD02");
+        assertEquals(new Rollup(7, 7000), registri.rollup("KOMP", true).get());
+        assertTrue(registri.rollup("TIDAKADA", true).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Produk nonaktif dan pindah kategori memperbarui rollup")
+    void testSimpanUlang() {
+        Produk p1 = repository.cariByKode("PRD01").get();
+        p1.setKategori("ELEK");
+        repository.simpan(p1);
+        assertEquals(Rollup.KOSONG, registri.rollup("LAPTOP", true).get());
+        assertEquals(new Rollup(11, 12000), registri.rollup("ELEK", false).get());
+
+        p1.setAktif(false);
+        repository.simpan(p1);
+        assertEquals(new Rollup(5, 4000), registri.rollup("ELEK", true).get());
+    }
+
+    @Test
+    @DisplayName("Memindah induk memindahkan total subtree dan menolak siklus")
+    void testSetInduk() {
+        registri.daftarkan(new Kategori("KANTOR", "Kantor", null));
+        assertTrue(registri.setInduk("KOMP", "KANTOR"));
+
+        assertEquals(new Rollup(1, 2000), registri.rollup("ELEK", true).get());
+        assertEquals(new Rollup(14, 12000), registri.rollup("KANTOR", true).get());
+        assertEquals(List.of("KOMP"), registri.getSubKategori("kantor"));
+        assertEquals("KANTOR", registri.getInduk("KOMP").get());
+
+        assertFalse(registri.setInduk("KANTOR", "LAPTOP"));
+        assertFalse(registri.daftarkan(new Kategori("KOMP", "Komputer", null, "LAPTOP")));
+        assertEquals("KANTOR", registri.getInduk("KOMP").get());
+        assertTrue(registri.setInduk("KOMP", null));
+        assertTrue(registri.getInduk("KOMP").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rekonsiliasi mengoreksi total yang bergeser")
+    void testRekonsiliasi() {
+        assertEquals(0, registri.rekonsiliasi(repository.cariSemua()));
+        // Pencatatan ganda mensimulasikan pergeseran akibat penulisan yang berpacu
+        registri.catatPerubahanStok(registri.cariId("LAPTOP"), repository.cariByKode("PRD01").get(), 5);
+
+        assertEquals(3, registri.rekonsiliasi(repository.cariSemua()));
+        assertEquals(new Rollup(15, 14000), registri.rollup("ELEK", true).get());
+    }
+
+    @Test
+    @DisplayName("Shard dengan registri bersama memberikan rollup gabungan")
+    void testShardRegistriBersama() {
+        RegistriKategori bersama = new RegistriKategori();
+        RepositoryProdukShard shard = new RepositoryProdukShard(List.of(
+                new RepositoryProdukShard.Shard("a", new RepositoryProdukInMemory(bersama)),
+                new RepositoryProdukShard.Shard("b", new RepositoryProdukInMemory(bersama))));
+        for (int i = 0; i < 20; i++) {
+            shard.simpan(new Produk("K" + i, "Barang", "UMUM", 100, 1, 0));
+        }
+
+        assertSame(bersama, shard.registriKategori().get());
+        assertEquals(new Rollup(20, 2000), bersama.rollup("UMUM", true).get());
+        RepositoryProdukShard terpisah = new RepositoryProdukShard(List.of(
+                new RepositoryProdukShard.Shard("a", new RepositoryProdukInMemory()),
+                new RepositoryProdukShard.Shard("b", new RepositoryProdukInMemory())));
+        assertTrue(terpisah.registriKategori().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Service membaca rollup atau memindai kategori jika tanpa registri")
+    void testService() {
+        ServiceInventaris service = new ServiceInventaris(repository);
+        assertEquals(14000, service.hitungTotalNilaiKategori("ELEK", true), 0.001);
+        assertEquals(14, service.hitungTotalStokKategori("KOMP", true));
+        assertTrue(service.daftarkanKategori(new Kategori("AUDIO", "Audio", null, "ELEK")));
+        assertFalse(service.daftarkanKategori(new Kategori("X", "Audio", null)));
+        assertEquals(0, service.hitungTotalStokKategori("AUDIO", true));
+
+        RepositoryProdukKolom kolom = new RepositoryProdukKolom(8);
+        kolom.simpan(new Produk("PRD01", "Laptop A", "LAPTOP", 1000, 10, 2));
+        ServiceInventaris tanpaRegistri = new ServiceInventaris(kolom);
+        assertEquals(10000, tanpaRegistri.hitungTotalNilaiKategori("laptop", true), 0.001);
+        assertFalse(tanpaRegistri.daftarkanKategori(new Kategori("AUDIO", "Audio", null)));
+    }
+
+    @Test
+    @DisplayName("Menonaktifkan kategori menurun ke subkategori tanpa mengubah produk")
+    void testStatusKategori() {
+        assertFalse(registri.isAdaNonaktif());
+        assertTrue(registri.setAktif("komp", false));
+
+        assertFalse(registri.isAktif("LAPTOP"));
+        assertFalse(registri.isAktif(registri.cariId("KOMP")));
+        assertTrue(registri.isAktif("ELEK"));
+        assertTrue(registri.isAktif((String) null));
+        assertTrue(repository.cariByKode("PRD01").get().isAktif());
+        assertFalse(registri.getKategori("KOMP").get().isAktif());
+        assertEquals(new Rollup(14, 12000), registri.rollupNonaktif());
+        assertEquals(new Rollup(1, 2000), registri.rollupAktif("ELEK", true).get());
+        assertEquals(Rollup.KOSONG, registri.rollupAktif("LAPTOP", false).get());
+
+        // Subkategori yang ikut nonaktif tidak dihitung dua kali
+        registri.setAktif("LAPTOP", false);
+        assertEquals(new Rollup(14, 12000), registri.rollupNonaktif());
+        registri.setAktif("KOMP", true);
+        assertTrue(registri.isAktif("KOMP"));
+        assertFalse(registri.isAktif("LAPTOP"));
+        assertEquals(new Rollup(10, 10000), registri.rollupNonaktif());
+        assertFalse(registri.setAktif("TIDAKADA", false));
+    }
+
+    @Test
+    @DisplayName("Memindah kategori ke induk nonaktif ikut menonaktifkannya")
+    void testStatusMengikutiInduk() {
+        Kategori arsip = new Kategori("ARSIP", "Arsip", null);
+        arsip.setAktif(false);
+        registri.daftarkan(arsip);
+        assertTrue(registri.isAktif("LAPTOP"));
+
+        registri.setInduk("LAPTOP", "ARSIP");
+        assertFalse(registri.isAktif("LAPTOP"));
+        assertEquals(new Rollup(10, 10000), registri.rollupNonaktif());
+    }
+
+    @Test
+    @DisplayName("Operasi stok dan agregat service menghormati status kategori")
+    void testServiceMenghormatiStatusKategori() {
+        ServiceInventaris service = new ServiceInventaris(repository);
+        assertTrue(service.setKategoriAktif("ELEK", false));
+
+        assertFalse(service.keluarStok("PRD01", 1));
+        assertFalse(service.masukStok("PRD02", 1));
+        assertEquals(StatusOperasi.PRODUK_TIDAK_AKTIF, service.prosesMutasiBatch(
+                List.of(new MutasiStok("PRD03", 1, MutasiStok.Jenis.MASUK)))[0]);
+        assertEquals(0, service.hitungTotalNilaiInventaris(), 0.001);
+        assertEquals(0, service.hitungTotalStok());
+        assertEquals(0, service.hitungTotalNilaiInventarisTepat().signum());
+        assertEquals(0, service.hitungTotalStokKategori("KOMP", true));
+
+        repository.simpan(new Produk("PRD04", "Tanpa Kategori", null, 100, 3, 0));
+        assertEquals(300, service.hitungTotalNilaiInventaris(), 0.001);
+        assertEquals(new BigDecimal("300.00"), service.hitungTotalNilaiInventarisTepat());
+
+        assertTrue(service.setKategoriAktif("ELEK", true));
+        assertTrue(service.keluarStok("PRD01", 1));
+        assertEquals(14, service.hitungTotalStokKategori("ELEK", true));
+        assertFalse(service.setKategoriAktif("TIDAKADA", false));
+    }
+}
@@ -0,0 +1,139 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukCache;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test Repository Produk dengan Cache")
+public class RepositoryProdukCacheTest {
+    @Mock
+    private RepositoryProduk mockRepositoryProduk;
+
+    private long waktuNanos;
+    private RepositoryProdukCache cache;
+    private Produk produkTest;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RepositoryProdukCache(mockRepositoryProduk, 2, Duration.ofSeconds(10),
+                Duration.ofSeconds(1), () -> waktuNanos);
+        produkTest = new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5);
+    }
+
+    @Test
+    @DisplayName("Baca kedua dilayani cache dan mengembalikan salinan")
+    void testHitSetelahMiss() {
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(new Produk(produkTest)));
+
+        cache.cariByKode("PROD001").get().setStok(999);
+        assertEquals(10, cache.cariByKode("PROD001").get().getStok());
+
+        verify(mockRepositoryProduk, times(1)).cariByKode("PROD001");
+        RepositoryProdukCache.Statistik statistik = cache.statistik();
+        assertEquals(1, statistik.hit());
+        assertEquals(1, statistik.miss());
+        assertEquals(0.5, statistik.rasioHit(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Kode yang tidak ada di-cache negatif sampai TTL negatif habis")
+    void testCacheNegatif() {
+        when(mockRepositoryProduk.cariByKode("TIDAKADA")).thenReturn(Optional.empty());
+
+        assertFalse(cache.cariByKode("TIDAKADA").isPresent());
+        assertFalse(cache.cariByKode("TIDAKADA").isPresent());
+        verify(mockRepositoryProduk, times(1)).cariByKode("TIDAKADA");
+
+        waktuNanos += Duration.ofSeconds(1).toNanos();
+        assertFalse(cache.cariByKode("TIDAKADA").isPresent());
+        verify(mockRepositoryProduk, times(2)).cariByKode("TIDAKADA");
+        assertEquals(1, cache.statistik().kedaluwarsa());
+    }
+
+    @Test
+    @DisplayName("Penulisan diteruskan ke delegate dan membuang entri cache")
+    void testInvalidasiSaatMenulis() {
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(new Produk(produkTest)));
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 3)).thenReturn(7);
+        when(mockRepositoryProduk.updateStok("PROD001", 20)).thenReturn(true);
+        ServiceInventaris service = new ServiceInventaris(cache);
+
+        // keluarStok membaca lalu menulis: baca pertama miss, penulisan membuang entri
+        assertTrue(service.keluarStok("PROD001", 3));
+        cache.cariByKode("PROD001");
+        assertTrue(cache.updateStok("PROD001", 20));
+        cache.cariByKode("PROD001");
+        cache.cariByKode("PROD001");
+
+        verify(mockRepositoryProduk, times(3)).cariByKode("PROD001");
+        verify(mockRepositoryProduk).kurangiStokJikaCukup("PROD001", 3);
+    }
+
+    @Test
+    @DisplayName("Simpan setelah cache negatif membuat produk baru terlihat")
+    void testSimpanMembuangCacheNegatif() {
+        when(mockRepositoryProduk.cariByKode("PROD001"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new Produk(produkTest)));
+        when(mockRepositoryProduk.simpan(any(Produk.class))).thenReturn(true);
+
+        assertFalse(cache.cariByKode("PROD001").isPresent());
+        assertTrue(cache.simpan(produkTest));
+        assertTrue(cache.cariByKode("PROD001").isPresent());
+    }
+
+    @Test
+    @DisplayName("Filter TinyLFU menolak kandidat jarang dan mengusir korban LRU untuk kandidat sering")
+    void testEviksiDenganPenerimaanFrekuensi() {
+        when(mockRepositoryProduk.cariByKode(anyString()))
+                .thenAnswer(inv -> Optional.of(new Produk(inv.getArgument(0), "Produk", "Umum", 1000, 1, 1)));
+        for (int i = 0; i < 5; i++) {
+            cache.cariByKode("A");
+            cache.cariByKode("B");
+        }
+
+        cache.cariByKode("C");
+        assertEquals(1, cache.statistik().ditolak());
+        assertEquals(2, cache.jumlahEntri());
+
+        for (int i = 0; i < 6; i++) {
+            cache.cariByKode("C");
+        }
+        assertEquals(1, cache.statistik().eviksi());
+        cache.cariByKode("B");
+        verify(mockRepositoryProduk, times(1)).cariByKode("B");
+    }
+
+    @Test
+    @DisplayName("Cari banyak kode hanya meminta kode yang belum di-cache")
+    void testCariByKodeBanyak() {
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(new Produk(produkTest)));
+        when(mockRepositoryProduk.cariByKodeBanyak(List.of("PROD002", "TIDAKADA")))
+                .thenReturn(Map.of("PROD002", new Produk("PROD002", "Mouse", "Elektronik", 250000, 3, 5)));
+        cache.cariByKode("PROD001");
+
+        Map<String, Produk> hasil = cache.cariByKodeBanyak(List.of("PROD001", "PROD002", "TIDAKADA"));
+
+        assertEquals(2, hasil.size());
+        assertEquals(3, cache.statistik().miss());
+        assertThrows(IllegalArgumentException.class,
+                () -> new RepositoryProdukCache(mockRepositoryProduk, 0, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,266 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.AgregatInventaris;
+import com.praktikum.whitebox.repository.PelacakAgregatInventaris;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Repository Produk In-Memory")
+public class RepositoryProdukInMemoryTest {
+    private RepositoryProdukInMemory repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("PROD002", "Mouse Wireless", "Elektronik", 250000, 3, 5));
+        repository.simpan(new Produk("PROD003", "Kopi Bubuk", "Makanan", 50000, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Simpan dan cari berdasarkan kode mengembalikan salinan")
+    void testSimpanDanCariByKode() {
+        Optional<Produk> hasil = repository.cariByKode("PROD001");
+
+        assertTrue(hasil.isPresent());
+        assertEquals("Laptop Gaming", hasil.get().getNama());
+
+        // Mengubah salinan tidak boleh mengubah isi repository
+        hasil.get().setStok(999);
+        assertEquals(10, repository.cariByKode("PROD001").get().getStok());
+        assertFalse(repository.cariByKode("TIDAKADA").isPresent());
+        assertFalse(repository.cariByKode(null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Simpan produk null atau tanpa kode gagal")
+    void testSimpanInvalid() {
+        assertFalse(repository.simpan(null));
+        assertFalse(repository.simpan(new Produk()));
+        assertEquals(3, repository.jumlahProduk());
+    }
+
+    @Test
+    @DisplayName("Cari berdasarkan kategori tidak peka huruf besar/kecil")
+    void testCariByKategori() {
+        List<Produk> elektronik = repository.cariByKategori("elektronik");
+
+        assertEquals(2, elektronik.size());
+        assertTrue(repository.cariByKategori("Pakaian").isEmpty());
+        assertTrue(repository.cariByKategori(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cari berdasarkan nama mendukung substring dan kueri pendek")
+    void testCariByNama() {
+        assertEquals("PROD002", repository.cariByNama("WIRE").get(0).getKode());
+        assertEquals(1, repository.cariByNama("gaming").size());
+        assertEquals(3, repository.cariByNama("o").size()); // Laptop, Mouse, Kopi
+        assertTrue(repository.cariByNama("keyboard").isEmpty());
+        assertTrue(repository.cariByNama(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ember stok ikut berpindah saat updateStok, simpan ulang dan hapus")
+    void testEmberStokSinkron() {
+        assertEquals(1, repository.cariProdukStokMenipis().size());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertEquals(1, repository.cariProdukStokAman().size());
+
+        assertTrue(repository.updateStok("PROD001", 0));
+        assertEquals(2, repository.cariProdukStokHabis().size());
+        assertTrue(repository.cariProdukStokAman().isEmpty());
+
+        Produk ubahMinimum = repository.cariByKode("PROD002").get();
+        ubahMinimum.setStokMinimum(1);
+        repository.simpan(ubahMinimum);
+        assertTrue(repository.cariProdukStokMenipis().isEmpty());
+        assertEquals("PROD002", repository.cariProdukStokAman().get(0).getKode());
+
+        assertTrue(repository.hapus("PROD003"));
+        assertFalse(repository.hapus("PROD003"));
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertTrue(repository.cariByKategori("Makanan").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Update stok produk yang tidak ada gagal")
+    void testUpdateStokTidakAda() {
+        assertFalse(repository.updateStok("TIDAKADA", 5));
+        assertFalse(repository.updateStok(null, 5));
+    }
+
+    @Test
+    @DisplayName("Stok negatif ditolak oleh simpan, simpanBanyak dan updateStok")
+    void testStokNegatifDitolak() {
+        assertFalse(repository.updateStok("PROD001", Integer.MIN_VALUE));
+        assertFalse(repository.updateStok("PROD001", -1));
+        assertFalse(repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, Integer.MIN_VALUE, 5)));
+        assertEquals(1, repository.simpanBanyak(List.of(
+                new Produk("PROD004", "Tas Ransel", "Aksesoris", 100000, -5, 1),
+                new Produk("PROD005", "Topi", "Aksesoris", 50000, 2, 1))));
+
+        assertEquals(10, repository.cariByKode("PROD001").get().getStok());
+        assertTrue(repository.cariByKode("PROD004").isEmpty());
+        assertEquals(15, repository.agregatInventaris().get().totalStok());
+        assertFalse(repository.rekonsiliasiAgregat().isAdaSelisih(0.001));
+    }
+
+    @Test
+    @DisplayName("Simpan ulang dengan nama baru memperbarui indeks nama")
+    void testSimpanUlangPerbaruiIndeksNama() {
+        repository.simpan(new Produk("PROD001", "Monitor Ultrawide", "Elektronik", 5000000, 10, 5));
+
+        assertTrue(repository.cariByNama("Laptop").isEmpty());
+        assertEquals(1, repository.cariByNama("ultra").size());
+        assertEquals(3, repository.cariSemua().size());
+    }
+
+    @Test
+    @DisplayName("Kurangi stok atomik mengembalikan stok baru atau kode kegagalan")
+    void testKurangiStokJikaCukup() {
+        assertEquals(4, repository.kurangiStokJikaCukup("PROD001", 6));
+        assertEquals("PROD001", repository.cariProdukStokMenipis().stream()
+                .filter(p -> p.getKode().equals("PROD001")).findFirst().get().getKode());
+
+        // Stok tidak cukup: -(stokSaatIni) - 1
+        assertEquals(-5, repository.kurangiStokJikaCukup("PROD001", 5));
+        assertEquals(4, repository.cariByKode("PROD001").get().getStok());
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.kurangiStokJikaCukup("TIDAKADA", 1));
+        assertThrows(IllegalArgumentException.class, () -> repository.kurangiStokJikaCukup("PROD001", 0));
+    }
+
+    @Test
+    @DisplayName("Tambah stok atomik memindahkan produk dari ember habis")
+    void testTambahStok() {
+        assertEquals(7, repository.tambahStok("PROD003", 7));
+        assertTrue(repository.cariProdukStokHabis().isEmpty());
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("TIDAKADA", 1));
+        assertEquals(-8, repository.tambahStok("PROD003", Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> repository.tambahStok("PROD003", -1));
+    }
+
+    @Test
+    @DisplayName("Terapkan delta stok massal dan cari banyak kode sekaligus")
+    void testOperasiMassal() {
+        Map<String, Integer> hasil = repository.terapkanDeltaStok(Map.of(
+                "PROD001", -10, "PROD002", -4, "PROD003", 6, "TIDAKADA", 1));
+
+        assertEquals(0, hasil.get("PROD001"));
+        assertEquals(-4, hasil.get("PROD002")); // stok 3 tidak cukup, tidak berubah
+        assertEquals(6, hasil.get("PROD003"));
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, hasil.get("TIDAKADA"));
+
+        Map<String, Produk> produk = repository.cariByKodeBanyak(List.of("PROD001", "PROD002", "TIDAKADA"));
+        assertEquals(2, produk.size());
+        assertEquals(3, produk.get("PROD002").getStok());
+        assertEquals("PROD001", repository.cariProdukStokHabis().get(0).getKode());
+    }
+
+    @Test
+    @DisplayName("Agregat inventaris mengikuti stok, harga dan status aktif")
+    void testAgregatInventarisInkremental() {
+        AgregatInventaris agregat = repository.agregatInventaris().get();
+        assertEquals(13, agregat.totalStok());
+        assertEquals(15000000.0 * 10 + 250000.0 * 3, agregat.totalNilai(), 0.001);
+
+        repository.kurangiStokJikaCukup("PROD001", 4);
+        repository.tambahStok("PROD003", 2);
+        repository.updateStok("PROD002", 5);
+        assertEquals(13, agregat.totalStok());
+        assertEquals(15000000.0 * 6 + 250000.0 * 5 + 50000.0 * 2, agregat.totalNilai(), 0.001);
+
+        // Perubahan harga dan penonaktifan lewat simpan
+        Produk mouse = repository.cariByKode("PROD002").get();
+        mouse.setHarga(300000);
+        repository.simpan(mouse);
+        Produk laptop = repository.cariByKode("PROD001").get();
+        laptop.setAktif(false);
+        repository.simpan(laptop);
+        assertEquals(7, agregat.totalStok());
+        assertEquals(300000.0 * 5 + 50000.0 * 2, agregat.totalNilai(), 0.001);
+
+        repository.hapus("PROD003");
+        assertEquals(5, agregat.totalStok());
+        assertFalse(repository.rekonsiliasiAgregat().isAdaSelisih(0.001));
+    }
+
+    @Test
+    @DisplayName("Hapus yang berpacu dengan perubahan stok tidak menggeser agregat")
+    void testHapusBerpacuDenganDeltaStok() throws Exception {
+        AgregatInventaris agregat = repository.agregatInventaris().get();
+        for (int putaran = 0; putaran < 2000; putaran++) {
+            Produk produk = new Produk("PROD009", "Tas Ransel", "Aksesoris", 100000, 50, 1);
+            repository.simpan(produk);
+            CountDownLatch mulai = new CountDownLatch(1);
+            Thread pengubah = new Thread(() -> {
+                await(mulai);
+                for (int i = 0; i < 20; i++) {
+                    repository.tambahStok("PROD009", 3);
+                    repository.kurangiStokJikaCukup("PROD009", 2);
+                    repository.updateStok("PROD009", 40 + i);
+                }
+            });
+            pengubah.start();
+            mulai.countDown();
+            Thread.yield();
+            repository.hapus("PROD009");
+            pengubah.join();
+
+            assertTrue(repository.cariByKode("PROD009").isEmpty());
+            assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("PROD009", 1));
+            assertFalse(repository.updateStok("PROD009", 5));
+        }
+
+        long stokRescan = repository.cariSemua().stream().filter(Produk::isAktif).mapToLong(Produk::getStok).sum();
+        assertEquals(stokRescan, agregat.totalStok());
+        assertFalse(repository.rekonsiliasiAgregat().isAdaSelisih(0.001));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Rekonsiliasi mendeteksi dan mengoreksi selisih agregat")
+    void testRekonsiliasiAgregat() {
+        PelacakAgregatInventaris pelacak = new PelacakAgregatInventaris();
+        Produk produk = new Produk("PROD009", "Tas Ransel", "Aksesoris", 100000, 4, 1);
+        pelacak.catatMasuk(produk, 1);
+
+        PelacakAgregatInventaris.Selisih selisih = pelacak.rekonsiliasi(List.of(produk));
+
+        assertEquals(3, selisih.stok());
+        assertEquals(300000, selisih.nilai(), 0.001);
+        assertTrue(selisih.isAdaSelisih(0.001));
+        assertEquals(4, pelacak.totalStok());
+        assertFalse(pelacak.rekonsiliasi(List.of(produk)).isAdaSelisih(0.001));
+    }
+
+    @Test
+    @DisplayName("Alirkan seluruh katalog secara berurutan maupun paralel")
+    void testAlirSemua() {
+        for (int i = 10; i < 1000; i++) {
+            repository.simpan(new Produk("P" + i, "Produk " + i, "Umum", 1000, i, 1));
+        }
+
+        assertEquals(993, repository.alirSemua().count());
+        long totalParalel = repository.alirSemua().parallel().mapToLong(Produk::getStok).sum();
+        assertEquals(13 + (10 + 999) * 990 / 2, totalParalel);
+    }
+}
@@ -0,0 +1,88 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.AgregatInventaris;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Repository Produk Kolom")
+public class RepositoryProdukKolomTest {
+    private RepositoryProdukKolom repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukKolom(4);
+        repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("PROD002", "Mouse Wireless", "Elektronik", 250000, 3, 5));
+        repository.simpan(new Produk("PROD003", "Kopi Bubuk", "Makanan", 50000, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Simpan, cari dan simpan ulang produk lewat kolom")
+    void testSimpanDanCari() {
+        Produk laptop = repository.cariByKode("PROD001").get();
+        assertEquals("Elektronik", laptop.getKategori());
+        assertEquals(15000000, laptop.getHarga(), 0.001);
+        assertTrue(laptop.isAktif());
+
+        laptop.setHarga(14000000);
+        laptop.setAktif(false);
+        assertTrue(repository.simpan(laptop));
+        assertEquals(3, repository.jumlahProduk());
+        assertFalse(repository.cariByKode("PROD001").get().isAktif());
+        assertFalse(repository.cariByKode("TIDAKADA").isPresent());
+        assertFalse(repository.simpan(null));
+    }
+
+    @Test
+    @DisplayName("Kategori dikodekan dengan kamus dan dicari tanpa peka kapital")
+    void testKamusKategori() {
+        assertEquals(2, repository.jumlahKategori());
+        assertEquals(2, repository.cariByKategori("ELEKTRONIK").size());
+        assertTrue(repository.cariByKategori("Pakaian").isEmpty());
+        assertEquals("PROD002", repository.cariByNama("wire").get(0).getKode());
+    }
+
+    @Test
+    @DisplayName("Scan total hanya menghitung produk aktif, termasuk lintas kata bitset")
+    void testScanTotal() {
+        for (int i = 0; i < 200; i++) {
+            Produk produk = new Produk("B" + i, "Barang " + i, "Umum", 100, 2, 1);
+            produk.setAktif(i % 3 != 0);
+            repository.simpan(produk);
+        }
+        ServiceInventaris service = new ServiceInventaris(repository);
+        long aktif = 200 - 67;
+        double nilaiSeharusnya = repository.alirSemua().filter(Produk::isAktif)
+                .mapToDouble(p -> p.getHarga() * p.getStok()).sum();
+
+        assertEquals(13 + 2 * aktif, service.hitungTotalStok());
+        assertEquals(nilaiSeharusnya, service.hitungTotalNilaiInventaris(), 0.001);
+        AgregatInventaris agregat = repository.agregatInventaris().get();
+        assertEquals(13 + 2 * aktif, agregat.totalStok());
+    }
+
+    @Test
+    @DisplayName("Hapus memindahkan slot terakhir tanpa merusak data")
+    void testHapusPadatkanSlot() {
+        assertTrue(repository.hapus("PROD001"));
+        assertFalse(repository.hapus("PROD001"));
+
+        Map<String, Integer> stok = repository.alirSemua()
+                .collect(Collectors.toMap(Produk::getKode, Produk::getStok));
+        assertEquals(Map.of("PROD002", 3, "PROD003", 0), stok);
+        assertEquals(3, repository.hitungTotalStokAktif());
+        assertEquals(1, repository.kurangiStokJikaCukup("PROD002", 2));
+        assertEquals(-2, repository.kurangiStokJikaCukup("PROD002", 2));
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("PROD001", 1));
+    }
+}
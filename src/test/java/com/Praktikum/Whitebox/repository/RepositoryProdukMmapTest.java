@@ -0,0 +1,156 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukMmap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Repository Produk Memory-Mapped")
+public class RepositoryProdukMmapTest {
+    @TempDir
+    Path direktori;
+    private Path berkas;
+    private RepositoryProdukMmap repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        berkas = direktori.resolve("katalog.dat");
+        repository = RepositoryProdukMmap.buka(berkas, 16);
+        repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("PROD002", "Mouse Wireless", "Elektronik", 250000, 3, 5));
+        repository.simpan(new Produk("PROD003", "Kopi Bubuk", "Makanan", 50000, 0, 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("Simpan, cari dan simpan ulang rekaman di berkas")
+    void testSimpanDanCari() {
+        Produk laptop = repository.cariByKode("PROD001").get();
+        assertEquals("Laptop Gaming", laptop.getNama());
+        assertEquals(15000000, laptop.getHarga(), 0.001);
+
+        laptop.setNama("Laptop Kantor");
+        laptop.setAktif(false);
+        assertTrue(repository.simpan(laptop));
+        assertEquals(3, repository.jumlahProduk());
+        assertEquals("Laptop Kantor", repository.cariByKode("PROD001").get().getNama());
+        assertFalse(repository.cariByKode("PROD001").get().isAktif());
+        assertEquals(2, repository.cariByKategori("elektronik").size());
+        assertEquals(1, repository.cariByNama("KOPI").size());
+        assertEquals(1, repository.cariProdukStokMenipis().size());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertFalse(repository.simpan(new Produk("KODE_TERLALU_PANJANG", "X", "Y", 1, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Data dan stok bertahan setelah berkas ditutup dan dibuka ulang")
+    void testBukaUlang() throws IOException {
+        assertEquals(4, repository.kurangiStokJikaCukup("PROD001", 6));
+        assertEquals(-4, repository.kurangiStokJikaCukup("PROD002", 4));
+        assertTrue(repository.hapus("PROD003"));
+        repository.close();
+
+        repository = RepositoryProdukMmap.buka(berkas, 1);
+        assertEquals(16, repository.getKapasitas());
+        assertEquals(2, repository.jumlahProduk());
+        assertEquals(4, repository.cariByKode("PROD001").get().getStok());
+        assertFalse(repository.cariByKode("PROD003").isPresent());
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("PROD003", 1));
+        assertEquals(4 * 15000000.0 + 3 * 250000.0, repository.agregatInventaris().get().totalNilai(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Slot terhapus dipakai ulang dan kapasitas penuh ditolak")
+    void testSlotBebasDanKapasitas() {
+        for (int i = 0; i < 13; i++) {
+            assertTrue(repository.simpan(new Produk("B" + i, "Barang " + i, "Umum", 100, 1, 1)));
+        }
+        assertFalse(repository.simpan(new Produk("PENUH", "Barang", "Umum", 100, 1, 1)));
+
+        assertTrue(repository.hapus("B5"));
+        assertTrue(repository.simpan(new Produk("PENUH", "Barang", "Umum", 100, 7, 1)));
+        assertEquals(7, repository.cariByKode("PENUH").get().getStok());
+        assertEquals(16, repository.alirSemua().count());
+        assertEquals(10 + 3 + 12 + 7, repository.agregatInventaris().get().totalStok());
+    }
+
+    @Test
+    @DisplayName("Hapus berulang menjaga indeks hanya berisi entri kosong atau slot hidup")
+    void testChurnIndeksTanpaPenandaTerhapus() throws IOException {
+        Random acak = new Random(42);
+        Map<String, Integer> acuan = new HashMap<>();
+        for (Produk p : repository.cariSemua()) {
+            acuan.put(p.getKode(), p.getStok());
+        }
+        for (int i = 0; i < 5000; i++) {
+            String kode = "BRG" + acak.nextInt(40);
+            if (acuan.containsKey(kode) || acuan.size() == repository.getKapasitas()) {
+                assertEquals(acuan.remove(kode) != null, repository.hapus(kode));
+            } else {
+                assertTrue(repository.simpan(new Produk(kode, "Barang", "Umum", 100, i, 1)));
+                acuan.put(kode, i);
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            String kode = "BRG" + i;
+            assertEquals(Optional.ofNullable(acuan.get(kode)), repository.cariByKode(kode).map(Produk::getStok));
+        }
+        assertEquals(acuan.size(), repository.jumlahProduk());
+
+        // Indeks 32 entri tepat sesudah header 64 byte: hanya kosong atau nomor slot
+        repository.paksa();
+        ByteBuffer isi = ByteBuffer.wrap(Files.readAllBytes(berkas)).order(ByteOrder.LITTLE_ENDIAN);
+        int terisi = 0;
+        for (int i = 0; i < 32; i++) {
+            int entri = isi.getInt(64 + i * Integer.BYTES);
+            assertTrue(entri >= 0, "entri indeks tidak valid di posisi " + i);
+            terisi += entri > 0 ? 1 : 0;
+        }
+        assertEquals(acuan.size(), terisi);
+    }
+
+    @Test
+    @DisplayName("Pencarian nama tidak bergantung pada locale bawaan JVM")
+    void testCariByNamaLocaleTurki() {
+        repository.simpan(new Produk("PROD004", "KABEL HDMI", "Elektronik", 75000, 5, 1));
+        Locale semula = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals(1, repository.cariByNama("kabel hdmi").size());
+            assertEquals(1, repository.cariByNama("KABEL HDMI").size());
+            assertEquals(4, repository.cariByNama("I").size());
+        } finally {
+            Locale.setDefault(semula);
+        }
+    }
+
+    @Test
+    @DisplayName("Berkas yang bukan katalog ditolak saat dibuka")
+    void testBerkasTidakValid() throws IOException {
+        Path lain = direktori.resolve("lain.dat");
+        Files.write(lain, new byte[128]);
+
+        assertThrows(IOException.class, () -> RepositoryProdukMmap.buka(lain, 16));
+    }
+}
@@ -0,0 +1,174 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.AgregatInventaris;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukKolom;
+import com.praktikum.whitebox.repository.RepositoryProdukShard;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Repository Produk Shard")
+public class RepositoryProdukShardTest {
+    private static final int JUMLAH_PRODUK = 1000;
+    private List<RepositoryProdukInMemory> bagian;
+    private RepositoryProdukShard repository;
+
+    @BeforeEach
+    void setUp() {
+        bagian = new ArrayList<>();
+        List<RepositoryProdukShard.Shard> shard = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RepositoryProdukInMemory r = new RepositoryProdukInMemory();
+            bagian.add(r);
+            shard.add(new RepositoryProdukShard.Shard("shard-" + i, r));
+        }
+        repository = new RepositoryProdukShard(shard);
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            repository.simpan(new Produk("P" + i, "Produk " + i, i % 2 == 0 ? "Genap" : "Ganjil", 1000, i % 10, 3));
+        }
+    }
+
+    private int totalDiShard() {
+        return bagian.stream().mapToInt(RepositoryProdukInMemory::jumlahProduk).sum();
+    }
+
+    @Test
+    @DisplayName("Kode tersebar ke semua shard dan operasi per kode diarahkan ke pemiliknya")
+    void testRouting() {
+        assertEquals(JUMLAH_PRODUK, totalDiShard());
+        for (RepositoryProdukInMemory r : bagian) {
+            assertTrue(r.jumlahProduk() > JUMLAH_PRODUK / 8, "Sebaran shard terlalu timpang");
+        }
+        assertEquals(4, repository.kurangiStokJikaCukup("P5", 1));
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("TIDAKADA", 1));
+        assertTrue(repository.hapus("P5"));
+        assertFalse(repository.cariByKode("P5").isPresent());
+        assertFalse(repository.cariByKode(null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Operasi seluruh katalog disebar paralel dan digabung")
+    void testFanOut() {
+        assertEquals(JUMLAH_PRODUK, repository.cariSemua().size());
+        assertEquals(JUMLAH_PRODUK / 2, repository.cariByKategori("genap").size());
+        assertEquals(JUMLAH_PRODUK / 10, repository.cariProdukStokHabis().size());
+        assertEquals(JUMLAH_PRODUK * 3 / 10, repository.cariProdukStokMenipis().size());
+        assertEquals(JUMLAH_PRODUK, repository.alirSemua().count());
+
+        ServiceInventaris service = new ServiceInventaris(repository);
+        assertEquals(JUMLAH_PRODUK / 10 * 45, service.hitungTotalStok());
+        assertEquals(1000.0 * JUMLAH_PRODUK / 10 * 45, service.hitungTotalNilaiInventaris(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Operasi banyak kode dikelompokkan per shard")
+    void testOperasiMassal() {
+        Map<String, Integer> hasil = repository.terapkanDeltaStok(Map.of("P1", 5, "P2", -3, "P3", -4, "X", 1));
+
+        assertEquals(6, hasil.get("P1"));
+        assertEquals(-3, hasil.get("P2"));
+        assertEquals(-1 - 3, hasil.get("P3"));
+        assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, hasil.get("X"));
+        assertEquals(3, repository.cariByKodeBanyak(List.of("P1", "P2", "P3", "X")).size());
+    }
+
+    @Test
+    @DisplayName("Simpan banyak dikelompokkan per shard")
+    void testSimpanBanyak() {
+        List<Produk> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(new Produk("N" + i, "Baru " + i, "Umum", 1000, 1, 0));
+        }
+        batch.add(new Produk("N0", "Baru Ganti", "Umum", 1000, 7, 0));
+
+        assertEquals(200, repository.simpanBanyak(batch));
+        assertEquals(JUMLAH_PRODUK + 200, totalDiShard());
+        assertEquals(7, repository.cariByKode("N0").get().getStok());
+        assertEquals(0, repository.simpanBanyak(List.of()));
+    }
+
+    @Test
+    @DisplayName("Agregat gabungan kosong jika ada shard tanpa agregat")
+    void testAgregatGabungan() {
+        assertEquals((long) JUMLAH_PRODUK / 10 * 45, repository.agregatInventaris().get().totalStok());
+
+        RepositoryProdukShard campuran = new RepositoryProdukShard(List.of(
+                new RepositoryProdukShard.Shard("a", new RepositoryProdukKolom()),
+                new RepositoryProdukShard.Shard("b", new RepositoryTanpaAgregat())));
+        assertTrue(campuran.agregatInventaris().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryProdukShard(List.of()));
+    }
+
+    @Test
+    @DisplayName("Tambah dan hapus shard hanya memindahkan sebagian produk tanpa kehilangan data")
+    void testSusunUlangShard() {
+        RepositoryProdukInMemory baru = new RepositoryProdukInMemory();
+        int dipindah = repository.tambahShard(new RepositoryProdukShard.Shard("shard-4", baru));
+        bagian.add(baru);
+
+        assertEquals(baru.jumlahProduk(), dipindah);
+        assertTrue(dipindah > 0 && dipindah < JUMLAH_PRODUK / 2);
+        assertEquals(JUMLAH_PRODUK, totalDiShard());
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            assertEquals(i % 10, repository.cariByKode("P" + i).get().getStok());
+        }
+
+        repository.hapusShard("shard-0");
+        assertEquals(0, bagian.get(0).jumlahProduk());
+        assertEquals(JUMLAH_PRODUK, repository.cariSemua().size());
+        assertThrows(IllegalArgumentException.class, () -> repository.hapusShard("shard-0"));
+    }
+
+    @Test
+    @DisplayName("Penyusunan ulang yang gagal menulis ke tujuan dibatalkan tanpa kehilangan produk")
+    void testSusunUlangGagalDibatalkan() {
+        RepositoryTerbatas penuh = new RepositoryTerbatas(5);
+        Map<String, String> pemilikAwal = new HashMap<>();
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            pemilikAwal.put("P" + i, repository.shardUntuk("P" + i));
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> repository.tambahShard(new RepositoryProdukShard.Shard("shard-4", penuh)));
+
+        assertEquals(4, repository.getShard().size());
+        assertEquals(0, penuh.jumlahProduk());
+        assertEquals(JUMLAH_PRODUK, totalDiShard());
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            assertEquals(pemilikAwal.get("P" + i), repository.shardUntuk("P" + i));
+            assertEquals(i % 10, repository.cariByKode("P" + i).get().getStok());
+        }
+    }
+
+    // Repository yang menolak simpan setelah kapasitasnya penuh
+    private static class RepositoryTerbatas extends RepositoryProdukInMemory {
+        private final int kapasitas;
+        RepositoryTerbatas(int kapasitas) {
+            this.kapasitas = kapasitas;
+        }
+        @Override
+        public boolean simpan(Produk produk) {
+            return jumlahProduk() < kapasitas && super.simpan(produk);
+        }
+    }
+
+    // Repository minimal yang memakai implementasi bawaan agregatInventaris (kosong)
+    private static class RepositoryTanpaAgregat extends RepositoryProdukInMemory {
+        @Override
+        public Optional<AgregatInventaris> agregatInventaris() {
+            return Optional.empty();
+        }
+    }
+}
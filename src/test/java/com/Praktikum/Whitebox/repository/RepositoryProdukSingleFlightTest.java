@@ -0,0 +1,137 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukSingleFlight;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test Repository Produk dengan Penggabungan Pencarian")
+public class RepositoryProdukSingleFlightTest {
+    @Mock
+    private RepositoryProduk mockRepositoryProduk;
+
+    private RepositoryProdukSingleFlight repository;
+    private Produk produkTest;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukSingleFlight(mockRepositoryProduk);
+        produkTest = new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5);
+    }
+
+    @Test
+    @DisplayName("cariByKode bersamaan dari keluarStok hanya memanggil delegate sekali")
+    void testCariByKodeBersamaanDigabung() throws Exception {
+        CountDownLatch lepas = new CountDownLatch(1);
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenAnswer(inv -> {
+            lepas.await();
+            return Optional.of(produkTest);
+        });
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 1)).thenReturn(9);
+        ServiceInventaris service = new ServiceInventaris(repository);
+
+        List<Future<Boolean>> hasil = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                hasil.add(executor.submit(() -> service.keluarStok("PROD001", 1)));
+            }
+            tungguSampai(() -> repository.statistik().digabungKode() == 19);
+            lepas.countDown();
+            for (Future<Boolean> f : hasil) {
+                assertTrue(f.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(mockRepositoryProduk, times(1)).cariByKode("PROD001");
+        RepositoryProdukSingleFlight.Statistik statistik = repository.statistik();
+        assertEquals(1, statistik.panggilanKode());
+        assertEquals(19, statistik.totalDigabung());
+    }
+
+    @Test
+    @DisplayName("Pencarian kategori bersamaan berbagi hasil tetapi mendapat salinan produk")
+    void testCariByKategoriDigabungDenganSalinan() throws Exception {
+        CountDownLatch lepas = new CountDownLatch(1);
+        when(mockRepositoryProduk.cariByKategori("Elektronik")).thenAnswer(inv -> {
+            lepas.await();
+            return List.of(produkTest);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Produk>> pertama = executor.submit(() -> repository.cariByKategori("Elektronik"));
+            Future<List<Produk>> kedua = executor.submit(() -> repository.cariByKategori("Elektronik"));
+            tungguSampai(() -> repository.statistik().digabungKategori() == 1);
+            lepas.countDown();
+
+            Produk a = pertama.get(5, TimeUnit.SECONDS).get(0);
+            Produk b = kedua.get(5, TimeUnit.SECONDS).get(0);
+            assertEquals(produkTest, a);
+            assertNotSame(a, b);
+            assertNotSame(produkTest, a);
+        }
+        verify(mockRepositoryProduk, times(1)).cariByKategori("Elektronik");
+    }
+
+    @Test
+    @DisplayName("Pencarian berurutan tidak digabung dan tidak di-cache")
+    void testBerurutanSelaluKeDelegate() {
+        when(mockRepositoryProduk.cariByNama("Laptop")).thenReturn(List.of(produkTest));
+
+        assertEquals(1, repository.cariByNama("Laptop").size());
+        assertEquals(1, repository.cariByNama("Laptop").size());
+
+        verify(mockRepositoryProduk, times(2)).cariByNama("Laptop");
+        assertEquals(0, repository.statistik().totalDigabung());
+    }
+
+    @Test
+    @DisplayName("Penulisan stok melepas pencarian yang sedang berjalan untuk kode itu")
+    void testPenulisanMelepasPencarian() throws Exception {
+        CountDownLatch lepas = new CountDownLatch(1);
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenAnswer(inv -> {
+            lepas.await();
+            return Optional.of(produkTest);
+        }).thenReturn(Optional.of(produkTest));
+        when(mockRepositoryProduk.tambahStok("PROD001", 5)).thenReturn(15);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<Produk>> lama = executor.submit(() -> repository.cariByKode("PROD001"));
+            tungguSampai(() -> repository.statistik().panggilanKode() == 1);
+            assertEquals(15, repository.tambahStok("PROD001", 5));
+            // Pencarian sesudah penulisan tidak menumpang pencarian lama
+            assertTrue(repository.cariByKode("PROD001").isPresent());
+            lepas.countDown();
+            assertTrue(lama.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        verify(mockRepositoryProduk, times(2)).cariByKode("PROD001");
+        assertEquals(0, repository.statistik().digabungKode());
+    }
+
+    private static void tungguSampai(BooleanSupplier kondisi) throws InterruptedException {
+        long batas = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!kondisi.getAsBoolean()) {
+            assertTrue(System.nanoTime() < batas, "kondisi tidak tercapai");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukWal;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Repository Produk dengan Write-Ahead Log")
+public class RepositoryProdukWalTest {
+    @TempDir
+    Path direktori;
+
+    private RepositoryProdukWal buka(RepositoryProdukInMemory delegate) throws IOException {
+        return RepositoryProdukWal.buka(direktori, delegate, 4096, Duration.ofMillis(1), 1024 * 1024);
+    }
+
+    private List<Path> segmen() throws IOException {
+        try (Stream<Path> isi = Files.list(direktori)) {
+            return isi.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Mutasi lewat service dipulihkan setelah dibuka ulang")
+    void testPulihkanSetelahBukaUlang() throws IOException {
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            ServiceInventaris service = new ServiceInventaris(repository);
+            assertTrue(service.tambahProduk(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5)));
+            assertTrue(service.tambahProduk(new Produk("PROD002", "Mouse Wireless", "Elektronik", 250000, 3, 5)));
+            assertTrue(service.keluarStok("PROD001", 4));
+            assertTrue(service.masukStok("PROD002", 7));
+            assertFalse(service.keluarStok("PROD002", 100));
+            assertTrue(repository.updateStok("PROD001", 9));
+            repository.terapkanDeltaStok(Map.of("PROD001", -1, "PROD002", 0));
+            assertTrue(repository.hapus("PROD002"));
+            assertEquals(7, repository.jumlahRekamanDicatat());
+        }
+
+        RepositoryProdukInMemory pulih = new RepositoryProdukInMemory();
+        try (RepositoryProdukWal repository = buka(pulih)) {
+            assertEquals(7, repository.jumlahRekamanDipulihkan());
+            assertEquals(8, repository.cariByKode("PROD001").get().getStok());
+            assertFalse(repository.cariByKode("PROD002").isPresent());
+            assertEquals(1, pulih.jumlahProduk());
+        }
+    }
+
+    @Test
+    @DisplayName("Simpan banyak dicatat per produk dan dipulihkan utuh")
+    void testSimpanBanyak() throws IOException {
+        List<Produk> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Produk("B" + i, "Barang " + i, "Umum", 500, i, 1));
+        }
+        batch.add(null);
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            assertEquals(100, repository.simpanBanyak(batch));
+            assertEquals(100, repository.jumlahRekamanDicatat());
+        }
+
+        RepositoryProdukInMemory pulih = new RepositoryProdukInMemory();
+        try (RepositoryProdukWal repository = buka(pulih)) {
+            assertEquals(100, pulih.jumlahProduk());
+            assertEquals(42, repository.cariByKode("B42").get().getStok());
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot membuang segmen lama dan tetap bisa dipulihkan")
+    void testSnapshotDanPemotonganJurnal() throws IOException {
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            for (int i = 0; i < 50; i++) {
+                repository.simpan(new Produk("P" + i, "Produk " + i, "Umum", 1000, i, 1));
+            }
+            repository.snapshot();
+            assertEquals(1, segmen().size());
+            repository.tambahStok("P1", 10);
+            repository.hapus("P2");
+        }
+
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            assertEquals(50 + 2, repository.jumlahRekamanDipulihkan());
+            assertEquals(11, repository.cariByKode("P1").get().getStok());
+            assertFalse(repository.cariByKode("P2").isPresent());
+            assertEquals(49, repository.cariSemua().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Ekor jurnal yang robek dipotong saat pemulihan")
+    void testEkorRobekDipotong() throws IOException {
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+            repository.tambahStok("PROD001", 5);
+        }
+        Path terakhir = segmen().get(segmen().size() - 1);
+        long ukuranUtuh = Files.size(terakhir);
+        try (FileChannel channel = FileChannel.open(terakhir, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // Bingkai yang panjangnya mengaku 100 byte tetapi hanya sebagian yang sempat ditulis
+            channel.write(ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(7).flip());
+        }
+
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            assertEquals(2, repository.jumlahRekamanDipulihkan());
+            assertEquals(15, repository.cariByKode("PROD001").get().getStok());
+            assertEquals(ukuranUtuh, Files.size(terakhir));
+        }
+    }
+
+    @Test
+    @DisplayName("Banyak penulis bersamaan berbagi fsync lewat group commit")
+    void testGroupCommit() throws Exception {
+        int jumlahThread = 8;
+        int operasiPerThread = 200;
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            repository.simpan(new Produk("PROD001", "Laptop Gaming", "Elektronik", 15000000, 0, 5));
+            long fsyncAwal = repository.jumlahFsync();
+            ExecutorService executor = Executors.newFixedThreadPool(jumlahThread);
+            List<Future<?>> hasil = new ArrayList<>();
+            for (int t = 0; t < jumlahThread; t++) {
+                hasil.add(executor.submit(() -> {
+                    for (int i = 0; i < operasiPerThread; i++) {
+                        assertTrue(repository.tambahStok("PROD001", 1) > 0);
+                    }
+                }));
+            }
+            for (Future<?> f : hasil) {
+                f.get();
+            }
+            executor.shutdown();
+            assertTrue(repository.jumlahFsync() - fsyncAwal < jumlahThread * operasiPerThread);
+        }
+
+        try (RepositoryProdukWal repository = buka(new RepositoryProdukInMemory())) {
+            assertEquals(jumlahThread * operasiPerThread, repository.cariByKode("PROD001").get().getStok());
+            assertEquals(RepositoryProduk.PRODUK_TIDAK_ADA, repository.tambahStok("TIDAKADA", 1));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.Praktikum.Whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RegistriKategori;
+import com.praktikum.whitebox.repository.RegistriKategori.Rollup;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.SnapshotKatalog;
+import com.praktikum.whitebox.repository.SnapshotKatalog.Ringkasan;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Snapshot Katalog Biner")
+public class SnapshotKatalogTest {
+    @TempDir
+    Path direktori;
+
+    private RepositoryProdukInMemory katalogContoh() {
+        RegistriKategori registri = new RegistriKategori();
+        registri.daftarkan(new Kategori("ELEK", "Elektronik", "Barang elektronik"));
+        registri.daftarkan(new Kategori("KOMP", "Komputer", null, "ELEK"));
+        Kategori mainan = new Kategori("MAINAN", "Mainan", null);
+        mainan.setAktif(false);
+        registri.daftarkan(mainan);
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory(registri);
+        repository.simpan(new Produk("PROD001", "Laptop Gaming", "KOMP", 15000000, 10, 2));
+        repository.simpan(new Produk("PROD002", "Kabel \"Ω\"", "ELEK", 12.345, 0, 5));
+        repository.simpan(new Produk("PROD003", null, null, 0.5, 0, 0));
+        Produk robot = new Produk("PROD004", "Robot", "MAINAN", 99999.99, Integer.MAX_VALUE, 1);
+        robot.setAktif(false);
+        repository.simpan(robot);
+        return repository;
+    }
+
+    @Test
+    @DisplayName("Ekspor lalu impor memulihkan produk, kategori dan rollup")
+    void testEksporImpor() throws IOException {
+        RepositoryProdukInMemory asal = katalogContoh();
+        Path berkas = direktori.resolve("katalog.snap");
+
+        Ringkasan ditulis = SnapshotKatalog.ekspor(asal, berkas);
+        assertEquals(new Ringkasan(3, 4, Files.size(berkas)), ditulis);
+
+        RepositoryProdukInMemory pulih = new RepositoryProdukInMemory();
+        assertEquals(ditulis, SnapshotKatalog.impor(berkas, pulih));
+        assertEquals(4, pulih.jumlahProduk());
+        for (Produk p : asal.cariSemua()) {
+            Produk q = pulih.cariByKode(p.getKode()).get();
+            assertEquals(p.toString(), q.toString());
+            assertEquals(p.getHargaMinor(), q.getHargaMinor());
+        }
+        RegistriKategori registri = pulih.registriKategori().get();
+        assertEquals("ELEK", registri.getInduk("KOMP").get());
+        assertEquals("Barang elektronik", registri.getKategori("ELEK").get().getDeskripsi());
+        assertFalse(registri.isAktif("MAINAN"));
+        assertEquals(new Rollup(10, 150000000), registri.rollup("ELEK", true).get());
+    }
+
+    @Test
+    @DisplayName("Induk dan status kategori diambil dari registri, termasuk kategori yang hanya diinternir")
+    void testStrukturKategoriTerbaru() throws IOException {
+        RepositoryProdukInMemory asal = katalogContoh();
+        asal.simpan(new Produk("PROD005", "Mainan Rusak", "RECALL", 1000, 5, 1));
+        ServiceInventaris service = new ServiceInventaris(asal);
+        RegistriKategori registriAsal = asal.registriKategori().get();
+        assertTrue(service.setKategoriAktif("RECALL", false));
+        assertTrue(registriAsal.setInduk("RECALL", "MAINAN"));
+        assertTrue(registriAsal.setInduk("KOMP", null));
+        Path berkas = direktori.resolve("katalog.snap");
+
+        assertEquals(4, SnapshotKatalog.ekspor(asal, berkas).jumlahKategori());
+        RepositoryProdukInMemory pulih = new RepositoryProdukInMemory();
+        SnapshotKatalog.impor(berkas, pulih);
+
+        RegistriKategori registri = pulih.registriKategori().get();
+        assertFalse(registri.isAktifSendiri("RECALL"));
+        assertFalse(new ServiceInventaris(pulih).keluarStok("PROD005", 1));
+        assertEquals("MAINAN", registri.getInduk("RECALL").get());
+        assertTrue(registri.getKategori("RECALL").isEmpty());
+        assertTrue(registri.getInduk("KOMP").isEmpty());
+        assertNull(registri.getKategori("KOMP").get().getKodeInduk());
+        assertEquals(new ServiceInventaris(asal).hitungTotalStok(), new ServiceInventaris(pulih).hitungTotalStok());
+    }
+
+    @Test
+    @DisplayName("Blok kecil memecah rekaman dan kamus kategori berlanjut antar blok")
+    void testBanyakBlok() throws IOException {
+        ByteArrayOutputStream keluaran = new ByteArrayOutputStream();
+        try (SnapshotKatalog.Penulis penulis = new SnapshotKatalog.Penulis(Channels.newChannel(keluaran), 64)) {
+            for (int i = 0; i < 500; i++) {
+                penulis.tulis(new Produk("BRG" + i, "Barang " + i, "KAT" + (i % 7), 1000 + i, i, 1));
+            }
+            penulis.tulis(new Kategori("KAT1", "Kategori Satu", null));
+        }
+        byte[] isi = keluaran.toByteArray();
+
+        List<Produk> produk = new ArrayList<>();
+        List<Kategori> kategori = new ArrayList<>();
+        Ringkasan hasil = SnapshotKatalog.baca(Channels.newChannel(new ByteArrayInputStream(isi)), kategori::add, produk::add);
+
+        assertEquals(new Ringkasan(1, 500, isi.length), hasil);
+        assertEquals("KAT6", produk.get(496).getKategori());
+        assertEquals(1496, produk.get(496).getHarga());
+        assertEquals("Kategori Satu", kategori.get(0).getNama());
+
+        // Dengan blok bawaan: tujuh nama kategori ditulis sekali, sisanya satu byte nomor kamus
+        ByteArrayOutputStream ringkas = new ByteArrayOutputStream();
+        try (SnapshotKatalog.Penulis penulis = new SnapshotKatalog.Penulis(Channels.newChannel(ringkas))) {
+            for (Produk p : produk) {
+                penulis.tulis(p);
+            }
+        }
+        int panjangTeks = produk.stream().mapToInt(p -> p.toString().length()).sum();
+        assertTrue(ringkas.size() * 4 < panjangTeks, "ukuran " + ringkas.size());
+    }
+
+    @Test
+    @DisplayName("Berkas rusak atau terpotong ditolak dengan IOException")
+    void testDeteksiKerusakan() throws IOException {
+        Path berkas = direktori.resolve("katalog.snap");
+        SnapshotKatalog.ekspor(katalogContoh(), berkas);
+        byte[] asli = Files.readAllBytes(berkas);
+
+        byte[] rusak = asli.clone();
+        rusak[asli.length / 2] ^= 0x10;
+        Files.write(berkas, rusak);
+        IOException e = assertThrows(IOException.class, () -> SnapshotKatalog.impor(berkas, new RepositoryProdukInMemory()));
+        assertTrue(e.getMessage().startsWith("Checksum"), e.getMessage());
+
+        try (FileChannel channel = FileChannel.open(berkas, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(asli));
+            channel.truncate(asli.length - 3);
+        }
+        assertThrows(IOException.class, () -> SnapshotKatalog.impor(berkas, new RepositoryProdukInMemory()));
+
+        Files.writeString(berkas, "kode,nama\n");
+        assertThrows(IOException.class, () -> SnapshotKatalog.impor(berkas, new RepositoryProdukInMemory()));
+    }
+
+    @Test
+    @DisplayName("Snapshot dikirim lewat channel dan diterima ke berkas replika")
+    void testKirimTerima() throws Exception {
+        Path berkas = direktori.resolve("katalog.snap");
+        Path replika = direktori.resolve("replika.snap");
+        SnapshotKatalog.ekspor(katalogContoh(), berkas);
+
+        Pipe pipa = Pipe.open();
+        CompletableFuture<Long> pengirim = CompletableFuture.supplyAsync(() -> {
+            try (Pipe.SinkChannel sink = pipa.sink()) {
+                return SnapshotKatalog.kirim(berkas, sink);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        long diterima;
+        try (Pipe.SourceChannel source = pipa.source()) {
+            diterima = SnapshotKatalog.terima(source, replika);
+        }
+
+        assertEquals(Files.size(berkas), pengirim.get());
+        assertEquals(Files.size(berkas), diterima);
+        assertArrayEquals(Files.readAllBytes(berkas), Files.readAllBytes(replika));
+        RepositoryProdukInMemory pulih = new RepositoryProdukInMemory();
+        assertEquals(4, SnapshotKatalog.impor(replika, pulih).jumlahProduk());
+    }
+}
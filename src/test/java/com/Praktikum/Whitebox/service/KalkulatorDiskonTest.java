@@ -1,11 +1,20 @@
 package com.Praktikum.Whitebox.service;
 
 import com.praktikum.whitebox.service.KalkulatorDiskon;
+import com.praktikum.whitebox.service.TabelDiskon;
+import com.praktikum.whitebox.service.TipePelanggan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("Test Kalkulator Diskon - Path Coverage")
 public class KalkulatorDiskonTest {
@@ -126,5 +135,119 @@ public class KalkulatorDiskonTest {
         double diskon4 = kalkulatorDiskon.hitungDiskon(1000, 200, "PREMIUM");
         assertEquals(1000 * 200 * 0.30, diskon4, 0.001); // 60000.0
     }
-}
+    // Salinan logika if/else sebelum tabel diskon, dipakai sebagai acuan uji diferensial
+    private static double hitungDiskonAcuan(double harga, int kuantitas, String tipePelanggan) {
+        double diskon = 0.0;
+        if (kuantitas >= 100) {
+            diskon += 0.20;
+        } else if (kuantitas >= 50) {
+            diskon += 0.15;
+        } else if (kuantitas >= 10) {
+            diskon += 0.10;
+        } else if (kuantitas >= 5) {
+            diskon += 0.05;
+        }
+        if ("PREMIUM".equalsIgnoreCase(tipePelanggan)) {
+            diskon += 0.10;
+        } else if ("REGULER".equalsIgnoreCase(tipePelanggan)) {
+            diskon += 0.05;
+        } else if ("BARU".equalsIgnoreCase(tipePelanggan)) {
+            diskon += 0.02;
+        }
+        diskon = Math.min(diskon, 0.30);
+        return harga * kuantitas * diskon;
+    }
+    @Test
+    @DisplayName("Tabel diskon identik per bit dengan logika if/else lama")
+    void testTabelDiskonIdentikDenganLogikaLama() {
+        String[] tipe = {"PREMIUM", "premium", "Reguler", "REGULER", "baru", "BARU", "UMUM", "", null};
+        Random acak = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            double harga = acak.nextBoolean() ? 1 + acak.nextInt(10_000_000) : acak.nextDouble() * 1e7 + 1e-9;
+            int kuantitas = i < 300 ? i + 1 : 1 + acak.nextInt(Integer.MAX_VALUE);
+            String t = tipe[acak.nextInt(tipe.length)];
+            assertEquals(Double.doubleToRawLongBits(hitungDiskonAcuan(harga, kuantitas, t)),
+                    Double.doubleToRawLongBits(kalkulatorDiskon.hitungDiskon(harga, kuantitas, t)));
+        }
+        assertEquals(kalkulatorDiskon.hitungDiskon(1000, 50, "premium"),
+                kalkulatorDiskon.hitungDiskon(1000, 50, TipePelanggan.PREMIUM));
+    }
+    @Test
+    @DisplayName("Tabel diskon bisa dimuat ulang saat berjalan dan divalidasi")
+    void testMuatUlangTabelDiskon() {
+        Map<TipePelanggan, Double> tipe = new EnumMap<>(
+                TipePelanggan.class);
+        tipe.put(TipePelanggan.PREMIUM, 0.25);
+        kalkulatorDiskon.muatUlangTabel(new TabelDiskon(
+                new int[] {20}, new double[] {0.10}, tipe, 0.40));
+
+        assertEquals(1000 * 20 * (0.10 + 0.25), kalkulatorDiskon.hitungDiskon(1000, 20, "PREMIUM"), 0.001);
+        assertEquals(0, kalkulatorDiskon.hitungDiskon(1000, 19, "BARU"), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> new TabelDiskon(
+                new int[] {10, 5}, new double[] {0.1, 0.2}, tipe, 0.3));
+        assertThrows(IllegalArgumentException.class, () -> kalkulatorDiskon.muatUlangTabel(null));
+    }
+    @Test
+    @DisplayName("Diskon massal identik per bit dengan perhitungan satuan")
+    void testHitungDiskonMassal() {
+        Random acak = new Random(11);
+        // Panjang ganjil agar jalur vektor dan sisa skalar sama-sama teruji
+        int n = 1003;
+        double[] harga = new double[n];
+        int[] kuantitas = new int[n];
+        byte[] tipe = new byte[n];
+        TipePelanggan[] semuaTipe = TipePelanggan.values();
+        for (int i = 0; i < n; i++) {
+            harga[i] = acak.nextDouble() * 1e6 + 0.01;
+            kuantitas[i] = 1 + acak.nextInt(i % 2 == 0 ? 150 : Integer.MAX_VALUE);
+            tipe[i] = (byte) (acak.nextInt(semuaTipe.length + 2) - 1);
+        }
+        double[] diskon = new double[n];
+        double[] hargaAkhir = new double[n];
+        kalkulatorDiskon.hitungDiskonMassal(harga, kuantitas, tipe, diskon);
+        kalkulatorDiskon.hitungHargaSetelahDiskonMassal(harga, kuantitas, tipe, hargaAkhir);
 
+        for (int i = 0; i < n; i++) {
+            TipePelanggan t = tipe[i] >= 0 && tipe[i] < semuaTipe.length ? semuaTipe[tipe[i]] : null;
+            String nama = t == null ? null : t.name();
+            assertEquals(Double.doubleToRawLongBits(kalkulatorDiskon.hitungDiskon(harga[i], kuantitas[i], t)),
+                    Double.doubleToRawLongBits(diskon[i]));
+            assertEquals(Double.doubleToRawLongBits(kalkulatorDiskon.hitungHargaSetelahDiskon(harga[i], kuantitas[i], nama)),
+                    Double.doubleToRawLongBits(hargaAkhir[i]));
+        }
+    }
+    @Test
+    @DisplayName("Diskon massal menolak baris tidak valid dan panjang array berbeda")
+    void testHitungDiskonMassalInvalid() {
+        double[] harga = {1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000};
+        int[] kuantitas = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        byte[] tipe = new byte[9];
+        double[] keluaran = new double[9];
+        kuantitas[1] = 0;
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulatorDiskon.hitungDiskonMassal(harga, kuantitas, tipe, keluaran));
+        kuantitas[1] = 2;
+        harga[8] = -1;
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulatorDiskon.hitungDiskonMassal(harga, kuantitas, tipe, keluaran));
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulatorDiskon.hitungDiskonMassal(harga, kuantitas, new byte[3], keluaran));
+    }
+    @Test
+    @DisplayName("Diskon uang tepat dalam satuan terkecil dan basis poin")
+    void testHitungDiskonMinor() {
+        // 19.99 x 7 = 139.93, diskon 5% + 5% = 10% -> 13.993 dibulatkan menjadi 13.99
+        assertEquals(1399, kalkulatorDiskon.hitungDiskonMinor(1999, 7, TipePelanggan.REGULER));
+        assertEquals(13993 - 1399, kalkulatorDiskon.hitungHargaSetelahDiskonMinor(1999, 7, TipePelanggan.REGULER));
+        assertEquals(0, kalkulatorDiskon.hitungDiskonMinor(1, 1, null));
+        // Total mendekati Long.MAX_VALUE tetap tepat tanpa overflow
+        long hargaBesar = Long.MAX_VALUE / 100;
+        long acuan = BigDecimal.valueOf(hargaBesar * 100).multiply(BigDecimal.valueOf(0.30))
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+        assertEquals(acuan, kalkulatorDiskon.hitungDiskonMinor(hargaBesar, 100, TipePelanggan.PREMIUM));
+        assertThrows(ArithmeticException.class,
+                () -> kalkulatorDiskon.hitungDiskonMinor(Long.MAX_VALUE, 2, TipePelanggan.BARU));
+        assertThrows(IllegalArgumentException.class, () -> kalkulatorDiskon.hitungDiskonMinor(0, 2, null));
+        assertEquals(3000, kalkulatorDiskon.getTabel().basisPoin(100, TipePelanggan.PREMIUM));
+    }
+}
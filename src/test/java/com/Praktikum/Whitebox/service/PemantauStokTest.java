@@ -0,0 +1,276 @@
+package com.Praktikum.Whitebox.service;
+
+import com.praktikum.whitebox.model.MutasiStok;
+import com.praktikum.whitebox.model.PeristiwaStok;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.StatusStok;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.PemantauStok;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Aliran Peringatan Stok")
+public class PemantauStokTest {
+    private RepositoryProdukInMemory repository;
+    private PemantauStok pemantau;
+    private ServiceInventaris serviceInventaris;
+    private PelangganUji pelanggan;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        pemantau = new PemantauStok();
+        serviceInventaris = new ServiceInventaris(repository, pemantau);
+        pelanggan = new PelangganUji(Long.MAX_VALUE);
+        pemantau.subscribe(pelanggan);
+        repository.simpan(new Produk("PROD001", "Laptop", "Elektronik", 15000000, 10, 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pemantau.close();
+    }
+
+    @Test
+    @DisplayName("StatusStok sama dengan isStokHabis, isStokMenipis dan isStokAman")
+    void testStatusStokSesuaiProduk() {
+        for (int stok = 0; stok <= 8; stok++) {
+            Produk produk = new Produk("P", "N", "K", 1, stok, 5);
+            StatusStok status = produk.getStatusStok();
+            assertEquals(produk.isStokHabis(), status == StatusStok.HABIS);
+            assertEquals(produk.isStokMenipis(), status == StatusStok.MENIPIS);
+            assertEquals(produk.isStokAman(), status == StatusStok.AMAN);
+        }
+    }
+
+    @Test
+    @DisplayName("Keluar stok melewati batas minimum mengirim peristiwa AMAN ke MENIPIS")
+    void testKeluarStokMenjadiMenipis() throws Exception {
+        assertTrue(serviceInventaris.keluarStok("PROD001", 6));
+
+        PeristiwaStok peristiwa = pelanggan.ambil();
+        assertEquals(new PeristiwaStok("PROD001", StatusStok.AMAN, StatusStok.MENIPIS, 4), peristiwa);
+    }
+
+    @Test
+    @DisplayName("Mutasi yang tidak mengubah status tidak mengirim peristiwa")
+    void testTanpaPerubahanStatusTidakAdaPeristiwa() throws Exception {
+        assertTrue(serviceInventaris.keluarStok("PROD001", 2));
+        assertTrue(serviceInventaris.masukStok("PROD001", 20));
+        assertFalse(serviceInventaris.keluarStok("PROD001", 1000));
+        assertTrue(serviceInventaris.updateStok("PROD001", 0));
+
+        // Hanya updateStok ke 0 yang melewati batas
+        PeristiwaStok peristiwa = pelanggan.ambil();
+        assertEquals(new PeristiwaStok("PROD001", StatusStok.AMAN, StatusStok.HABIS, 0), peristiwa);
+        assertNull(pelanggan.peristiwa.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Masuk stok dan mutasi batch juga mengirim peristiwa")
+    void testMasukStokDanBatch() throws Exception {
+        repository.simpan(new Produk("PROD002", "Mouse", "Elektronik", 150000, 0, 5));
+
+        assertTrue(serviceInventaris.masukStok("PROD002", 3));
+        assertEquals(new PeristiwaStok("PROD002", StatusStok.HABIS, StatusStok.MENIPIS, 3), pelanggan.ambil());
+
+        serviceInventaris.prosesMutasiBatch(List.of(
+                MutasiStok.keluar("PROD001", 10), MutasiStok.masuk("PROD002", 10)));
+        List<PeristiwaStok> diterima = new ArrayList<>(List.of(pelanggan.ambil(), pelanggan.ambil()));
+        diterima.sort(Comparator.comparing(PeristiwaStok::kode));
+        assertEquals(List.of(
+                new PeristiwaStok("PROD001", StatusStok.AMAN, StatusStok.HABIS, 0),
+                new PeristiwaStok("PROD002", StatusStok.MENIPIS, StatusStok.AMAN, 13)), diterima);
+    }
+
+    @Test
+    @DisplayName("Peristiwa tertunda untuk kode yang sama digabung dalam satu batch")
+    void testPeristiwaTertundaDigabung() throws Exception {
+        List<Runnable> tugas = new ArrayList<>();
+        PemantauStok ditahan = new PemantauStok(tugas::add, 16, 4);
+        PelangganUji penerima = new PelangganUji(Long.MAX_VALUE);
+        ditahan.subscribe(penerima);
+
+        ditahan.catat("A", StatusStok.AMAN, StatusStok.MENIPIS, 3);
+        ditahan.catat("A", StatusStok.MENIPIS, StatusStok.HABIS, 0);
+        ditahan.catat("B", StatusStok.HABIS, StatusStok.AMAN, 20);
+        ditahan.catat("C", StatusStok.AMAN, StatusStok.MENIPIS, 2);
+        ditahan.catat("C", StatusStok.MENIPIS, StatusStok.AMAN, 9);
+        assertEquals(3, ditahan.getJumlahTertunda());
+        assertEquals(2, ditahan.getJumlahDigabung());
+
+        // Jalankan tugas yang tertahan sampai semua pengiriman selesai
+        while (!tugas.isEmpty()) {
+            new ArrayList<>(tugas).forEach(t -> {
+                tugas.remove(t);
+                t.run();
+            });
+        }
+
+        List<PeristiwaStok> batch = penerima.batch.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        List<PeristiwaStok> urut = new ArrayList<>(batch);
+        urut.sort(Comparator.comparing(PeristiwaStok::kode));
+        // C kembali ke AMAN sehingga tidak dilaporkan
+        assertEquals(List.of(
+                new PeristiwaStok("A", StatusStok.AMAN, StatusStok.HABIS, 0),
+                new PeristiwaStok("B", StatusStok.HABIS, StatusStok.AMAN, 20)), urut);
+        assertEquals(1, ditahan.getJumlahBatch());
+    }
+
+    @Test
+    @DisplayName("Laporan yang tiba terbalik diselesaikan dengan stok terkini, di batch yang sama maupun berbeda")
+    void testLaporanTerbalik() throws Exception {
+        List<Runnable> tugas = new ArrayList<>();
+        PemantauStok ditahan = new PemantauStok(tugas::add, 16, 4);
+        PelangganUji penerima = new PelangganUji(Long.MAX_VALUE);
+        ditahan.subscribe(penerima);
+        ditahan.hubungkanSumber(repository::cariByKode);
+        repository.simpan(new Produk("PROD002", "Mouse", "Elektronik", 100000, 20, 5));
+        repository.simpan(new Produk("PROD003", "Kabel", "Elektronik", 5000, 20, 5));
+
+        // Mutasi sebenarnya: MENIPIS -> HABIS lalu HABIS -> AMAN (stok 20), tetapi B tiba lebih dulu
+        ditahan.catat("PROD002", StatusStok.HABIS, StatusStok.AMAN, 20);
+        ditahan.catat("PROD002", StatusStok.MENIPIS, StatusStok.HABIS, 0);
+        jalankanSemua(tugas);
+        assertEquals(List.of(new PeristiwaStok("PROD002", StatusStok.HABIS, StatusStok.AMAN, 20)),
+                penerima.batch.poll(5, TimeUnit.SECONDS));
+        penerima.peristiwa.clear();
+
+        // Urutan terbalik yang terpecah ke dua batch: yang terlambat tidak boleh menimpa status terkini
+        ditahan.catat("PROD003", StatusStok.HABIS, StatusStok.AMAN, 20);
+        jalankanSemua(tugas);
+        assertEquals(new PeristiwaStok("PROD003", StatusStok.HABIS, StatusStok.AMAN, 20), penerima.ambil());
+        ditahan.catat("PROD003", StatusStok.MENIPIS, StatusStok.HABIS, 0);
+        jalankanSemua(tugas);
+        assertNull(penerima.peristiwa.poll(100, TimeUnit.MILLISECONDS));
+
+        // Rantai yang utuh tetap dikirim apa adanya
+        ditahan.catat("PROD003", StatusStok.AMAN, StatusStok.MENIPIS, 3);
+        jalankanSemua(tugas);
+        assertEquals(new PeristiwaStok("PROD003", StatusStok.AMAN, StatusStok.MENIPIS, 3), penerima.ambil());
+    }
+
+    @Test
+    @DisplayName("Hapus produk membuang status terkirim sehingga kode yang dibuat ulang tidak dianggap rantai putus")
+    void testHapusProdukMelupakanStatus() throws Exception {
+        List<Runnable> tugas = new ArrayList<>();
+        PemantauStok ditahan = new PemantauStok(tugas::add, 16, 4);
+        PelangganUji penerima = new PelangganUji(Long.MAX_VALUE);
+        ditahan.subscribe(penerima);
+        ServiceInventaris service = new ServiceInventaris(repository, ditahan);
+        AtomicInteger bacaan = new AtomicInteger();
+        ditahan.hubungkanSumber(kode -> {
+            bacaan.incrementAndGet();
+            return repository.cariByKode(kode);
+        });
+        repository.simpan(new Produk("PROD004", "Kabel", "Elektronik", 5000, 3, 5));
+
+        assertTrue(service.keluarStok("PROD004", 3));
+        jalankanSemua(tugas);
+        assertEquals(new PeristiwaStok("PROD004", StatusStok.MENIPIS, StatusStok.HABIS, 0), penerima.ambil());
+        assertTrue(service.hapusProduk("PROD004"));
+
+        repository.simpan(new Produk("PROD004", "Kabel Baru", "Elektronik", 5000, 3, 5));
+        assertTrue(service.masukStok("PROD004", 10));
+        jalankanSemua(tugas);
+        assertEquals(new PeristiwaStok("PROD004", StatusStok.MENIPIS, StatusStok.AMAN, 13), penerima.ambil());
+        assertEquals(0, bacaan.get());
+    }
+
+    private static void jalankanSemua(List<Runnable> tugas) {
+        while (!tugas.isEmpty()) {
+            new ArrayList<>(tugas).forEach(t -> {
+                tugas.remove(t);
+                t.run();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Pelanggan lambat tidak memblokir mutasi dan antrean tetap terbatas per kode")
+    void testPelangganLambatTidakMemblokir() throws Exception {
+        PemantauStok terbatas = new PemantauStok(r -> Thread.ofVirtual().start(r), 4, 1);
+        PelangganUji lambat = new PelangganUji(1);
+        terbatas.subscribe(lambat);
+
+        long mulai = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            String kode = "K" + (i % 10);
+            boolean turun = (i / 10) % 2 == 0;
+            terbatas.catat(kode, turun ? StatusStok.AMAN : StatusStok.MENIPIS,
+                    turun ? StatusStok.MENIPIS : StatusStok.AMAN, turun ? 1 : 10);
+        }
+        long durasiMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mulai);
+
+        assertTrue(durasiMs < 5_000, "catat tidak boleh menunggu pelanggan, durasi " + durasiMs + "ms");
+        assertTrue(terbatas.getJumlahTertunda() <= 10);
+        assertTrue(terbatas.getJumlahDigabung() > 0);
+        // Pelanggan hanya meminta satu batch
+        assertNotNull(lambat.batch.poll(5, TimeUnit.SECONDS));
+        assertNull(lambat.batch.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Close mengantar sisa peristiwa lalu menyelesaikan pelanggan")
+    void testCloseMenyelesaikanPelanggan() throws Exception {
+        assertTrue(serviceInventaris.keluarStok("PROD001", 10));
+        pemantau.close();
+
+        assertEquals(StatusStok.HABIS, pelanggan.ambil().statusBaru());
+        assertTrue(pelanggan.selesai.await(5, TimeUnit.SECONDS));
+    }
+
+    private static class PelangganUji implements Flow.Subscriber<List<PeristiwaStok>> {
+        final BlockingQueue<List<PeristiwaStok>> batch = new LinkedBlockingQueue<>();
+        final BlockingQueue<PeristiwaStok> peristiwa = new LinkedBlockingQueue<>();
+        final CountDownLatch selesai = new CountDownLatch(1);
+        private final long permintaan;
+
+        PelangganUji(long permintaan) {
+            this.permintaan = permintaan;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(permintaan);
+        }
+
+        @Override
+        public void onNext(List<PeristiwaStok> item) {
+            batch.add(item);
+            peristiwa.addAll(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            selesai.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            selesai.countDown();
+        }
+
+        PeristiwaStok ambil() throws InterruptedException {
+            PeristiwaStok hasil = peristiwa.poll(5, TimeUnit.SECONDS);
+            assertNotNull(hasil, "peristiwa tidak diterima");
+            return hasil;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.Praktikum.Whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceImporKatalog;
+import com.praktikum.whitebox.service.ServiceImporKatalog.AlasanPenolakan;
+import com.praktikum.whitebox.service.ServiceImporKatalog.BarisDitolak;
+import com.praktikum.whitebox.service.ServiceImporKatalog.Format;
+import com.praktikum.whitebox.service.ServiceImporKatalog.HasilImpor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Impor Katalog Massal")
+public class ServiceImporKatalogTest {
+    private RepositoryProdukInMemory repository;
+    private ServiceImporKatalog serviceImpor;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("PROD001", "Laptop", "Elektronik", 15000000, 10, 2));
+        serviceImpor = new ServiceImporKatalog(repository);
+    }
+
+    @Test
+    @DisplayName("CSV dengan header dan field berkutip diimpor, baris buruk dilaporkan")
+    void testImporCsv() throws IOException {
+        String csv = String.join("\n",
+                "kode,nama,kategori,harga,stok,stokMinimum",
+                "PROD002,\"Mouse, Wireless\",Elektronik,250000,5,1",
+                "PROD003,\"Kabel \"\"HDMI\"\"\",Aksesoris,50000.5,20,5,false",
+                "",
+                "PROD004,Kopi,Minuman,abc,1,1",
+                "PROD005,Teh,Minuman,-10,1,1",
+                "PROD002,Mouse Lagi,Elektronik,1,1,1",
+                "PROD001,Laptop Lagi,Elektronik,1,1,1",
+                "PROD006,Kurang Kolom,Minuman,1000");
+
+        HasilImpor hasil = serviceImpor.impor(new StringReader(csv), Format.CSV);
+
+        assertEquals(9, hasil.jumlahBaris());
+        assertEquals(2, hasil.jumlahDisimpan());
+        assertEquals(5, hasil.jumlahDitolak());
+        assertEquals(List.of(
+                new BarisDitolak(5, AlasanPenolakan.FORMAT_TIDAK_VALID, "PROD004,Kopi,Minuman,abc,1,1"),
+                new BarisDitolak(6, AlasanPenolakan.DATA_TIDAK_VALID, "PROD005,Teh,Minuman,-10,1,1"),
+                new BarisDitolak(7, AlasanPenolakan.DUPLIKAT_DALAM_BATCH, "PROD002,Mouse Lagi,Elektronik,1,1,1"),
+                new BarisDitolak(8, AlasanPenolakan.KODE_SUDAH_ADA, "PROD001,Laptop Lagi,Elektronik,1,1,1"),
+                new BarisDitolak(9, AlasanPenolakan.FORMAT_TIDAK_VALID, "PROD006,Kurang Kolom,Minuman,1000")),
+                hasil.ditolak());
+
+        assertEquals("Mouse, Wireless", repository.cariByKode("PROD002").get().getNama());
+        Produk kabel = repository.cariByKode("PROD003").get();
+        assertEquals("Kabel \"HDMI\"", kabel.getNama());
+        assertEquals(50000.5, kabel.getHarga());
+        assertFalse(kabel.isAktif());
+        assertEquals("Laptop", repository.cariByKode("PROD001").get().getNama());
+    }
+
+    @Test
+    @DisplayName("JSON lines dengan escape, kunci tambahan dan nilai null")
+    void testImporJsonl() throws IOException {
+        String jsonl = String.join("\n",
+                "{\"kode\": \"JSN001\", \"nama\": \"Tas \\\"Kulit\\\" \\u00e9\", \"kategori\": \"Fashion\","
+                        + " \"harga\": 125000, \"stok\": 3, \"stokMinimum\": 1, \"warna\": [1, 2]}",
+                "{\"kode\":\"JSN002\",\"nama\":\"Sepatu\",\"kategori\":\"Fashion\",\"harga\":1e5,\"stok\":0,"
+                        + "\"stokMinimum\":0,\"aktif\":false,\"catatan\":null}",
+                "{\"kode\":\"JSN003\",\"nama\":null,\"kategori\":\"Fashion\",\"harga\":1,\"stok\":1,\"stokMinimum\":1}",
+                "{\"kode\":\"JSN004\",\"nama\":\"Topi\",\"kategori\":\"Fashion\",\"harga\":1,\"stok\":1.5,\"stokMinimum\":1}",
+                "{\"kode\":\"JSN005\",\"nama\":\"Topi\"",
+                "[1,2,3]");
+
+        HasilImpor hasil = serviceImpor.impor(new StringReader(jsonl), Format.JSONL);
+
+        // Larik sebagai nilai tidak didukung, jadi baris pertama juga ditolak
+        assertEquals(1, hasil.jumlahDisimpan());
+        assertEquals(List.of(1L, 3L, 4L, 5L, 6L), hasil.ditolak().stream().map(BarisDitolak::nomorBaris).toList());
+        assertEquals(AlasanPenolakan.DATA_TIDAK_VALID, hasil.ditolak().get(1).alasan());
+        Produk sepatu = repository.cariByKode("JSN002").get();
+        assertEquals(100000, sepatu.getHarga());
+        assertFalse(sepatu.isAktif());
+    }
+
+    @Test
+    @DisplayName("Kode ganda di batch berbeda terdeteksi lewat pemeriksaan keberadaan")
+    void testBanyakBatch() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append("BRG").append(i).append(",Barang ").append(i).append(",Umum,1000,").append(i).append(",1\n");
+        }
+        csv.append("BRG5,Barang Ganda,Umum,1000,1,1\n");
+        csv.append("BRG6,Barang Ganda,Umum,1000,1,1\n");
+        csv.append("rusak\n");
+
+        HasilImpor hasil;
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            hasil = new ServiceImporKatalog(repository, pool, 7, 3).impor(new StringReader(csv.toString()), Format.CSV);
+        }
+
+        assertEquals(103, hasil.jumlahBaris());
+        assertEquals(100, hasil.jumlahDisimpan());
+        assertEquals(3, hasil.jumlahDitolak());
+        assertEquals(List.of(AlasanPenolakan.KODE_SUDAH_ADA, AlasanPenolakan.KODE_SUDAH_ADA,
+                AlasanPenolakan.FORMAT_TIDAK_VALID), hasil.ditolak().stream().map(BarisDitolak::alasan).toList());
+        assertEquals(101, repository.jumlahProduk());
+        assertEquals(99, repository.cariByKode("BRG99").get().getStok());
+        assertEquals(15000000L * 10 + 1000L * 4950, (long) repository.agregatInventaris().get().totalNilai());
+    }
+
+    @Test
+    @DisplayName("Baris yang ditolak repository saat disimpan dilaporkan, bukan hilang")
+    void testGagalDisimpan() throws IOException {
+        RepositoryProdukInMemory menolak = new RepositoryProdukInMemory() {
+            @Override
+            public boolean simpan(Produk produk) {
+                return !produk.getKode().startsWith("TOLAK") && super.simpan(produk);
+            }
+        };
+        String csv = String.join("\n",
+                "BRG1,Barang Satu,Umum,1000,1,1",
+                "TOLAK1,Barang Ditolak,Umum,1000,1,1",
+                "BRG2,Barang Dua,Umum,1000,1,1",
+                "rusak");
+
+        HasilImpor hasil = new ServiceImporKatalog(menolak).impor(new StringReader(csv), Format.CSV);
+
+        assertEquals(2, hasil.jumlahDisimpan());
+        assertEquals(2, hasil.jumlahDitolak());
+        assertEquals(List.of(
+                new BarisDitolak(2, AlasanPenolakan.GAGAL_DISIMPAN, "TOLAK1,Barang Ditolak,Umum,1000,1,1"),
+                new BarisDitolak(4, AlasanPenolakan.FORMAT_TIDAK_VALID, "rusak")), hasil.ditolak());
+        assertEquals(2, menolak.jumlahProduk());
+    }
+
+    @Test
+    @DisplayName("Laporan penolakan dibatasi tetapi jumlahnya tetap dihitung")
+    void testBatasLaporan() throws IOException {
+        ServiceImporKatalog terbatas = new ServiceImporKatalog(repository, ForkJoinPool.commonPool(), 1000, 2);
+        List<String> baris = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            baris.add("ITEM" + i + ",Barang,Umum,0,1,1");
+        }
+
+        HasilImpor hasil = terbatas.impor(new StringReader(String.join("\n", baris)), Format.CSV);
+
+        assertEquals(0, hasil.jumlahDisimpan());
+        assertEquals(5000, hasil.jumlahDitolak());
+        assertEquals(2, hasil.ditolak().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ServiceImporKatalog(repository, ForkJoinPool.commonPool(), 0, 1));
+    }
+
+    @Test
+    @DisplayName("Impor dari berkas dan sumber kosong")
+    void testImporBerkas(@TempDir Path direktori) throws IOException {
+        Path berkas = direktori.resolve("katalog.csv");
+        Files.writeString(berkas, "PROD010,Buku Tulis,Alat Tulis,5000,100,10\n");
+
+        assertEquals(1, serviceImpor.impor(berkas, Format.CSV).jumlahDisimpan());
+        assertEquals(new HasilImpor(0, 0, 0, List.of()), serviceImpor.impor(new StringReader(""), Format.JSONL));
+    }
+}
@@ -0,0 +1,155 @@
+package com.Praktikum.Whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.ServiceInventarisAsinkron;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Fasad Asinkron Service Inventaris")
+public class ServiceInventarisAsinkronTest {
+    private RepositoryLambat repository;
+    private ServiceInventarisAsinkron asinkron;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryLambat();
+        repository.simpan(new Produk("PROD001", "Laptop", "Elektronik", 15000000, 10, 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.lepas.countDown();
+        if (asinkron != null) {
+            asinkron.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Metode asinkron memberi hasil yang sama dengan service sinkron")
+    void testHasilSamaDenganSinkron() throws Exception {
+        repository.lepas.countDown();
+        asinkron = new ServiceInventarisAsinkron(new ServiceInventaris(repository), 4);
+
+        assertTrue(asinkron.keluarStok("PROD001", 3).get(5, TimeUnit.SECONDS));
+        assertTrue(asinkron.masukStok("PROD001", 1).get(5, TimeUnit.SECONDS));
+        assertFalse(asinkron.keluarStok("PROD001", 100).get(5, TimeUnit.SECONDS));
+        assertEquals(8, asinkron.cariProdukByKode("PROD001").get(5, TimeUnit.SECONDS).get().getStok());
+        assertEquals(8, asinkron.hitungTotalStok().get(5, TimeUnit.SECONDS));
+        assertFalse(asinkron.cariProdukByKode("TIDAKADA").get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(0, asinkron.getJumlahDalamProses());
+    }
+
+    @Test
+    @DisplayName("Bulkhead membatasi panggilan repository bersamaan walau ribuan permintaan menunggu")
+    void testBulkheadMembatasiKonkurensi() throws Exception {
+        asinkron = new ServiceInventarisAsinkron(new ServiceInventaris(repository), 8, false);
+        List<CompletableFuture<Boolean>> hasil = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            hasil.add(asinkron.masukStok("PROD001", 1));
+        }
+        // Tunggu sampai semua izin terpakai oleh panggilan yang tertahan di repository
+        long batas = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (repository.aktif.get() < 8 && System.nanoTime() < batas) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, asinkron.getIzinTersedia());
+        assertTrue(asinkron.getJumlahDalamProses() > 8);
+
+        repository.lepas.countDown();
+        CompletableFuture.allOf(hasil.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+
+        assertEquals(8, repository.aktifMaks.get());
+        assertEquals(20_010, repository.cariByKode("PROD001").get().getStok());
+        assertEquals(0, asinkron.getJumlahDalamProses());
+    }
+
+    @Test
+    @DisplayName("cariProdukByKode identik yang bersamaan digabung menjadi satu panggilan repository")
+    void testCariByKodeDigabung() throws Exception {
+        asinkron = new ServiceInventarisAsinkron(new ServiceInventaris(repository), 8);
+        List<CompletableFuture<Optional<Produk>>> hasil = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            hasil.add(asinkron.cariProdukByKode("PROD001"));
+        }
+        repository.lepas.countDown();
+
+        for (CompletableFuture<Optional<Produk>> f : hasil) {
+            assertEquals("PROD001", f.get(5, TimeUnit.SECONDS).get().getKode());
+        }
+        assertEquals(1, repository.jumlahCariByKode.get());
+        assertEquals(99, asinkron.getJumlahDigabung());
+        // Setiap pemanggil mendapat objek sendiri
+        assertNotSame(hasil.get(1).get().get(), hasil.get(2).get().get());
+
+        // Setelah selesai, panggilan berikutnya membaca ulang repository
+        asinkron.cariProdukByKode("PROD001").get(5, TimeUnit.SECONDS);
+        assertEquals(2, repository.jumlahCariByKode.get());
+    }
+
+    @Test
+    @DisplayName("Kegagalan repository diteruskan ke semua pemanggil yang digabung")
+    void testKegagalanDiteruskan() {
+        repository.gagal = true;
+        asinkron = new ServiceInventarisAsinkron(new ServiceInventaris(repository), 2);
+        CompletableFuture<Optional<Produk>> pertama = asinkron.cariProdukByKode("PROD001");
+        CompletableFuture<Optional<Produk>> kedua = asinkron.cariProdukByKode("PROD001");
+        repository.lepas.countDown();
+
+        ExecutionException e1 = assertThrows(ExecutionException.class, () -> pertama.get(5, TimeUnit.SECONDS));
+        ExecutionException e2 = assertThrows(ExecutionException.class, () -> kedua.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e1.getCause());
+        assertInstanceOf(IllegalStateException.class, e2.getCause());
+        assertEquals(2, asinkron.getIzinTersedia());
+    }
+
+    @Test
+    @DisplayName("Batas konkurensi harus positif")
+    void testBatasTidakValid() {
+        ServiceInventaris service = new ServiceInventaris(repository);
+        assertThrows(IllegalArgumentException.class, () -> new ServiceInventarisAsinkron(service, 0));
+    }
+
+    // Repository yang menahan setiap cariByKode sampai dilepas dan mencatat konkurensi tertinggi
+    private static class RepositoryLambat extends RepositoryProdukInMemory {
+        final CountDownLatch lepas = new CountDownLatch(1);
+        final AtomicInteger aktif = new AtomicInteger();
+        final AtomicInteger aktifMaks = new AtomicInteger();
+        final AtomicInteger jumlahCariByKode = new AtomicInteger();
+        volatile boolean gagal;
+
+        @Override
+        public Optional<Produk> cariByKode(String kode) {
+            if (Thread.currentThread().isVirtual()) {
+                jumlahCariByKode.incrementAndGet();
+                int sekarang = aktif.incrementAndGet();
+                aktifMaks.accumulateAndGet(sekarang, Math::max);
+                try {
+                    lepas.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    aktif.decrementAndGet();
+                }
+                if (gagal) {
+                    throw new IllegalStateException("Repository tidak tersedia");
+                }
+            }
+            return super.cariByKode(kode);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.Praktikum.Whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Stress Test Konkurensi Stok Service Inventaris")
+public class ServiceInventarisKonkurensiTest {
+    private static final int JUMLAH_THREAD = 16;
+    private RepositoryProdukInMemory repository;
+    private ServiceInventaris serviceInventaris;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        serviceInventaris = new ServiceInventaris(repository);
+    }
+
+    @Test
+    @DisplayName("Keluar stok bersamaan pada satu SKU tidak pernah oversell")
+    void testKeluarStokBersamaanTidakOversell() throws Exception {
+        // Arrange: 1000 stok diperebutkan 16 thread x 200 permintaan
+        repository.simpan(new Produk("HOT001", "Voucher Flash Sale", "Digital", 10000, 1000, 10));
+
+        // Act
+        List<Integer> berhasil = jalankanBersamaan(() -> {
+            int sukses = 0;
+            for (int i = 0; i < 200; i++) {
+                if (serviceInventaris.keluarStok("HOT001", 1)) {
+                    sukses++;
+                }
+            }
+            return sukses;
+        });
+
+        // Assert
+        assertEquals(1000, berhasil.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, repository.cariByKode("HOT001").get().getStok());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+    }
+
+    @Test
+    @DisplayName("Campuran keluar dan masuk stok bersamaan menjaga kekekalan stok")
+    void testCampuranKeluarMasukKekalanStok() throws Exception {
+        // Arrange
+        int stokAwal = 500;
+        repository.simpan(new Produk("HOT002", "Beras Premium", "Makanan", 75000, stokAwal, 50));
+
+        // Act: tiap thread mencatat selisih bersih dari operasi yang berhasil
+        List<Integer> selisih = jalankanBersamaan(() -> {
+            ThreadLocalRandom acak = ThreadLocalRandom.current();
+            int bersih = 0;
+            for (int i = 0; i < 5000; i++) {
+                int jumlah = 1 + acak.nextInt(5);
+                if (acak.nextBoolean()) {
+                    if (serviceInventaris.keluarStok("HOT002", jumlah)) {
+                        bersih -= jumlah;
+                    }
+                } else if (serviceInventaris.masukStok("HOT002", jumlah)) {
+                    bersih += jumlah;
+                }
+            }
+            return bersih;
+        });
+
+        // Assert
+        int stokAkhir = repository.cariByKode("HOT002").get().getStok();
+        assertEquals(stokAwal + selisih.stream().mapToInt(Integer::intValue).sum(), stokAkhir);
+        assertTrue(stokAkhir >= 0);
+        boolean menipis = stokAkhir > 0 && stokAkhir <= 50;
+        assertEquals(menipis, repository.cariProdukStokMenipis().size() == 1);
+        assertEquals(stokAkhir > 50, repository.cariProdukStokAman().size() == 1);
+    }
+
+    private List<Integer> jalankanBersamaan(Callable<Integer> tugas) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(JUMLAH_THREAD);
+        CountDownLatch mulai = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> hasil = new ArrayList<>();
+            for (int i = 0; i < JUMLAH_THREAD; i++) {
+                hasil.add(executor.submit(() -> {
+                    mulai.await();
+                    return tugas.call();
+                }));
+            }
+            mulai.countDown();
+            List<Integer> nilai = new ArrayList<>();
+            for (Future<Integer> f : hasil) {
+                nilai.add(f.get(30, TimeUnit.SECONDS));
+            }
+            return nilai;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
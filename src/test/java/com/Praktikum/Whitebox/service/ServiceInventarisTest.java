@@ -1,8 +1,12 @@
 package com.Praktikum.Whitebox.service;
 
+import com.praktikum.whitebox.model.MutasiStok;
 import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.AgregatInventaris;
 import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.service.HasilOperasi;
 import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.StatusOperasi;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,10 +17,13 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -76,14 +83,15 @@ public class ServiceInventarisTest {
     void testKeluarStokBerhasil() {
         // Arrange
         when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(produkTest));
-        when(mockRepositoryProduk.updateStok("PROD001", 5)).thenReturn(true);
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 5)).thenReturn(5);
 
         // Act
         boolean hasil = serviceInventaris.keluarStok("PROD001", 5);
 
         // Assert
         assertTrue(hasil);
-        verify(mockRepositoryProduk).updateStok("PROD001", 5);
+        verify(mockRepositoryProduk).kurangiStokJikaCukup("PROD001", 5);
+        verify(mockRepositoryProduk, never()).updateStok(anyString(), anyInt());
     }
 
     @Test
@@ -98,6 +106,18 @@ public class ServiceInventarisTest {
         // Assert
         assertFalse(hasil);
         verify(mockRepositoryProduk, never()).updateStok(anyString(), anyInt());
+        verify(mockRepositoryProduk, never()).kurangiStokJikaCukup(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Keluar stok gagal - stok habis diambil transaksi lain setelah dibaca")
+    void testKeluarStokGagalKalahBalapan() {
+        // Arrange: stok terbaca 10, tetapi saat pengurangan atomik tinggal 2
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(produkTest));
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 5)).thenReturn(-3);
+
+        // Act & Assert
+        assertFalse(serviceInventaris.keluarStok("PROD001", 5));
     }
 
     @Test
@@ -110,7 +130,7 @@ public class ServiceInventarisTest {
         produkNonAktif.setAktif(false);
 
         List<Produk> semuaProduk = Arrays.asList(produk1, produk2, produkNonAktif);
-        when(mockRepositoryProduk.cariSemua()).thenReturn(semuaProduk);
+        when(mockRepositoryProduk.alirSemua()).thenReturn(semuaProduk.stream());
 
         // Act
         double totalNilai = serviceInventaris.hitungTotalNilaiInventaris();
@@ -118,7 +138,8 @@ public class ServiceInventarisTest {
         // Assert
         double expected = (10000000 * 2) + (500000 * 5); // hanya produk aktif
         assertEquals(expected, totalNilai, 0.001);
-        verify(mockRepositoryProduk).cariSemua();
+        verify(mockRepositoryProduk).alirSemua();
+        verify(mockRepositoryProduk, never()).cariSemua();
     }
 
     @Test
@@ -239,7 +260,7 @@ public class ServiceInventarisTest {
         assertFalse(serviceInventaris.keluarStok("PROD001", 15));
 
         // Path 5: Semua kondisi terpenuhi → return true
-        when(mockRepositoryProduk.updateStok("PROD001", 5)).thenReturn(true);
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 5)).thenReturn(5);
         assertTrue(serviceInventaris.keluarStok("PROD001", 5));
     }
 
@@ -291,7 +312,7 @@ public class ServiceInventarisTest {
         // Arrange
         if (expected) {
             when(mockRepositoryProduk.cariByKode(kode)).thenReturn(Optional.of(produkTest));
-            when(mockRepositoryProduk.updateStok(kode, produkTest.getStok() + jumlah)).thenReturn(true);
+            when(mockRepositoryProduk.tambahStok(kode, jumlah)).thenReturn(produkTest.getStok() + jumlah);
         }
 
         // Act & Assert
@@ -308,28 +329,49 @@ public class ServiceInventarisTest {
         produkNonAktif.setAktif(false);
 
         List<Produk> semuaProduk = Arrays.asList(produkAktif1, produkAktif2, produkNonAktif);
-        when(mockRepositoryProduk.cariSemua()).thenReturn(semuaProduk);
+        when(mockRepositoryProduk.alirSemua()).thenReturn(semuaProduk.stream());
 
         // Act
         int totalStok = serviceInventaris.hitungTotalStok();
 
         // Assert
         assertEquals(8, totalStok); // 5 + 3 (hanya produk aktif)
-        verify(mockRepositoryProduk).cariSemua();
+        verify(mockRepositoryProduk).alirSemua();
+        verify(mockRepositoryProduk, never()).cariSemua();
     }
 
     @Test
     @DisplayName("Test hitungTotalStok - tidak ada produk")
     void testHitungTotalStok_NoProducts() {
         // Arrange
-        when(mockRepositoryProduk.cariSemua()).thenReturn(Collections.emptyList());
+        when(mockRepositoryProduk.alirSemua()).thenReturn(Stream.empty());
 
         // Act
         int totalStok = serviceInventaris.hitungTotalStok();
 
         // Assert
         assertEquals(0, totalStok);
-        verify(mockRepositoryProduk).cariSemua();
+        verify(mockRepositoryProduk).alirSemua();
+        verify(mockRepositoryProduk, never()).cariSemua();
+    }
+
+    @Test
+    @DisplayName("Test hitungTotalNilaiInventarisTepat - total uang tepat tanpa galat pembulatan")
+    void testHitungTotalNilaiInventarisTepat() {
+        // Arrange
+        Produk produkAktif1 = new Produk("PROD001", "Permen", "Makanan", 0.1, 3, 1);
+        Produk produkAktif2 = new Produk("PROD002", "Bolpoin", "Alat Tulis", 0.2, 1, 1);
+        Produk produkNonAktif = new Produk("PROD003", "Keyboard", "Elektronik", 300000, 2, 1);
+        produkNonAktif.setAktif(false);
+        when(mockRepositoryProduk.alirSemua())
+                .thenReturn(Stream.of(produkAktif1, produkAktif2, produkNonAktif));
+
+        // Act
+        BigDecimal total = serviceInventaris.hitungTotalNilaiInventarisTepat();
+
+        // Assert: 0.1 * 3 + 0.2 dalam double = 0.5000000000000001
+        assertEquals(new BigDecimal("0.50"), total);
+        verify(mockRepositoryProduk, never()).agregatInventaris();
     }
 
     // ✅ TAMBAHAN 10: Test untuk cariProdukByKode (0% coverage)
@@ -478,4 +520,151 @@ public class ServiceInventarisTest {
         assertFalse(hasil);
         verify(mockRepositoryProduk, never()).cariByKode(anyString());
     }
-}
\ No newline at end of file
+
+    // ===== HASIL OPERASI TERSTRUKTUR =====
+
+    @Test
+    @DisplayName("Keluar stok dengan hasil - alasan dan stok saat ini tanpa pencarian ulang")
+    void testKeluarStokDenganHasil() {
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(produkTest));
+        when(mockRepositoryProduk.kurangiStokJikaCukup("PROD001", 8)).thenReturn(2, -3);
+
+        assertEquals(new HasilOperasi(StatusOperasi.BERHASIL, 2), serviceInventaris.keluarStokDenganHasil("PROD001", 8));
+        // Bacaan awal masih 10, tetapi operasi atomik melihat stok 2
+        assertEquals(new HasilOperasi(StatusOperasi.STOK_TIDAK_CUKUP, 2), serviceInventaris.keluarStokDenganHasil("PROD001", 8));
+        assertEquals(new HasilOperasi(StatusOperasi.STOK_TIDAK_CUKUP, 10), serviceInventaris.keluarStokDenganHasil("PROD001", 11));
+        assertSame(HasilOperasi.tanpaStok(StatusOperasi.KODE_TIDAK_VALID), serviceInventaris.keluarStokDenganHasil("P1", 1));
+        assertSame(HasilOperasi.tanpaStok(StatusOperasi.JUMLAH_TIDAK_VALID), serviceInventaris.keluarStokDenganHasil("PROD001", 0));
+        verify(mockRepositoryProduk, times(3)).cariByKode("PROD001");
+    }
+
+    @Test
+    @DisplayName("Masuk stok dan update stok dengan hasil - tidak ditemukan, tidak aktif, overflow")
+    void testMasukDanUpdateStokDenganHasil() {
+        Produk produkNonAktif = new Produk("PROD002", "Mouse", "Elektronik", 500000, 4, 1);
+        produkNonAktif.setAktif(false);
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(produkTest));
+        when(mockRepositoryProduk.cariByKode("PROD002")).thenReturn(Optional.of(produkNonAktif));
+        when(mockRepositoryProduk.cariByKode("PROD999")).thenReturn(Optional.empty());
+        when(mockRepositoryProduk.tambahStok("PROD001", Integer.MAX_VALUE)).thenReturn(-11);
+        when(mockRepositoryProduk.tambahStok("PROD001", 5)).thenReturn(RepositoryProduk.PRODUK_TIDAK_ADA);
+        when(mockRepositoryProduk.updateStok("PROD001", 7)).thenReturn(true);
+
+        assertEquals(new HasilOperasi(StatusOperasi.JUMLAH_TIDAK_VALID, 10),
+                serviceInventaris.masukStokDenganHasil("PROD001", Integer.MAX_VALUE));
+        assertEquals(StatusOperasi.PRODUK_TIDAK_DITEMUKAN, serviceInventaris.masukStokDenganHasil("PROD001", 5).status());
+        assertEquals(new HasilOperasi(StatusOperasi.PRODUK_TIDAK_AKTIF, 4), serviceInventaris.masukStokDenganHasil("PROD002", 5));
+        assertEquals(HasilOperasi.STOK_TIDAK_DIKETAHUI, serviceInventaris.masukStokDenganHasil("PROD999", 5).stok());
+        assertEquals(new HasilOperasi(StatusOperasi.BERHASIL, 7), serviceInventaris.updateStokDenganHasil("PROD001", 7));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, serviceInventaris.updateStokDenganHasil("PROD001", -1).status());
+    }
+
+    @Test
+    @DisplayName("Tambah dan hapus produk dengan hasil - sudah ada, tidak valid, stok masih ada")
+    void testTambahHapusDenganHasil() {
+        Produk produkKosong = new Produk("PROD003", "Keyboard", "Elektronik", 300000, 0, 1);
+        when(mockRepositoryProduk.cariByKode("PROD001")).thenReturn(Optional.of(produkTest));
+        when(mockRepositoryProduk.cariByKode("PROD003")).thenReturn(Optional.of(produkKosong));
+        when(mockRepositoryProduk.hapus("PROD003")).thenReturn(true);
+
+        assertEquals(new HasilOperasi(StatusOperasi.PRODUK_SUDAH_ADA, 10), serviceInventaris.tambahProdukDenganHasil(produkTest));
+        assertEquals(StatusOperasi.PRODUK_TIDAK_VALID, serviceInventaris.tambahProdukDenganHasil(null).status());
+        assertEquals(new HasilOperasi(StatusOperasi.STOK_MASIH_ADA, 10), serviceInventaris.hapusProdukDenganHasil("PROD001"));
+        assertTrue(serviceInventaris.hapusProdukDenganHasil("PROD003").isBerhasil());
+        verify(mockRepositoryProduk, never()).simpan(any());
+    }
+
+    // ===== MUTASI STOK BATCH =====
+
+    @Test
+    @DisplayName("Mutasi batch - mutasi kode yang sama digabung menjadi satu penulisan")
+    void testProsesMutasiBatchDigabung() {
+        // Arrange
+        Produk produkLain = new Produk("PROD002", "Mouse", "Elektronik", 500000, 1, 2);
+        when(mockRepositoryProduk.cariByKodeBanyak(any()))
+                .thenReturn(Map.of("PROD001", produkTest, "PROD002", produkLain));
+        when(mockRepositoryProduk.terapkanDeltaStok(Map.of("PROD001", 3, "PROD002", -4)))
+                .thenReturn(Map.of("PROD001", 13, "PROD002", -2));
+
+        // Act
+        StatusOperasi[] hasil = serviceInventaris.prosesMutasiBatch(List.of(
+                MutasiStok.masuk("PROD001", 5),
+                MutasiStok.keluar("PROD002", 4),
+                MutasiStok.keluar("PROD001", 2)));
+
+        // Assert: satu grup berhasil, grup lain gagal karena stok bersih tidak cukup
+        assertArrayEquals(new StatusOperasi[]{StatusOperasi.BERHASIL,
+                StatusOperasi.STOK_TIDAK_CUKUP, StatusOperasi.BERHASIL}, hasil);
+        verify(mockRepositoryProduk).terapkanDeltaStok(anyMap());
+        verify(mockRepositoryProduk, never()).cariByKode(anyString());
+        verify(mockRepositoryProduk, never()).updateStok(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Mutasi batch - item tidak valid, tidak ditemukan dan tidak aktif")
+    void testProsesMutasiBatchStatusPerItem() {
+        // Arrange
+        Produk produkNonAktif = new Produk("PROD003", "Keyboard", "Elektronik", 300000, 3, 1);
+        produkNonAktif.setAktif(false);
+        when(mockRepositoryProduk.cariByKodeBanyak(any())).thenReturn(Map.of("PROD003", produkNonAktif));
+
+        // Act
+        StatusOperasi[] hasil = serviceInventaris.prosesMutasiBatch(Arrays.asList(
+                MutasiStok.masuk("AB", 5),
+                null,
+                MutasiStok.keluar("PROD001", 0),
+                MutasiStok.masuk("PROD999", 1),
+                MutasiStok.keluar("PROD003", 1)));
+
+        // Assert
+        assertArrayEquals(new StatusOperasi[]{StatusOperasi.KODE_TIDAK_VALID,
+                StatusOperasi.KODE_TIDAK_VALID, StatusOperasi.JUMLAH_TIDAK_VALID,
+                StatusOperasi.PRODUK_TIDAK_DITEMUKAN, StatusOperasi.PRODUK_TIDAK_AKTIF}, hasil);
+        verify(mockRepositoryProduk, never()).terapkanDeltaStok(anyMap());
+    }
+
+    @Test
+    @DisplayName("Mutasi batch - selisih masuk yang melampaui batas stok berstatus jumlah tidak valid")
+    void testProsesMutasiBatchOverflow() {
+        // Arrange
+        Produk produkLain = new Produk("PROD002", "Mouse", "Elektronik", 500000, 1, 2);
+        when(mockRepositoryProduk.cariByKodeBanyak(any()))
+                .thenReturn(Map.of("PROD001", produkTest, "PROD002", produkLain));
+        when(mockRepositoryProduk.terapkanDeltaStok(Map.of("PROD001", Integer.MAX_VALUE, "PROD002", -2)))
+                .thenReturn(Map.of("PROD001", -11, "PROD002", -2));
+
+        // Act
+        StatusOperasi[] hasil = serviceInventaris.prosesMutasiBatch(List.of(
+                MutasiStok.masuk("PROD001", Integer.MAX_VALUE),
+                MutasiStok.keluar("PROD002", 2)));
+
+        // Assert: overflow sama dengan masukStokDenganHasil, kekurangan tetap STOK_TIDAK_CUKUP
+        assertArrayEquals(new StatusOperasi[]{StatusOperasi.JUMLAH_TIDAK_VALID,
+                StatusOperasi.STOK_TIDAK_CUKUP}, hasil);
+    }
+
+    @Test
+    @DisplayName("Mutasi batch - daftar kosong tidak menyentuh repository")
+    void testProsesMutasiBatchKosong() {
+        assertEquals(0, serviceInventaris.prosesMutasiBatch(Collections.emptyList()).length);
+        verifyNoInteractions(mockRepositoryProduk);
+    }
+
+    // ===== AGREGAT INKREMENTAL =====
+
+    @Test
+    @DisplayName("Total inventaris dibaca dari agregat repository tanpa scan katalog")
+    void testHitungTotalDariAgregat() {
+        // Arrange
+        AgregatInventaris agregat = mock(AgregatInventaris.class);
+        when(agregat.totalNilai()).thenReturn(22500000.0);
+        when(agregat.totalStok()).thenReturn(7L);
+        when(mockRepositoryProduk.agregatInventaris()).thenReturn(Optional.of(agregat));
+
+        // Act & Assert
+        assertEquals(22500000.0, serviceInventaris.hitungTotalNilaiInventaris(), 0.001);
+        assertEquals(7, serviceInventaris.hitungTotalStok());
+        verify(mockRepositoryProduk, never()).cariSemua();
+        verify(mockRepositoryProduk, never()).alirSemua();
+    }
+}
@@ -0,0 +1,185 @@
+package com.Praktikum.Whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.ServiceReservasi;
+import com.praktikum.whitebox.service.ServiceReservasi.Reservasi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Reservasi Stok Checkout")
+public class ServiceReservasiTest {
+    private final AtomicLong waktuNanos = new AtomicLong(1_000_000_000L);
+    private RepositoryProdukInMemory repository;
+    private ServiceReservasi serviceReservasi;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("PROD001", "Laptop", "Elektronik", 15000000, 10, 2));
+        serviceReservasi = new ServiceReservasi(new ServiceInventaris(repository), 8,
+                Duration.ofMillis(10), waktuNanos::get);
+    }
+
+    @Test
+    @DisplayName("Reservasi mengurangi stok tersedia tanpa mengubah stok")
+    void testReservasiMenahanStok() {
+        Optional<Reservasi> reservasi = serviceReservasi.reservasi("PROD001", 4, Duration.ofMinutes(5));
+
+        assertTrue(reservasi.isPresent());
+        assertEquals(6, serviceReservasi.getStokTersedia("PROD001").getAsInt());
+        assertEquals(4, serviceReservasi.getStokTertahan("PROD001"));
+        assertEquals(10, repository.cariByKode("PROD001").get().getStok());
+        // Sisa 6 tidak cukup untuk 7
+        assertFalse(serviceReservasi.reservasi("PROD001", 7, Duration.ofMinutes(5)).isPresent());
+        assertFalse(serviceReservasi.keluarStok("PROD001", 7));
+        assertTrue(serviceReservasi.keluarStok("PROD001", 6));
+    }
+
+    @Test
+    @DisplayName("Komit mengurangi stok dan hanya berlaku sekali")
+    void testKomit() {
+        Reservasi reservasi = serviceReservasi.reservasi("PROD001", 3, Duration.ofMinutes(5)).get();
+
+        assertTrue(serviceReservasi.komit(reservasi.id()));
+        assertFalse(serviceReservasi.komit(reservasi.id()));
+        assertFalse(serviceReservasi.lepas(reservasi.id()));
+        assertEquals(7, repository.cariByKode("PROD001").get().getStok());
+        assertEquals(0, serviceReservasi.getStokTertahan("PROD001"));
+        assertEquals(0, serviceReservasi.getJumlahReservasiAktif());
+    }
+
+    @Test
+    @DisplayName("Lepas mengembalikan stok tersedia tanpa mengubah stok")
+    void testLepas() {
+        Reservasi reservasi = serviceReservasi.reservasi("PROD001", 10, Duration.ofMinutes(5)).get();
+        assertEquals(0, serviceReservasi.getStokTersedia("PROD001").getAsInt());
+
+        assertTrue(serviceReservasi.lepas(reservasi.id()));
+        assertEquals(10, serviceReservasi.getStokTersedia("PROD001").getAsInt());
+        assertEquals(10, repository.cariByKode("PROD001").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Reservasi tidak valid ditolak")
+    void testReservasiTidakValid() {
+        assertFalse(serviceReservasi.reservasi("", 1, Duration.ofMinutes(1)).isPresent());
+        assertFalse(serviceReservasi.reservasi("PROD001", 0, Duration.ofMinutes(1)).isPresent());
+        assertFalse(serviceReservasi.reservasi("PROD001", 1, Duration.ZERO).isPresent());
+        assertFalse(serviceReservasi.reservasi("TIDAKADA", 1, Duration.ofMinutes(1)).isPresent());
+        assertFalse(serviceReservasi.getStokTersedia("TIDAKADA").isPresent());
+        assertThrows(IllegalArgumentException.class, () -> new ServiceReservasi(
+                new ServiceInventaris(repository), 3, Duration.ofMillis(10), waktuNanos::get));
+    }
+
+    @Test
+    @DisplayName("Reservasi ditolak saat kategori produk dinonaktifkan")
+    void testKategoriNonaktif() {
+        ServiceInventaris serviceInventaris = new ServiceInventaris(repository);
+        ServiceReservasi reservasiKategori = new ServiceReservasi(serviceInventaris);
+        assertTrue(serviceInventaris.setKategoriAktif("elektronik", false));
+
+        assertFalse(reservasiKategori.reservasi("PROD001", 1, Duration.ofMinutes(1)).isPresent());
+        serviceInventaris.setKategoriAktif("Elektronik", true);
+        assertTrue(reservasiKategori.reservasi("PROD001", 1, Duration.ofMinutes(1)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Roda waktu membebaskan reservasi tepat saat kedaluwarsa")
+    void testKedaluwarsaDibebaskanRodaWaktu() {
+        serviceReservasi.reservasi("PROD001", 2, Duration.ofMillis(500));
+        serviceReservasi.reservasi("PROD001", 3, Duration.ofSeconds(90));
+        Reservasi dikomit = serviceReservasi.reservasi("PROD001", 1, Duration.ofMillis(500)).get();
+        assertTrue(serviceReservasi.komit(dikomit.id()));
+
+        waktuNanos.addAndGet(Duration.ofMillis(490).toNanos());
+        assertEquals(0, serviceReservasi.bersihkanKedaluwarsa());
+        waktuNanos.addAndGet(Duration.ofMillis(10).toNanos());
+        // Reservasi yang sudah dikomit tidak dihitung lagi
+        assertEquals(1, serviceReservasi.bersihkanKedaluwarsa());
+        assertEquals(3, serviceReservasi.getStokTertahan("PROD001"));
+
+        // 90 detik melewati beberapa tingkat roda
+        waktuNanos.addAndGet(Duration.ofSeconds(89).toNanos());
+        assertEquals(0, serviceReservasi.bersihkanKedaluwarsa());
+        waktuNanos.addAndGet(Duration.ofMillis(500).toNanos());
+        assertEquals(1, serviceReservasi.bersihkanKedaluwarsa());
+        assertEquals(0, serviceReservasi.getStokTertahan("PROD001"));
+        assertEquals(9, serviceReservasi.getStokTersedia("PROD001").getAsInt());
+    }
+
+    @Test
+    @DisplayName("TTL melebihi jangkauan roda tetap kedaluwarsa tepat waktu")
+    void testTtlSangatPanjang() {
+        serviceReservasi.reservasi("PROD001", 5, Duration.ofDays(3));
+
+        waktuNanos.addAndGet(Duration.ofDays(3).minusSeconds(1).toNanos());
+        assertEquals(0, serviceReservasi.bersihkanKedaluwarsa());
+        waktuNanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(1, serviceReservasi.bersihkanKedaluwarsa());
+    }
+
+    @Test
+    @DisplayName("Komit setelah kedaluwarsa gagal walau roda belum dimajukan")
+    void testKomitSetelahKedaluwarsa() {
+        Reservasi reservasi = serviceReservasi.reservasi("PROD001", 4, Duration.ofSeconds(1)).get();
+        waktuNanos.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertFalse(serviceReservasi.komit(reservasi.id()));
+        assertEquals(10, repository.cariByKode("PROD001").get().getStok());
+        assertEquals(0, serviceReservasi.getStokTertahan("PROD001"));
+    }
+
+    @Test
+    @DisplayName("Reservasi bersamaan pada satu SKU tidak pernah melebihi stok")
+    void testReservasiBersamaanTidakOversell() throws Exception {
+        repository.simpan(new Produk("HOT001", "Voucher", "Digital", 10000, 500, 10));
+        ServiceReservasi reservasiNyata = new ServiceReservasi(new ServiceInventaris(repository));
+        CountDownLatch mulai = new CountDownLatch(1);
+        List<Future<Integer>> hasil = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                hasil.add(executor.submit(() -> {
+                    mulai.await();
+                    int dikomit = 0;
+                    for (int i = 0; i < 200; i++) {
+                        Optional<Reservasi> r = reservasiNyata.reservasi("HOT001", 1, Duration.ofMinutes(1));
+                        if (r.isEmpty()) {
+                            continue;
+                        }
+                        // Sebagian pembeli membatalkan pembayaran
+                        if (i % 4 == 0) {
+                            assertTrue(reservasiNyata.lepas(r.get().id()));
+                        } else if (reservasiNyata.komit(r.get().id())) {
+                            dikomit++;
+                        }
+                    }
+                    return dikomit;
+                }));
+            }
+            mulai.countDown();
+            int totalDikomit = 0;
+            for (Future<Integer> f : hasil) {
+                totalDikomit += f.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(500, totalDikomit);
+        }
+        assertEquals(0, repository.cariByKode("HOT001").get().getStok());
+        assertEquals(0, reservasiNyata.getJumlahReservasiAktif());
+    }
+}
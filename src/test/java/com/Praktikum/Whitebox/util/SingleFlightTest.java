@@ -0,0 +1,135 @@
+package com.Praktikum.Whitebox.util;
+
+import com.praktikum.whitebox.util.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Penggabung Panggilan SingleFlight")
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Panggilan identik yang bersamaan hanya menjalankan pemuat sekali")
+    void testPanggilanBersamaanDigabung() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch lepas = new CountDownLatch(1);
+        AtomicInteger jumlahMuat = new AtomicInteger();
+        List<Future<Integer>> hasil = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                hasil.add(executor.submit(() -> singleFlight.jalankan("A", () -> {
+                    jumlahMuat.incrementAndGet();
+                    await(lepas);
+                    return 42;
+                })));
+            }
+            tungguSampai(() -> singleFlight.getJumlahDigabung() == 49);
+            lepas.countDown();
+            for (Future<Integer> f : hasil) {
+                assertEquals(42, f.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, jumlahMuat.get());
+        assertEquals(1, singleFlight.getJumlahPanggilan());
+        assertEquals(49, singleFlight.getJumlahDigabung());
+        assertEquals(0, singleFlight.getJumlahDalamProses());
+    }
+
+    @Test
+    @DisplayName("Panggilan berurutan dan kunci berbeda tidak digabung")
+    void testBerurutanTidakDigabung() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        assertEquals("a1", singleFlight.jalankan("a", () -> "a1"));
+        assertEquals("a2", singleFlight.jalankan("a", () -> "a2"));
+        assertEquals("b1", singleFlight.jalankan("b", () -> "b1"));
+        assertEquals(3, singleFlight.getJumlahPanggilan());
+        assertEquals(0, singleFlight.getJumlahDigabung());
+    }
+
+    @Test
+    @DisplayName("Pengecualian pemuat diteruskan ke semua penunggu")
+    void testPengecualianDiteruskan() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch lepas = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> pertama = executor.submit(() -> singleFlight.jalankan("A", () -> {
+                await(lepas);
+                throw new IllegalStateException("gagal");
+            }));
+            tungguSampai(() -> singleFlight.getJumlahDalamProses() == 1);
+            Future<Integer> kedua = executor.submit(() -> singleFlight.jalankan("A", () -> 1));
+            tungguSampai(() -> singleFlight.getJumlahDigabung() == 1);
+            lepas.countDown();
+
+            ExecutionException e1 = assertThrows(ExecutionException.class, () -> pertama.get(5, TimeUnit.SECONDS));
+            ExecutionException e2 = assertThrows(ExecutionException.class, () -> kedua.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e1.getCause());
+            assertInstanceOf(IllegalStateException.class, e2.getCause());
+        }
+        // Setelah gagal, panggilan berikutnya mencoba lagi
+        assertEquals(7, singleFlight.jalankan("A", () -> 7));
+    }
+
+    @Test
+    @DisplayName("Lupakan membuat pemanggil berikutnya memulai panggilan baru")
+    void testLupakan() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CompletableFuture<Integer> lambat = new CompletableFuture<>();
+        CompletableFuture<Integer> pertama = singleFlight.jalankanAsinkron("A", () -> lambat);
+        CompletableFuture<Integer> ikut = singleFlight.jalankanAsinkron("A", () -> CompletableFuture.completedFuture(0));
+
+        singleFlight.lupakan("A");
+        CompletableFuture<Integer> baru = singleFlight.jalankanAsinkron("A", () -> CompletableFuture.completedFuture(2));
+        lambat.complete(1);
+
+        assertEquals(1, pertama.join());
+        assertEquals(1, ikut.join());
+        assertEquals(2, baru.join());
+        assertEquals(2, singleFlight.getJumlahPanggilan());
+        assertEquals(1, singleFlight.getJumlahDigabung());
+    }
+
+    @Test
+    @DisplayName("Membatalkan future satu pemanggil tidak membatalkan pemanggil lain")
+    void testPembatalanTerisolasi() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CompletableFuture<Integer> lambat = new CompletableFuture<>();
+        CompletableFuture<Integer> pertama = singleFlight.jalankanAsinkron("A", () -> lambat);
+        CompletableFuture<Integer> kedua = singleFlight.jalankanAsinkron("A", () -> lambat);
+
+        pertama.cancel(true);
+        lambat.complete(5);
+
+        assertTrue(pertama.isCancelled());
+        assertEquals(5, kedua.join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void tungguSampai(BooleanSupplier kondisi) throws InterruptedException {
+        long batas = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!kondisi.getAsBoolean()) {
+            assertTrue(System.nanoTime() < batas, "kondisi tidak tercapai");
+            Thread.sleep(1);
+        }
+    }
+}
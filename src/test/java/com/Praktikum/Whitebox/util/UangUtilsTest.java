@@ -0,0 +1,81 @@
+package com.Praktikum.Whitebox.util;
+
+import com.praktikum.whitebox.util.AkumulatorUang;
+import com.praktikum.whitebox.util.UangUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Uang Utils dan Akumulator Uang")
+public class UangUtilsTest {
+
+    @ParameterizedTest
+    @DisplayName("Perkalian basis poin dibulatkan setengah ke atas")
+    @CsvSource({
+            "10000, 1000, 1000",
+            "13993, 1000, 1399",
+            "5, 1000, 1",
+            "4, 1000, 0",
+            "0, 3000, 0",
+            "9223372036854775807, 10000, 9223372036854775807"
+    })
+    void testKaliBasisPoin(long total, int basisPoin, long expected) {
+        assertEquals(expected, UangUtils.kaliBasisPoin(total, basisPoin));
+    }
+
+    @Test
+    @DisplayName("Perkalian basis poin sama dengan BigDecimal HALF_UP untuk nilai acak")
+    void testKaliBasisPoinAcak() {
+        Random acak = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long total = acak.nextLong() >>> 1;
+            int basisPoin = acak.nextInt(10_001);
+            long acuan = BigDecimal.valueOf(total).multiply(BigDecimal.valueOf(basisPoin))
+                    .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(acuan, UangUtils.kaliBasisPoin(total, basisPoin));
+        }
+        assertThrows(IllegalArgumentException.class, () -> UangUtils.kaliBasisPoin(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> UangUtils.kaliBasisPoin(1, 10_001));
+    }
+
+    @Test
+    @DisplayName("Konversi double dan BigDecimal ke satuan terkecil")
+    void testKonversi() {
+        assertEquals(1999, UangUtils.keMinor(19.99));
+        assertEquals(19.99, UangUtils.keDouble(1999), 0.0);
+        assertEquals(new BigDecimal("19.99"), UangUtils.keBigDecimal(1999));
+    }
+
+    @Test
+    @DisplayName("Akumulator 128-bit tidak overflow dan cocok dengan BigInteger")
+    void testAkumulatorUang() {
+        Random acak = new Random(5);
+        AkumulatorUang akumulator = new AkumulatorUang();
+        BigInteger acuan = BigInteger.ZERO;
+        for (int i = 0; i < 10_000; i++) {
+            long a = acak.nextLong();
+            long b = acak.nextInt();
+            akumulator.tambahHasilKali(a, b);
+            long c = acak.nextLong();
+            akumulator.tambah(c);
+            acuan = acuan.add(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))).add(BigInteger.valueOf(c));
+        }
+        assertEquals(acuan, akumulator.keBigInteger());
+
+        AkumulatorUang kecil = new AkumulatorUang().tambah(Long.MAX_VALUE).tambah(1).tambah(-1);
+        assertTrue(kecil.isMuatLong());
+        assertEquals(Long.MAX_VALUE, kecil.keLong());
+        kecil.tambah(new AkumulatorUang().tambah(1));
+        assertFalse(kecil.isMuatLong());
+        assertThrows(ArithmeticException.class, kecil::keLong);
+        assertEquals(new BigDecimal("92233720368547758.08"), kecil.keBigDecimal());
+    }
+}
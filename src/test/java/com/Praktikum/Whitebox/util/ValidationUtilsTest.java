@@ -9,6 +9,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Test untuk ValidationUtils")
@@ -274,4 +277,43 @@ public class ValidationUtilsTest {
         assertFalse(ValidationUtils.isValidKuantitas(0));    // invalid
         assertFalse(ValidationUtils.isValidKuantitas(-1));   // invalid
     }
-}
\ No newline at end of file
+
+    // ==================== DIFFERENTIAL TEST KODE PRODUK ====================
+
+    // Semantik lama berbasis regex, dipakai sebagai acuan untuk pemindai tanpa alokasi
+    private static final Pattern POLA_KODE_LAMA = Pattern.compile("^[A-Za-z0-9]{3,10}$");
+
+    private static boolean isValidKodeProdukLama(String kode) {
+        if (kode == null || kode.trim().isEmpty()) {
+            return false;
+        }
+        return POLA_KODE_LAMA.matcher(kode.trim()).matches();
+    }
+
+    @ParameterizedTest(name = "Test isValidKodeProduk: kasus tepi \"{0}\"")
+    @ValueSource(strings = {"ABC", "abcdefghij", "abcdefghijk", " A1B ", "\tA1B\n", "\u0000A1B",
+            "A 1", "A-1", "A_1", "ÄBC", "\u00A0ABC", "AB\u0661", "１２３", "ABC\u2003", "   ", "A\u0000B"})
+    @DisplayName("Test isValidKodeProduk: kasus tepi sama dengan semantik regex")
+    void testIsValidKodeProduk_KasusTepiSamaDenganRegex(String kode) {
+        assertEquals(isValidKodeProdukLama(kode), ValidationUtils.isValidKodeProduk(kode));
+    }
+
+    @Test
+    @DisplayName("Test isValidKodeProduk: differential acak terhadap semantik regex")
+    void testIsValidKodeProduk_DifferentialAcak() {
+        Random acak = new Random(20240601L);
+        char[] alfabet = "aZ09 \t\n\u0000\u001F\u007F-_.\u00A0\u00E9\u0663\u3000".toCharArray();
+        for (int i = 0; i < 200_000; i++) {
+            char[] isi = new char[acak.nextInt(14)];
+            for (int j = 0; j < isi.length; j++) {
+                // Sebagian besar karakter alfanumerik agar kasus valid juga sering muncul
+                isi[j] = acak.nextInt(4) == 0
+                        ? alfabet[acak.nextInt(alfabet.length)]
+                        : (char) ('A' + acak.nextInt(26));
+            }
+            String kode = new String(isi);
+            assertEquals(isValidKodeProdukLama(kode), ValidationUtils.isValidKodeProduk(kode),
+                    "Beda hasil untuk kode: \"" + kode + "\"");
+        }
+    }
+}